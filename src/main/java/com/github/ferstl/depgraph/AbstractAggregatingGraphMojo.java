@@ -15,7 +15,17 @@
  */
 package com.github.ferstl.depgraph;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
 
 public abstract class AbstractAggregatingGraphMojo extends AbstractGraphMojo {
 
@@ -27,4 +37,40 @@ public abstract class AbstractAggregatingGraphMojo extends AbstractGraphMojo {
   @Parameter(property = "mergeScopes", defaultValue = "false")
   boolean mergeScopes;
 
+  private final List<GraphBuilder<DependencyNode>> spillingGraphBuilders = new ArrayList<>();
+
+  @Override
+  void createGraphs(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException, MojoExecutionException {
+    try {
+      super.createGraphs(graphFormat, globalFilter, targetFilter, graphStyleConfigurer);
+    } finally {
+      // A leftover temporary file must not hide the actual result of this mojo
+      for (GraphBuilder<DependencyNode> graphBuilder : this.spillingGraphBuilders) {
+        try {
+          graphBuilder.deleteSpilledEdges();
+        } catch (IllegalStateException e) {
+          getLog().warn("Unable to delete spilled edges: " + e.getMessage());
+        }
+      }
+      this.spillingGraphBuilders.clear();
+    }
+  }
+
+  /**
+   * Lets the given graph builder write its edges to temporary files in the build directory when it has more than the
+   * given number of edges. The files are deleted when the graphs of this mojo are created.
+   *
+   * @param graphBuilder The graph builder.
+   * @param maxEdgesInMemory The maximum number of edges in memory or {@code 0} to keep all edges in memory.
+   * @return The graph builder.
+   */
+  final GraphBuilder<DependencyNode> spillEdges(GraphBuilder<DependencyNode> graphBuilder, int maxEdgesInMemory) {
+    if (maxEdgesInMemory > 0) {
+      Path directory = Paths.get(this.project.getBuild().getDirectory(), "depgraph-edges");
+      graphBuilder.spillEdges(maxEdgesInMemory, directory);
+      this.spillingGraphBuilders.add(graphBuilder);
+    }
+
+    return graphBuilder;
+  }
 }
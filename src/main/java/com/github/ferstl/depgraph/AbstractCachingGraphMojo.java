@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import com.github.ferstl.depgraph.dependency.AggregatingGraphFactory;
+import com.github.ferstl.depgraph.dependency.DependencyGraphCache;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+import com.github.ferstl.depgraph.dependency.MavenGraphAdapter;
+import com.github.ferstl.depgraph.dependency.SimpleGraphFactory;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID;
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID_WITH_SCOPE;
+
+/**
+ * Abstract mojo for long-running goals that create graphs of the current project and its modules over and over again.
+ * The resolved dependencies are kept in a {@link DependencyGraphCache}. When POM files are modified, only the affected
+ * projects are reloaded and resolved again.
+ */
+abstract class AbstractCachingGraphMojo extends AbstractAggregatingGraphMojo {
+
+  /**
+   * If set to {@code true}, the created graphs will show the {@code groupId} on all artifacts.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "showGroupIds", defaultValue = "false")
+  boolean showGroupIds;
+
+  /**
+   * If set to {@code true} the artifact nodes will show version information.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "showVersions", defaultValue = "false")
+  boolean showVersions;
+
+  @Component
+  ProjectBuilder projectBuilder;
+
+  private DependencyGraphCache dependencyGraphCache;
+  private ReactorProjects reactorProjects;
+  private final Map<MavenProject, RepositorySystemSession> originalRepositorySessions = new IdentityHashMap<>();
+
+  @Override
+  final void createGraphs(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException, MojoExecutionException {
+    this.dependencyGraphCache = new DependencyGraphCache(this.dependencyGraphBuilder);
+    this.reactorProjects = new ReactorProjects(this.project, this.projectBuilder, new DefaultProjectBuildingRequest(this.session.getProjectBuildingRequest()));
+
+    try {
+      run(graphFormat, globalFilter, targetFilter, graphStyleConfigurer);
+    } finally {
+      restoreRepositorySessions();
+    }
+  }
+
+  /**
+   * Runs this mojo until it is stopped.
+   *
+   * @param graphFormat The configured graph format.
+   * @param globalFilter The global artifact filter.
+   * @param targetFilter The target artifact filter.
+   * @param graphStyleConfigurer The style configurer for the configured graph format.
+   * @throws IOException In case a graph file cannot be written.
+   * @throws MojoExecutionException In case this mojo cannot be run.
+   */
+  abstract void run(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException, MojoExecutionException;
+
+  /**
+   * Creates a graph factory for the aggregated graph of all modules.
+   */
+  @Override
+  protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
+    return createGraphFactory(this.project, globalFilter, targetFilter, graphStyleConfigurer, 0);
+  }
+
+  /**
+   * Creates a graph factory that takes the dependencies from the cache. Parent projects get the aggregated graph of
+   * their modules.
+   *
+   * @param project The project to create the graph for.
+   * @param globalFilter The global artifact filter.
+   * @param targetFilter The target artifact filter.
+   * @param graphStyleConfigurer The style configurer.
+   * @param maxDepth The max depth of the graph or {@code 0} for unlimited depth.
+   * @return The graph factory.
+   */
+  final GraphFactory createGraphFactory(MavenProject project, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer, int maxDepth) {
+    GraphBuilder<DependencyNode> graphBuilder = graphStyleConfigurer
+        .showGroupIds(this.showGroupIds)
+        .showArtifactIds(true)
+        .showVersionsOnNodes(this.showVersions)
+        // The cached graphs don't contain any conflicting dependencies. So don't show versions on edges
+        .showVersionsOnEdges(false)
+        .configure(GraphBuilder.<DependencyNode>create(this.mergeScopes ? VERSIONLESS_ID : VERSIONLESS_ID_WITH_SCOPE));
+
+    MavenGraphAdapter adapter = new MavenGraphAdapter(this.dependencyGraphCache, targetFilter);
+    adapter.setMaxDepth(maxDepth);
+
+    if (project.getModules().isEmpty()) {
+      return new SimpleGraphFactory(adapter, globalFilter, graphBuilder);
+    }
+
+    return new AggregatingGraphFactory(adapter, globalFilter, graphBuilder, false);
+  }
+
+  final ReactorProjects getReactorProjects() {
+    return this.reactorProjects;
+  }
+
+  /**
+   * Reloads the projects affected by the given POM files and removes their cached dependency graphs.
+   *
+   * @param modifiedPomFiles The modified POM files.
+   * @return The reloaded projects.
+   * @throws ProjectBuildingException In case a project cannot be reloaded.
+   */
+  final List<MavenProject> reloadProjects(Collection<Path> modifiedPomFiles) throws ProjectBuildingException {
+    List<MavenProject> reloadedProjects = this.reactorProjects.reload(modifiedPomFiles);
+    if (reloadedProjects.isEmpty()) {
+      return reloadedProjects;
+    }
+
+    for (MavenProject reloadedProject : reloadedProjects) {
+      this.dependencyGraphCache.invalidate(reloadedProject);
+    }
+
+    // The resolver keeps the artifact descriptors of all projects, including the reactor projects, in the cache of the
+    // repository session. Resolve with an empty cache so the dependents of the reloaded projects see their new models.
+    DefaultRepositorySystemSession repositorySession = new DefaultRepositorySystemSession(this.session.getRepositorySession());
+    repositorySession.setCache(new DefaultRepositoryCache());
+    for (MavenProject project : this.reactorProjects.getProjects()) {
+      setRepositorySession(project, repositorySession);
+    }
+
+    return reloadedProjects;
+  }
+
+  /**
+   * Puts the original repository sessions back into the projects, which are shared with the rest of the build.
+   */
+  private void restoreRepositorySessions() {
+    for (Map.Entry<MavenProject, RepositorySystemSession> entry : this.originalRepositorySessions.entrySet()) {
+      getProjectBuildingRequest(entry.getKey()).setRepositorySession(entry.getValue());
+    }
+
+    this.originalRepositorySessions.clear();
+  }
+
+  private void setRepositorySession(MavenProject project, RepositorySystemSession repositorySession) {
+    ProjectBuildingRequest projectBuildingRequest = getProjectBuildingRequest(project);
+    if (!this.originalRepositorySessions.containsKey(project)) {
+      this.originalRepositorySessions.put(project, projectBuildingRequest.getRepositorySession());
+    }
+
+    projectBuildingRequest.setRepositorySession(repositorySession);
+  }
+
+  // The dependency graph builder resolves with the repository session of the project's building request. There is no
+  // other way to pass it a session.
+  @SuppressWarnings("deprecation")
+  private static ProjectBuildingRequest getProjectBuildingRequest(MavenProject project) {
+    return project.getProjectBuildingRequest();
+  }
+}
@@ -17,20 +17,24 @@ package com.github.ferstl.depgraph;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -42,25 +46,25 @@ import org.apache.maven.shared.artifact.filter.StrictPatternExcludesArtifactFilt
 import org.apache.maven.shared.artifact.filter.StrictPatternIncludesArtifactFilter;
 import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
 import org.apache.maven.shared.dependency.tree.DependencyTreeBuilder;
-import org.codehaus.plexus.util.cli.CommandLineException;
-import org.codehaus.plexus.util.cli.CommandLineUtils;
-import org.codehaus.plexus.util.cli.CommandLineUtils.StringStreamConsumer;
-import org.codehaus.plexus.util.cli.Commandline;
+import com.github.ferstl.depgraph.dependency.CollectedDependencyGraphBuilder;
 import com.github.ferstl.depgraph.dependency.DependencyGraphException;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
 import com.github.ferstl.depgraph.dependency.DotGraphStyleConfigurer;
 import com.github.ferstl.depgraph.dependency.GmlGraphStyleConfigurer;
 import com.github.ferstl.depgraph.dependency.GraphFactory;
 import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+import com.github.ferstl.depgraph.dependency.GroupIdClusterer;
 import com.github.ferstl.depgraph.dependency.JsonGraphStyleConfigurer;
+import com.github.ferstl.depgraph.dependency.ModuleClusterer;
 import com.github.ferstl.depgraph.dependency.PumlGraphStyleConfigurer;
 import com.github.ferstl.depgraph.dependency.style.StyleConfiguration;
 import com.github.ferstl.depgraph.dependency.style.resource.BuiltInStyleResource;
 import com.github.ferstl.depgraph.dependency.style.resource.ClasspathStyleResource;
 import com.github.ferstl.depgraph.dependency.style.resource.FileSystemStyleResource;
 import com.github.ferstl.depgraph.dependency.style.resource.StyleResource;
-import com.google.common.base.Joiner;
-import com.google.common.base.Splitter;
-import com.google.common.collect.Iterables;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.graph.NodeClusterer;
+import com.github.ferstl.depgraph.metrics.Metrics;
 
 /**
  * Abstract mojo to create all possible kinds of graphs in the dot format. Graphs are created with instances of the
@@ -71,8 +75,8 @@ import com.google.common.collect.Iterables;
  */
 abstract class AbstractGraphMojo extends AbstractMojo {
 
-  private static final Pattern LINE_SEPARATOR_PATTERN = Pattern.compile("\r?\n");
   private static final String OUTPUT_FILE_NAME = "dependency-graph";
+  private static final String FRAGMENT_FILE_NAME = "dependency-graph.fragment";
 
   /**
    * The scope of the artifacts that should be included in the graph. An empty string indicates all scopes (default).
@@ -123,6 +127,42 @@ abstract class AbstractGraphMojo extends AbstractMojo {
   @Parameter(property = "graphFormat", defaultValue = "dot")
   protected String graphFormat;
 
+  /**
+   * Order of the nodes and edges in the graph file, either &quot;insertion&quot; (default) or &quot;sorted&quot;.
+   * With &quot;insertion&quot;, nodes and edges appear in the order in which they were discovered. With
+   * &quot;sorted&quot;, nodes are sorted by their IDs and edges by the IDs of their nodes, which keeps the graph files
+   * stable across runs and makes them easy to diff.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "outputOrder", defaultValue = "insertion")
+  private String outputOrder;
+
+  /**
+   * Only relevant when {@code graphFormat=dot}: Groups the nodes of the graph in clusters, either &quot;none&quot;
+   * (default), &quot;groupId&quot; or &quot;module&quot;. With &quot;groupId&quot;, there is a cluster for each group
+   * ID. With &quot;module&quot;, there is a cluster for each module of the reactor, which contains the module and the
+   * dependencies that are closest to it. The clusters are purely visual: Graphviz still lays out the whole graph at
+   * once and draws a labeled box around the nodes of each cluster. Laying out a graph with clusters takes longer than
+   * laying out the same graph without them.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "clusterBy", defaultValue = "none")
+  private String clusterBy;
+
+  /**
+   * Only relevant when {@code graphFormat=dot}: If set to {@code true}, the dominators of the graph are highlighted.
+   * A dominator is an artifact through which every path from the project, or from the modules of an aggregated graph,
+   * to some other artifact passes. Excluding a dominator therefore removes all artifacts it dominates from the graph.
+   * The dominators are calculated over the resolved dependencies, so this option cannot be combined with
+   * {@code showConflicts} or {@code showDuplicates}.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "highlightDominators", defaultValue = "false")
+  private boolean highlightDominators;
+
   /**
    * The path to the generated output file. A file extension matching the configured {@code graphFormat} will be
    * added if not specified.
@@ -176,12 +216,13 @@ abstract class AbstractGraphMojo extends AbstractMojo {
 
   /**
    * Only relevant when {@code graphFormat=dot}: The format for the graph image when {@link #createImage} is set to
-   * {@code true}.
+   * {@code true}. Multiple formats can be specified as comma-separated list, e.g. {@code png,svg}. All images are
+   * created with a single invocation of the dot executable.
    *
    * @since 1.0.0
    */
   @Parameter(property = "imageFormat", defaultValue = "png")
-  private String imageFormat;
+  private List<String> imageFormat;
 
   /**
    * Only relevant when {@code graphFormat=dot}: Path to the dot executable. Use this option in case
@@ -192,6 +233,26 @@ abstract class AbstractGraphMojo extends AbstractMojo {
   @Parameter(property = "dotExecutable")
   private File dotExecutable;
 
+  /**
+   * Only relevant when {@code graphFormat=dot}: If set to {@code true} and {@link #createImage} is enabled, the graph
+   * is streamed directly into the standard input of the dot executable while it is formatted instead of letting dot
+   * read the generated dot file. The dot file will still be written at the same time.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "streamToGraphviz", defaultValue = "false")
+  private boolean streamToGraphviz;
+
+  /**
+   * Only relevant when {@code graphFormat=dot}: Maximum time in seconds the dot executable may run when
+   * {@link #createImage} is set to {@code true}. The dot process will be killed when it exceeds this timeout. A value
+   * of {@code 0} (default) means no timeout.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "graphvizTimeout", defaultValue = "0")
+  private int graphvizTimeout;
+
   /**
    * Only relevant when {@code graphFormat=dot}: Path to a custom style configuration in JSON format.
    *
@@ -210,10 +271,35 @@ abstract class AbstractGraphMojo extends AbstractMojo {
   private boolean printStyleConfiguration;
 
   /**
-   * The project's artifact ID.
+   * If set to {@code true}, the time and the memory allocated in each phase of the graph creation (dependency
+   * resolution, graph building, style matching, formatting, writing and Graphviz) are printed on the console together
+   * with the number of nodes and edges and the hit ratios of the style caches. Allocated memory is only reported on
+   * JVMs that support measuring it per thread.
+   *
+   * @since 2.2.1
    */
-  @Parameter(defaultValue = "${project.artifactId}", readonly = true)
-  private String artifactId;
+  @Parameter(property = "depgraph.metrics", defaultValue = "false")
+  private boolean metrics;
+
+  /**
+   * Only relevant when {@link #metrics} is enabled: If set to {@code true}, the metrics are additionally written in
+   * JSON format next to the graph file, e.g. {@code dependency-graph-metrics.json}.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "depgraph.metricsJson", defaultValue = "false")
+  private boolean metricsJson;
+
+  /**
+   * If set to {@code true} (default), graphs that show the resolved dependencies only are created from the dependencies
+   * that Maven already collected for the project, so the dependencies are not resolved a second time. They are resolved
+   * again only if the collected dependencies are not available. Graphs showing conflicts or duplicates always resolve
+   * the dependencies again.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "depgraph.reuseCollectedDependencies", defaultValue = "true")
+  private boolean reuseCollectedDependencies;
 
   /**
    * Local maven repository required by the {@link DependencyTreeBuilder}.
@@ -222,7 +308,10 @@ abstract class AbstractGraphMojo extends AbstractMojo {
   ArtifactRepository localRepository;
 
   @Parameter(defaultValue = "${project}", readonly = true)
-  private MavenProject project;
+  MavenProject project;
+
+  @Parameter(defaultValue = "${session}", readonly = true)
+  MavenSession session;
 
   @Component(hint = "default")
   DependencyGraphBuilder dependencyGraphBuilder;
@@ -230,27 +319,158 @@ abstract class AbstractGraphMojo extends AbstractMojo {
   @Component
   DependencyTreeBuilder dependencyTreeBuilder;
 
+  /**
+   * Metrics of the current execution or {@code null} if disabled.
+   */
+  private Metrics executionMetrics;
+
+  /**
+   * Buffers of the graph file writers, which are reused for all graphs of this execution.
+   */
+  private final GraphFileWriter.BufferPool writerBuffers = new GraphFileWriter.BufferPool();
+
   @Override
   public final void execute() throws MojoExecutionException, MojoFailureException {
     GraphFormat graphFormat = GraphFormat.forName(this.graphFormat);
-    ArtifactFilter globalFilter = createGlobalArtifactFilter();
-    ArtifactFilter targetFilter = createTargetArtifactFilter();
-    GraphStyleConfigurer graphStyleConfigurer = createGraphStyleConfigurer(graphFormat);
-    Path graphFilePath = createGraphFilePath(graphFormat);
+    this.executionMetrics = this.metrics ? new Metrics() : null;
 
-    try {
-      GraphFactory graphFactory = createGraphFactory(globalFilter, targetFilter, graphStyleConfigurer);
-      writeGraphFile(graphFactory.createGraph(this.project), graphFilePath);
+    checkParameters(graphFormat);
+
+    try (Metrics.Binding binding = Metrics.bind(this.executionMetrics, getModuleId(this.project))) {
+      ArtifactFilter globalFilter = createGlobalArtifactFilter();
+      ArtifactFilter targetFilter = createTargetArtifactFilter();
+      GraphStyleConfigurer graphStyleConfigurer = createGraphStyleConfigurer(graphFormat);
+
+      if (StringUtils.isNotBlank(this.outputFile)) {
+        getLog().warn("The 'outputFile' parameter has been deprecated. Use 'outputDirectory' and 'outputFileName' instead.");
+      }
+
+      try {
+        createGraphs(graphFormat, globalFilter, targetFilter, graphStyleConfigurer);
+      } catch (DependencyGraphException e) {
+        throw new MojoExecutionException("Unable to create dependency graph.", e.getCause());
+      } catch (IOException e) {
+        throw new MojoExecutionException("Unable to write graph file.", e);
+      }
+    }
+
+    if (this.executionMetrics != null) {
+      this.executionMetrics.finish();
+      reportMetrics(this.executionMetrics, graphFormat);
+    }
+  }
 
-      if (this.createImage && graphFormat == GraphFormat.DOT) {
-        createDotGraphImage(graphFilePath);
+  /**
+   * Override this method to reject parameter combinations that are not supported by a goal.
+   *
+   * @param graphFormat The graph format.
+   * @throws MojoFailureException In case the parameters are not supported.
+   */
+  void checkParameters(GraphFormat graphFormat) throws MojoFailureException {
+  }
+
+  /**
+   * Creates and writes all graphs of this mojo. The default implementation creates the graph of the current project.
+   * Override this method to create graphs for multiple projects. The filters and the style configurer are shared
+   * between all graphs.
+   *
+   * @param graphFormat The graph format.
+   * @param globalFilter The global artifact filter.
+   * @param targetFilter The target artifact filter.
+   * @param graphStyleConfigurer The style configurer.
+   * @throws IOException In case a graph or image file cannot be written.
+   * @throws MojoExecutionException In case the graphs cannot be created.
+   */
+  void createGraphs(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException, MojoExecutionException {
+    GraphFactory graphFactory = createGraphFactory(globalFilter, targetFilter, graphStyleConfigurer);
+    createGraph(graphFactory, this.project, graphFormat);
+  }
+
+  /**
+   * Creates the graph of the given project and writes it to the output file of that project. Creates the graph images
+   * if required.
+   *
+   * @param graphFactory The graph factory.
+   * @param project The project to create the graph for.
+   * @param graphFormat The graph format.
+   * @throws IOException In case the graph or image file cannot be written.
+   */
+  final void createGraph(GraphFactory graphFactory, MavenProject project, GraphFormat graphFormat) throws IOException {
+    boolean createImage = this.createImage && graphFormat == GraphFormat.DOT;
+
+    // Graphs may be created in other threads than the one executing this mojo
+    try (Metrics.Binding binding = Metrics.bind(this.executionMetrics, getModuleId(project))) {
+      Path graphFilePath = createGraphFilePath(graphFormat, project);
+      if (createImage && this.streamToGraphviz) {
+        streamDotGraphImage(graphFactory, project, graphFilePath);
+      } else {
+        writeGraphFile(graphFactory, project, graphFilePath);
+        if (createImage) {
+          createDotGraphImage(graphFilePath);
+        }
       }
+    }
+  }
 
-    } catch (DependencyGraphException e) {
-      throw new MojoExecutionException("Unable to create dependency graph.", e.getCause());
-    } catch (IOException e) {
-      throw new MojoExecutionException("Unable to write graph file.", e);
+  /**
+   * Writes an already created graph to the output file of the given project. Creates the graph images if required.
+   *
+   * @param graph The graph.
+   * @param project The project the graph was created for.
+   * @param graphFormat The graph format.
+   * @throws IOException In case the graph or image file cannot be written.
+   */
+  final void writeGraph(String graph, MavenProject project, GraphFormat graphFormat) throws IOException {
+    Path graphFilePath = createGraphFilePath(graphFormat, project);
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.WRITING)) {
+      timer.bytesWritten(writeGraphFile(graph, graphFilePath));
+    }
+
+    if (this.createImage && graphFormat == GraphFormat.DOT) {
+      createDotGraphImage(graphFilePath);
+    }
+  }
+
+  /**
+   * Makes sure that the given projects don't write their graphs to the same file.
+   *
+   * @param projects The projects.
+   * @param graphFormat The graph format.
+   * @throws MojoExecutionException In case two projects would write their graphs to the same file.
+   */
+  final void checkGraphFilePaths(List<MavenProject> projects, GraphFormat graphFormat) throws MojoExecutionException {
+    Map<Path, MavenProject> graphFilePaths = new HashMap<>();
+    for (MavenProject project : projects) {
+      Path graphFilePath = createGraphFilePath(graphFormat, project).toAbsolutePath().normalize();
+      MavenProject other = graphFilePaths.put(graphFilePath, project);
+
+      if (other != null) {
+        throw new MojoExecutionException("The projects " + other.getArtifactId() + " and " + project.getArtifactId()
+            + " would write their graphs to the same file " + graphFilePath + ". Use an output directory within the project or set useArtifactIdInFileName to true.");
+      }
+    }
+  }
+
+  /**
+   * Returns the builder for graphs of resolved dependencies. Unless disabled, it reuses the dependencies that Maven
+   * collected for the projects.
+   *
+   * @return The dependency graph builder.
+   */
+  final DependencyGraphBuilder getDependencyGraphBuilder() {
+    if (this.reuseCollectedDependencies) {
+      return new CollectedDependencyGraphBuilder(this.dependencyGraphBuilder);
     }
+
+    return this.dependencyGraphBuilder;
+  }
+
+  final boolean isHighlightDominators() {
+    return this.highlightDominators;
+  }
+
+  final GraphFileWriter.BufferPool getWriterBuffers() {
+    return this.writerBuffers;
   }
 
   protected abstract GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer);
@@ -294,11 +514,29 @@ abstract class AbstractGraphMojo extends AbstractMojo {
     return filter;
   }
 
-  private GraphStyleConfigurer createGraphStyleConfigurer(GraphFormat graphFormat) throws MojoFailureException {
+  /**
+   * Creates a style configurer for the given graph format, taking the configured output order into account.
+   *
+   * @param graphFormat The graph format.
+   * @return The style configurer.
+   * @throws MojoFailureException In case the custom style configuration does not exist.
+   */
+  final GraphStyleConfigurer createGraphStyleConfigurer(GraphFormat graphFormat) throws MojoFailureException {
+    GraphStyleConfigurer graphStyleConfigurer = createFormatSpecificGraphStyleConfigurer(graphFormat);
+    if (OutputOrder.forName(this.outputOrder) == OutputOrder.SORTED) {
+      graphStyleConfigurer = new SortingGraphStyleConfigurer(graphStyleConfigurer);
+    }
+
+    return graphStyleConfigurer;
+  }
+
+  private GraphStyleConfigurer createFormatSpecificGraphStyleConfigurer(GraphFormat graphFormat) throws MojoFailureException {
     switch (graphFormat) {
       case DOT:
         StyleConfiguration styleConfiguration = loadStyleConfiguration();
-        return new DotGraphStyleConfigurer(styleConfiguration);
+        return new DotGraphStyleConfigurer(styleConfiguration)
+            .clusterNodes(createNodeClusterer())
+            .highlightDominators(this.highlightDominators);
       case GML:
         return new GmlGraphStyleConfigurer();
       case PUML:
@@ -310,6 +548,17 @@ abstract class AbstractGraphMojo extends AbstractMojo {
     }
   }
 
+  private NodeClusterer createNodeClusterer() {
+    switch (ClusterBy.forName(this.clusterBy)) {
+      case GROUP_ID:
+        return GroupIdClusterer.INSTANCE;
+      case MODULE:
+        return new ModuleClusterer(this.session.getProjects());
+      default:
+        return null;
+    }
+  }
+
   private StyleConfiguration loadStyleConfiguration() throws MojoFailureException {
     // default style resources
     ClasspathStyleResource defaultStyleResource = BuiltInStyleResource.DEFAULT_STYLE.createStyleResource(getClass().getClassLoader());
@@ -328,7 +577,7 @@ abstract class AbstractGraphMojo extends AbstractMojo {
     }
 
     // load and print
-    StyleConfiguration styleConfiguration = StyleConfiguration.load(defaultStyleResource, styleResources.toArray(new StyleResource[0]));
+    StyleConfiguration styleConfiguration = StyleConfiguration.loadCached(defaultStyleResource, styleResources.toArray(new StyleResource[0]));
     if (this.printStyleConfiguration) {
       getLog().info("Using effective style configuration:\n" + styleConfiguration.toJson());
     }
@@ -352,23 +601,65 @@ abstract class AbstractGraphMojo extends AbstractMojo {
     return customStyleResource;
   }
 
-  private Path createGraphFilePath(GraphFormat graphFormat) {
+  /**
+   * Creates the path of the graph file for the given project. For projects other than the current project, the
+   * configured output location is relocated into the base directory of the given project, e.g.
+   * {@code <parent>/target/dependency-graph.dot} becomes {@code <parent>/module-1/target/dependency-graph.dot}. Output
+   * locations outside of the current project's base directory are not relocated.
+   *
+   * @param graphFormat The graph format.
+   * @param project The project.
+   * @return The path of the graph file.
+   */
+  Path createGraphFilePath(GraphFormat graphFormat, MavenProject project) {
     Path outputFilePath;
     String fileName;
     if (StringUtils.isNotBlank(this.outputFile)) {
-      getLog().warn("The 'outputFile' parameter has been deprecated. Use 'outputDirectory' and 'outputFileName' instead.");
-
       outputFilePath = Paths.get(this.outputFile);
       fileName = outputFilePath.getFileName().toString();
       fileName = addFileExtensionIfNeeded(graphFormat, fileName);
     } else {
-      fileName = this.useArtifactIdInFileName ? this.artifactId : this.outputFileName;
+      fileName = this.useArtifactIdInFileName ? project.getArtifactId() : this.outputFileName;
       fileName = addFileExtensionIfNeeded(graphFormat, fileName);
       outputFilePath = this.outputDirectory.toPath().resolve(fileName);
     }
 
     outputFilePath = outputFilePath.resolveSibling(fileName);
-    return outputFilePath;
+    return relocateToProject(outputFilePath, project);
+  }
+
+  /**
+   * Returns the path of the graph fragment of the given project. Fragments are always written to the build directory
+   * of the project, so the {@code aggregate} goal finds them regardless of the configured output files.
+   *
+   * @param project The project.
+   * @return The path of the fragment file.
+   */
+  static Path createFragmentFilePath(MavenProject project) {
+    return Paths.get(project.getBuild().getDirectory(), FRAGMENT_FILE_NAME);
+  }
+
+  /**
+   * Describes the configured filters. Graph fragments are only merged when they were created with the same filters.
+   *
+   * @return The filter configuration.
+   */
+  final String getFilterConfiguration() {
+    return "scope=" + this.scope + ",includes=" + this.includes + ",excludes=" + this.excludes + ",targetIncludes=" + this.targetIncludes;
+  }
+
+  private Path relocateToProject(Path path, MavenProject project) {
+    if (project == this.project) {
+      return path;
+    }
+
+    Path basedir = this.project.getBasedir().toPath().toAbsolutePath();
+    Path absolutePath = path.toAbsolutePath();
+    if (!absolutePath.startsWith(basedir)) {
+      return path;
+    }
+
+    return project.getBasedir().toPath().toAbsolutePath().resolve(basedir.relativize(absolutePath));
   }
 
   private String addFileExtensionIfNeeded(GraphFormat graphFormat, String fileName) {
@@ -380,66 +671,136 @@ abstract class AbstractGraphMojo extends AbstractMojo {
     return fileName;
   }
 
-  private void writeGraphFile(String graph, Path graphFilePath) throws IOException {
-    Path parent = graphFilePath.getParent();
+  private long writeGraphFile(String graph, Path graphFilePath) throws IOException {
+    createParentDirectories(graphFilePath);
+    return GraphFileWriter.write(graph, graphFilePath, this.writerBuffers);
+  }
+
+  /**
+   * Creates the graph of the given project and writes it into the graph file and the additional channels while it is
+   * formatted. So the formatted graph is never held in memory as a whole.
+   *
+   * @param graphFactory The graph factory.
+   * @param project The project to create the graph for.
+   * @param graphFilePath The graph file.
+   * @param additionalChannels Channels that receive the graph in addition to the graph file.
+   * @throws IOException In case the graph cannot be written.
+   */
+  final void writeGraphFile(GraphFactory graphFactory, MavenProject project, Path graphFilePath, WritableByteChannel... additionalChannels) throws IOException {
+    createParentDirectories(graphFilePath);
+    try (GraphFileWriter writer = GraphFileWriter.open(graphFilePath, this.writerBuffers, additionalChannels)) {
+      graphFactory.createGraph(project, writer);
+
+      // Most of the graph was already written during the formatting phase
+      try (Metrics.Timer timer = Metrics.start(Metrics.Phase.WRITING)) {
+        writer.flush();
+        timer.bytesWritten(writer.getBytesWritten());
+      }
+    }
+  }
+
+  private static void createParentDirectories(Path file) throws IOException {
+    Path parent = file.getParent();
     if (parent != null) {
       Files.createDirectories(parent);
     }
+  }
 
-    try (Writer writer = Files.newBufferedWriter(graphFilePath, StandardCharsets.UTF_8)) {
-      writer.write(graph);
+  private void createDotGraphImage(Path graphFilePath) throws IOException {
+    Map<String, Path> imageFiles = createDotImageFiles(graphFilePath);
+
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.GRAPHVIZ)) {
+      createGraphviz().render(graphFilePath, imageFiles);
+      timer.bytesWritten(getTotalSize(imageFiles.values()));
     }
+    logCreatedImages(imageFiles);
   }
 
-  private void createDotGraphImage(Path graphFilePath) throws IOException {
-    String graphFileName = createDotImageFileName(graphFilePath);
-    Path graphFile = graphFilePath.resolveSibling(graphFileName);
+  private void streamDotGraphImage(GraphFactory graphFactory, MavenProject project, Path graphFilePath) throws IOException {
+    Map<String, Path> imageFiles = createDotImageFiles(graphFilePath);
+
+    // Start dot before the graph is created, so that its startup overlaps with the dependency resolution
+    Graphviz.Execution execution = createGraphviz().start(imageFiles);
+    try {
+      // dot reads the graph while it is formatted and written into the graph file
+      writeGraphFile(graphFactory, project, graphFilePath, Channels.newChannel(execution.getInput()));
+      try (Metrics.Timer timer = Metrics.start(Metrics.Phase.GRAPHVIZ)) {
+        execution.await();
+        timer.bytesWritten(getTotalSize(imageFiles.values()));
+      }
+    } catch (IOException | RuntimeException e) {
+      execution.kill();
+      throw e;
+    }
+
+    logCreatedImages(imageFiles);
+  }
 
-    String dotExecutable = determineDotExecutable();
-    String[] arguments = new String[]{
-        "-T", this.imageFormat,
-        "-o", graphFile.toAbsolutePath().toString(),
-        graphFilePath.toAbsolutePath().toString()};
+  private static long getTotalSize(Collection<Path> files) throws IOException {
+    long size = 0;
+    for (Path file : files) {
+      if (Files.exists(file)) {
+        size += Files.size(file);
+      }
+    }
+
+    return size;
+  }
 
-    Commandline cmd = new Commandline();
-    cmd.setExecutable(dotExecutable);
-    cmd.addArguments(arguments);
+  private static String getModuleId(MavenProject project) {
+    return project.getGroupId() + ":" + project.getArtifactId();
+  }
 
-    getLog().info("Running Graphviz: " + dotExecutable + " " + Joiner.on(" ").join(arguments));
+  private void reportMetrics(Metrics metrics, GraphFormat graphFormat) throws MojoExecutionException {
+    getLog().info("Metrics:");
+    for (String line : metrics.toTable()) {
+      getLog().info("  " + line);
+    }
 
-    StringStreamConsumer systemOut = new StringStreamConsumer();
-    StringStreamConsumer systemErr = new StringStreamConsumer();
-    int exitCode;
+    if (this.metricsJson) {
+      Path graphFilePath = createGraphFilePath(graphFormat, this.project);
+      String graphFileName = graphFilePath.getFileName().toString();
+      String baseName = graphFileName.substring(0, graphFileName.length() - graphFormat.getFileExtension().length());
+      Path metricsFilePath = graphFilePath.resolveSibling(baseName + "-metrics.json");
 
-    try {
-      exitCode = CommandLineUtils.executeCommandLine(cmd, systemOut, systemErr);
-    } catch (CommandLineException e) {
-      throw new IOException("Unable to execute Graphviz", e);
+      try {
+        writeGraphFile(metrics.toJson(), metricsFilePath);
+      } catch (IOException e) {
+        throw new MojoExecutionException("Unable to write metrics file.", e);
+      }
+      getLog().info("Metrics written to " + metricsFilePath.toAbsolutePath());
     }
+  }
 
-    Splitter lineSplitter = Splitter.on(LINE_SEPARATOR_PATTERN).omitEmptyStrings().trimResults();
-    Iterable<String> output = Iterables.concat(
-        lineSplitter.split(systemOut.getOutput()),
-        lineSplitter.split(systemErr.getOutput()));
+  final Graphviz createGraphviz() throws IOException {
+    return new Graphviz(determineDotExecutable(), this.graphvizTimeout, getLog());
+  }
 
-    for (String line : output) {
-      getLog().info("  dot> " + line);
+  private void logCreatedImages(Map<String, Path> imageFiles) {
+    for (Path imageFile : imageFiles.values()) {
+      getLog().info("Graph image created on " + imageFile.toAbsolutePath());
     }
+  }
 
-    if (exitCode != 0) {
-      throw new IOException("Graphviz terminated abnormally. Exit code: " + exitCode);
+  private Map<String, Path> createDotImageFiles(Path graphFilePath) {
+    Map<String, Path> imageFiles = new LinkedHashMap<>();
+    for (String imageFormat : this.imageFormat) {
+      String format = imageFormat.trim();
+      if (!format.isEmpty()) {
+        imageFiles.put(format, graphFilePath.resolveSibling(createDotImageFileName(graphFilePath, format)));
+      }
     }
 
-    getLog().info("Graph image created on " + graphFile.toAbsolutePath());
+    return imageFiles;
   }
 
-  private String createDotImageFileName(Path graphFilePath) {
+  private String createDotImageFileName(Path graphFilePath, String imageFormat) {
     String graphFileName = graphFilePath.getFileName().toString();
 
     if (graphFileName.endsWith(GraphFormat.DOT.getFileExtension())) {
-      graphFileName = graphFileName.substring(0, graphFileName.lastIndexOf(".")) + "." + this.imageFormat;
+      graphFileName = graphFileName.substring(0, graphFileName.lastIndexOf(".")) + "." + imageFormat;
     } else {
-      graphFileName = graphFileName + this.imageFormat;
+      graphFileName = graphFileName + imageFormat;
     }
 
     return graphFileName;
@@ -459,4 +820,45 @@ abstract class AbstractGraphMojo extends AbstractMojo {
 
     return dotExecutablePath.toAbsolutePath().toString();
   }
+
+  /**
+   * Enables sorted output on all graph builders configured by the wrapped style configurer.
+   */
+  private static final class SortingGraphStyleConfigurer implements GraphStyleConfigurer {
+
+    private final GraphStyleConfigurer delegate;
+
+    SortingGraphStyleConfigurer(GraphStyleConfigurer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public GraphStyleConfigurer showGroupIds(boolean showGroupId) {
+      this.delegate.showGroupIds(showGroupId);
+      return this;
+    }
+
+    @Override
+    public GraphStyleConfigurer showArtifactIds(boolean showArtifactId) {
+      this.delegate.showArtifactIds(showArtifactId);
+      return this;
+    }
+
+    @Override
+    public GraphStyleConfigurer showVersionsOnNodes(boolean showVersionsOnNodes) {
+      this.delegate.showVersionsOnNodes(showVersionsOnNodes);
+      return this;
+    }
+
+    @Override
+    public GraphStyleConfigurer showVersionsOnEdges(boolean showVersionOnEdges) {
+      this.delegate.showVersionsOnEdges(showVersionOnEdges);
+      return this;
+    }
+
+    @Override
+    public GraphBuilder<DependencyNode> configure(GraphBuilder<DependencyNode> graphBuilder) {
+      return this.delegate.configure(graphBuilder).sortOutput();
+    }
+  }
 }
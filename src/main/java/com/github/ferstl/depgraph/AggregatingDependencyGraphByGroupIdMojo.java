@@ -19,6 +19,7 @@ import java.util.Set;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import com.github.ferstl.depgraph.dependency.AggregatingGraphFactory;
 import com.github.ferstl.depgraph.dependency.DependencyNode;
@@ -44,6 +45,17 @@ import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.GROUP_ID_WIT
     threadSafe = true)
 public class AggregatingDependencyGraphByGroupIdMojo extends AbstractAggregatingGraphMojo {
 
+  /**
+   * Maximum number of edges that are kept in memory while the graph is built. When the graph has more edges, sorted
+   * runs of edges are written to temporary files in the build directory and merged while the graph is written. Such
+   * graphs are always sorted. The options {@code clusterBy} and {@code highlightDominators} still keep all edges in
+   * memory. A value of {@code 0} (default) keeps all edges in memory.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "maxEdgesInMemory", defaultValue = "0")
+  int maxEdgesInMemory;
+
   @Override
   protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
 
@@ -54,8 +66,10 @@ public class AggregatingDependencyGraphByGroupIdMojo extends AbstractAggregating
         .showVersionsOnEdges(false)
         .configure(GraphBuilder.<DependencyNode>create(this.mergeScopes ? GROUP_ID : GROUP_ID_WITH_SCOPE))
         .omitSelfReferences();
+    spillEdges(graphBuilder, this.maxEdgesInMemory);
 
-    MavenGraphAdapter adapter = new MavenGraphAdapter(this.dependencyGraphBuilder, targetFilter);
+    MavenGraphAdapter adapter = new MavenGraphAdapter(getDependencyGraphBuilder(), targetFilter);
+    adapter.collapseGroupIds(this.mergeScopes);
     return new AggregatingGraphFactory(adapter, globalFilter, graphBuilder, true);
   }
 
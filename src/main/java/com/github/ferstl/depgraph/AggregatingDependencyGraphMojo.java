@@ -15,16 +15,33 @@
  */
 package com.github.ferstl.depgraph;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.model.Dependency;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
 import com.github.ferstl.depgraph.dependency.AggregatingGraphFactory;
 import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.github.ferstl.depgraph.dependency.DependencyNodeMerger;
 import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphFragment;
 import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
 import com.github.ferstl.depgraph.dependency.MavenGraphAdapter;
+import com.github.ferstl.depgraph.dependency.NodeIdRenderers;
+import com.github.ferstl.depgraph.graph.ConcurrentGraphBuilder;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
 
 import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID;
@@ -68,6 +85,41 @@ public class AggregatingDependencyGraphMojo extends AbstractAggregatingGraphMojo
   @Parameter(property = "includeParentProjects", defaultValue = "false")
   private boolean includeParentProjects;
 
+  /**
+   * Number of modules whose dependency graphs are built in parallel. The default is {@code 1}, and a value of {@code 0}
+   * uses all available processors. With more than one thread, the nodes and edges of the created graph are sorted by
+   * their IDs instead of appearing in the order in which they were discovered.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "threads", defaultValue = "1")
+  int threads;
+
+  /**
+   * If set to {@code true}, the graphs of the modules are merged from the fragments that the {@code graph} goal writes
+   * with {@code writeFragment=true}, e.g. {@code mvn depgraph:graph depgraph:aggregate -DwriteFragment -DuseFragments}.
+   * Modules without a fragment, with a fragment that was created with different filters or with a fragment that is
+   * older than their POM files are resolved as usual. The POM files of a module are its own POM, the POMs of the
+   * reactor modules it depends on and the POMs of their parents. Fragments are not updated when a SNAPSHOT dependency
+   * changes in the repository, so such changes require a new fragment. Graphs that contain merged fragments are always
+   * sorted.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "useFragments", defaultValue = "false")
+  boolean useFragments;
+
+  /**
+   * Maximum number of edges that are kept in memory while the graph is built. When the graph has more edges, sorted
+   * runs of edges are written to temporary files in the build directory and merged while the graph is written. Such
+   * graphs are always sorted. The options {@code clusterBy} and {@code highlightDominators} still keep all edges in
+   * memory. A value of {@code 0} (default) keeps all edges in memory.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "maxEdgesInMemory", defaultValue = "0")
+  int maxEdgesInMemory;
+
   @Override
   protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
     GraphBuilder<DependencyNode> graphBuilder = graphStyleConfigurer
@@ -76,9 +128,89 @@ public class AggregatingDependencyGraphMojo extends AbstractAggregatingGraphMojo
         .showVersionsOnNodes(this.showVersions)
         // This graph won't show any conflicting dependencies. So don't show versions on edges
         .showVersionsOnEdges(false)
-        .configure(GraphBuilder.<DependencyNode>create(this.mergeScopes ? VERSIONLESS_ID : VERSIONLESS_ID_WITH_SCOPE));
+        .configure(createGraphBuilder(this.mergeScopes ? VERSIONLESS_ID : VERSIONLESS_ID_WITH_SCOPE));
+    spillEdges(graphBuilder, this.maxEdgesInMemory);
+
+    MavenGraphAdapter adapter = new MavenGraphAdapter(getDependencyGraphBuilder(), targetFilter);
+    AggregatingGraphFactory graphFactory = new AggregatingGraphFactory(adapter, globalFilter, graphBuilder, this.includeParentProjects, getNumberOfThreads());
+    if (this.useFragments) {
+      graphFactory.setFragments(readFragments());
+    }
+
+    return graphFactory;
+  }
+
+  private Map<MavenProject, GraphFragment> readFragments() {
+    Map<MavenProject, GraphFragment> fragments = new HashMap<>();
+    String filterConfiguration = getFilterConfiguration();
+    Map<String, MavenProject> reactorProjects = new HashMap<>();
+    for (MavenProject reactorProject : this.session.getProjects()) {
+      reactorProjects.put(reactorProject.getGroupId() + ":" + reactorProject.getArtifactId(), reactorProject);
+    }
+
+    for (MavenProject collectedProject : this.project.getCollectedProjects()) {
+      Path fragmentFile = createFragmentFilePath(collectedProject);
+      try {
+        if (Files.exists(fragmentFile) && isUpToDate(fragmentFile, collectedProject, reactorProjects)) {
+          GraphFragment fragment = GraphFragment.read(fragmentFile);
+          if (filterConfiguration.equals(fragment.getConfiguration())) {
+            fragments.put(collectedProject, fragment);
+          } else {
+            getLog().debug("Ignoring graph fragment " + fragmentFile + ", it was created with different filters.");
+          }
+        }
+      } catch (IOException e) {
+        getLog().warn("Unable to read graph fragment " + fragmentFile + ": " + e.getMessage());
+      }
+    }
+
+    getLog().info("Using graph fragments of " + fragments.size() + " of " + this.project.getCollectedProjects().size() + " modules.");
+    return fragments;
+  }
+
+  /**
+   * Checks whether the fragment was written after the last modification of the project's POM file, the POM files of
+   * the reactor modules the project depends on (directly or transitively) and the POM files of their parents.
+   */
+  private static boolean isUpToDate(Path fragmentFile, MavenProject project, Map<String, MavenProject> reactorProjects) throws IOException {
+    FileTime fragmentTime = Files.getLastModifiedTime(fragmentFile);
+    Set<MavenProject> visitedProjects = new HashSet<>();
+    Queue<MavenProject> queue = new ArrayDeque<>();
+    queue.add(project);
+
+    while (!queue.isEmpty()) {
+      MavenProject module = queue.remove();
+      if (!visitedProjects.add(module)) {
+        continue;
+      }
+
+      for (MavenProject current = module; current != null; current = current.getParent()) {
+        File pomFile = current.getFile();
+        if (pomFile != null && pomFile.exists() && Files.getLastModifiedTime(pomFile.toPath()).compareTo(fragmentTime) > 0) {
+          return false;
+        }
+      }
+
+      for (Dependency dependency : module.getDependencies()) {
+        MavenProject reactorDependency = reactorProjects.get(dependency.getGroupId() + ":" + dependency.getArtifactId());
+        if (reactorDependency != null) {
+          queue.add(reactorDependency);
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private GraphBuilder<DependencyNode> createGraphBuilder(NodeIdRenderers nodeIdRenderer) {
+    if (getNumberOfThreads() > 1) {
+      return ConcurrentGraphBuilder.create(nodeIdRenderer, DependencyNodeMerger.INSTANCE);
+    }
+
+    return GraphBuilder.create(nodeIdRenderer);
+  }
 
-    MavenGraphAdapter adapter = new MavenGraphAdapter(this.dependencyGraphBuilder, targetFilter);
-    return new AggregatingGraphFactory(adapter, globalFilter, graphBuilder, this.includeParentProjects);
+  private int getNumberOfThreads() {
+    return this.threads > 0 ? this.threads : Runtime.getRuntime().availableProcessors();
   }
 }
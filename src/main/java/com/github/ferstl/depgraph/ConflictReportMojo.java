@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.github.ferstl.depgraph.dependency.ConflictReport;
+import com.github.ferstl.depgraph.dependency.ConflictReportFactory;
+import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+
+/**
+ * Creates a report of all version conflicts in a project and its modules. For each artifact that is requested in
+ * different versions, the report contains the effective versions and the paths that requested each version.
+ *
+ * @since 2.2.1
+ */
+@Mojo(
+    name = "conflicts",
+    aggregator = true,
+    defaultPhase = LifecyclePhase.NONE,
+    inheritByDefault = false,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDirectInvocation = false,
+    threadSafe = true)
+public class ConflictReportMojo extends AbstractGraphMojo {
+
+  /**
+   * Format of the conflict report, either &quot;json&quot; (default) or &quot;csv&quot;. The CSV report contains a
+   * line for each requesting path.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "reportFormat", defaultValue = "json")
+  private String reportFormat;
+
+  /**
+   * Name of the conflict report file in the build directory. The file extension of the {@code reportFormat} is added.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "reportFileName", defaultValue = "dependency-conflicts")
+  private String reportFileName;
+
+  @Override
+  void createGraphs(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException {
+    ConflictReport.Format format = ConflictReport.Format.forName(this.reportFormat);
+    GraphFactory reportFactory = createGraphFactory(globalFilter, targetFilter, graphStyleConfigurer);
+    Path reportFile = Paths.get(this.project.getBuild().getDirectory(), this.reportFileName + "." + format.getFileExtension());
+    writeGraphFile(reportFactory, this.project, reportFile);
+
+    getLog().info("Conflict report written to " + reportFile);
+  }
+
+  @Override
+  protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
+    return new ConflictReportFactory(this.dependencyTreeBuilder, this.localRepository, globalFilter, ConflictReport.Format.forName(this.reportFormat));
+  }
+}
@@ -55,6 +55,7 @@ public class DependencyGraphByGroupIdMojo extends AbstractGraphMojo {
         .omitSelfReferences();
 
     MavenGraphAdapter adapter = new MavenGraphAdapter(this.dependencyTreeBuilder, this.localRepository, targetFilter, allOf(NodeResolution.class));
+    adapter.collapseGroupIds(false);
     return new SimpleGraphFactory(adapter, globalFilter, graphBuilder);
   }
 
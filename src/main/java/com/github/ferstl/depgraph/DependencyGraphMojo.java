@@ -15,19 +15,26 @@
  */
 package com.github.ferstl.depgraph;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.EnumSet;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
 import com.github.ferstl.depgraph.dependency.DependencyNode;
 import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphFragment;
 import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
 import com.github.ferstl.depgraph.dependency.MavenGraphAdapter;
 import com.github.ferstl.depgraph.dependency.NodeResolution;
 import com.github.ferstl.depgraph.dependency.SimpleGraphFactory;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.metrics.Metrics;
 import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID;
 import static java.util.EnumSet.allOf;
 import static java.util.EnumSet.complementOf;
@@ -83,12 +90,57 @@ public class DependencyGraphMojo extends AbstractGraphMojo {
   @Parameter(property = "showDuplicates", defaultValue = "false")
   boolean showDuplicates;
 
+  /**
+   * Limits the depth of the graph. A value of {@code 1} only shows the direct dependencies, {@code 2} shows the direct
+   * dependencies and their dependencies, and so on. Deeper transitive dependencies are not traversed at all, which
+   * keeps the graph creation cheap for projects with large dependency trees. A value of {@code 0} shows all
+   * dependencies.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "maxDepth", defaultValue = "0")
+  int maxDepth;
+
+  /**
+   * If set to {@code true} and {@link #maxDepth} is set, each node whose dependencies were cut off shows the number of
+   * omitted transitive dependencies in its label (e.g. "+12 transitive").
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "showPrunedDependencies", defaultValue = "false")
+  boolean showPrunedDependencies;
+
+  /**
+   * If set to {@code true}, the resolved dependency graph of the module is additionally written to
+   * {@code target/dependency-graph.fragment}. The {@code aggregate} goal can merge these fragments instead of resolving
+   * the dependencies of each module again, see its {@code useFragments} parameter. The fragment contains the resolved
+   * dependencies only and is not affected by {@link #maxDepth}, {@link #showConflicts} and {@link #showDuplicates}.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "writeFragment", defaultValue = "false")
+  boolean writeFragment;
+
+  @Override
+  void checkParameters(GraphFormat graphFormat) throws MojoFailureException {
+    if (isHighlightDominators() && graphFormat == GraphFormat.DOT && requiresFullGraph()) {
+      throw new MojoFailureException("The option 'highlightDominators' cannot be combined with 'showConflicts' or 'showDuplicates'.");
+    }
+  }
+
   @Override
   protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
     GraphBuilder<DependencyNode> graphBuilder = createGraphBuilder(graphStyleConfigurer);
     MavenGraphAdapter adapter = createMavenGraphAdapter(targetFilter);
+    GraphFactory graphFactory = new SimpleGraphFactory(adapter, globalFilter, graphBuilder);
+
+    if (this.writeFragment) {
+      GraphBuilder<DependencyNode> fragmentGraphBuilder = GraphFragment.createGraphBuilder();
+      adapter.setFragmentGraphBuilder(fragmentGraphBuilder);
+      graphFactory = new FragmentWritingGraphFactory(graphFactory, fragmentGraphBuilder, getFilterConfiguration());
+    }
 
-    return new SimpleGraphFactory(adapter, globalFilter, graphBuilder);
+    return graphFactory;
   }
 
   GraphBuilder<DependencyNode> createGraphBuilder(GraphStyleConfigurer graphStyleConfigurer) {
@@ -101,22 +153,64 @@ public class DependencyGraphMojo extends AbstractGraphMojo {
   }
 
   private MavenGraphAdapter createMavenGraphAdapter(ArtifactFilter targetFilter) {
-    boolean jsonFormat = GraphFormat.forName(this.graphFormat) == GraphFormat.JSON;
+    boolean allResolutions = includeAllResolutions();
     MavenGraphAdapter adapter;
-    if (requiresFullGraph() || jsonFormat) {
+    if (requiresFullGraph() || allResolutions) {
       EnumSet<NodeResolution> resolutions = allOf(NodeResolution.class);
-      if (!jsonFormat) {
+      if (!allResolutions) {
         resolutions = !this.showConflicts ? complementOf(of(NodeResolution.OMITTED_FOR_CONFLICT)) : resolutions;
         resolutions = !this.showDuplicates ? complementOf(of(NodeResolution.OMITTED_FOR_DUPLICATE)) : resolutions;
       }
       adapter = new MavenGraphAdapter(this.dependencyTreeBuilder, this.localRepository, targetFilter, resolutions);
     } else {
-      adapter = new MavenGraphAdapter(this.dependencyGraphBuilder, targetFilter);
+      adapter = new MavenGraphAdapter(getDependencyGraphBuilder(), targetFilter);
     }
+
+    adapter.setMaxDepth(this.maxDepth);
+    adapter.setShowPrunedDependencies(this.showPrunedDependencies);
     return adapter;
   }
 
-  private boolean requiresFullGraph() {
+  boolean requiresFullGraph() {
     return this.showConflicts || this.showDuplicates;
   }
+
+  /**
+   * Returns {@code true} if the graph contains conflicting and duplicate dependencies regardless of
+   * {@link #showConflicts} and {@link #showDuplicates}. This is the case for JSON graphs.
+   *
+   * @return {@code true} if the graph contains all {@link NodeResolution}s.
+   */
+  boolean includeAllResolutions() {
+    return GraphFormat.forName(this.graphFormat) == GraphFormat.JSON;
+  }
+
+  /**
+   * Writes the {@link GraphFragment} of a project after its graph was created.
+   */
+  private static final class FragmentWritingGraphFactory implements GraphFactory {
+
+    private final GraphFactory graphFactory;
+    private final GraphBuilder<DependencyNode> fragmentGraphBuilder;
+    private final String filterConfiguration;
+
+    FragmentWritingGraphFactory(GraphFactory graphFactory, GraphBuilder<DependencyNode> fragmentGraphBuilder, String filterConfiguration) {
+      this.graphFactory = graphFactory;
+      this.fragmentGraphBuilder = fragmentGraphBuilder;
+      this.filterConfiguration = filterConfiguration;
+    }
+
+    @Override
+    public void createGraph(MavenProject project, Appendable output) throws IOException {
+      this.graphFactory.createGraph(project, output);
+
+      Path fragmentFile = createFragmentFilePath(project);
+      try (Metrics.Timer timer = Metrics.start(Metrics.Phase.WRITING)) {
+        Files.createDirectories(fragmentFile.getParent());
+        GraphFragment.create(this.fragmentGraphBuilder, this.filterConfiguration).write(fragmentFile);
+      } catch (IOException e) {
+        throw new IOException("Unable to write graph fragment " + fragmentFile, e);
+      }
+    }
+  }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.util.List;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.shared.artifact.filter.StrictPatternIncludesArtifactFilter;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.github.ferstl.depgraph.dependency.DependentsGraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+import com.github.ferstl.depgraph.dependency.MavenGraphAdapter;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID;
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID_WITH_SCOPE;
+
+/**
+ * Shows which modules and artifacts of a multi-module project depend on the given dependencies, directly or
+ * transitively. The graph only contains the paths leading to these dependencies.
+ *
+ * @since 2.2.1
+ */
+@Mojo(
+    name = "dependents",
+    aggregator = true,
+    defaultPhase = LifecyclePhase.NONE,
+    inheritByDefault = false,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDirectInvocation = false,
+    threadSafe = true)
+public class DependentsGraphMojo extends AbstractAggregatingGraphMojo {
+
+  /**
+   * List of artifacts, in the form of {@code groupId:artifactId:type:classifier}, for which the dependents should be
+   * shown.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "dependentsOf", required = true)
+  private List<String> dependentsOf;
+
+  /**
+   * If set to {@code true}, the created graph will show the {@code groupId} on all artifacts.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "showGroupIds", defaultValue = "false")
+  boolean showGroupIds;
+
+  /**
+   * If set to {@code true} the artifact nodes will show version information.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "showVersions", defaultValue = "false")
+  boolean showVersions;
+
+  @Override
+  protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
+    GraphBuilder<DependencyNode> graphBuilder = graphStyleConfigurer
+        .showGroupIds(this.showGroupIds)
+        .showArtifactIds(true)
+        .showVersionsOnNodes(this.showVersions)
+        .showVersionsOnEdges(false)
+        .configure(GraphBuilder.<DependencyNode>create(this.mergeScopes ? VERSIONLESS_ID : VERSIONLESS_ID_WITH_SCOPE));
+
+    MavenGraphAdapter adapter = new MavenGraphAdapter(getDependencyGraphBuilder(), targetFilter);
+    ArtifactFilter dependencyFilter = new StrictPatternIncludesArtifactFilter(this.dependentsOf);
+
+    return new DependentsGraphFactory(adapter, globalFilter, graphBuilder, dependencyFilter);
+  }
+}
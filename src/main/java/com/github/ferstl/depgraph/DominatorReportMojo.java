@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+import com.github.ferstl.depgraph.dependency.NodeIdRenderers;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.graph.json.JsonDominatorReportFormatter;
+
+/**
+ * Creates a report of the dominators in the dependency graph of a project. An artifact dominates another artifact if
+ * every path from the project to the other artifact passes through it. For each artifact, the report lists its
+ * dominators and it lists all artifacts that dominate at least one other artifact, i.e. the single points of
+ * dependency of the project. This Mojo has the same options as the {@code graph} Mojo, except for
+ * {@code showConflicts} and {@code showDuplicates}: The dominators are calculated over the resolved dependencies only.
+ *
+ * @since 2.2.1
+ */
+@Mojo(
+    name = "dominators",
+    aggregator = false,
+    defaultPhase = LifecyclePhase.NONE,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDirectInvocation = false,
+    threadSafe = true)
+public class DominatorReportMojo extends DependencyGraphMojo {
+
+  /**
+   * Name of the JSON dominator report file in the build directory.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "dominatorReportFileName", defaultValue = "dependency-dominators.json")
+  private String dominatorReportFileName;
+
+  @Override
+  void checkParameters(GraphFormat graphFormat) throws MojoFailureException {
+    if (requiresFullGraph()) {
+      throw new MojoFailureException("The dominator report cannot be combined with 'showConflicts' or 'showDuplicates'.");
+    }
+  }
+
+  @Override
+  boolean includeAllResolutions() {
+    // The dominators are calculated over the resolved dependencies only
+    return false;
+  }
+
+  @Override
+  void createGraphs(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException {
+    GraphFactory reportFactory = createGraphFactory(globalFilter, targetFilter, new DominatorReportStyleConfigurer(graphStyleConfigurer));
+    Path reportFile = Paths.get(this.project.getBuild().getDirectory(), this.dominatorReportFileName);
+    writeGraphFile(reportFactory, this.project, reportFile);
+
+    getLog().info("Dominator report written to " + reportFile);
+  }
+
+  /**
+   * Replaces the graph formatter of the wrapped style configurer with the dominator report.
+   */
+  private static final class DominatorReportStyleConfigurer implements GraphStyleConfigurer {
+
+    private final GraphStyleConfigurer delegate;
+
+    DominatorReportStyleConfigurer(GraphStyleConfigurer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public GraphStyleConfigurer showGroupIds(boolean showGroupId) {
+      this.delegate.showGroupIds(showGroupId);
+      return this;
+    }
+
+    @Override
+    public GraphStyleConfigurer showArtifactIds(boolean showArtifactId) {
+      this.delegate.showArtifactIds(showArtifactId);
+      return this;
+    }
+
+    @Override
+    public GraphStyleConfigurer showVersionsOnNodes(boolean showVersionsOnNodes) {
+      this.delegate.showVersionsOnNodes(showVersionsOnNodes);
+      return this;
+    }
+
+    @Override
+    public GraphStyleConfigurer showVersionsOnEdges(boolean showVersionOnEdges) {
+      this.delegate.showVersionsOnEdges(showVersionOnEdges);
+      return this;
+    }
+
+    @Override
+    public GraphBuilder<DependencyNode> configure(GraphBuilder<DependencyNode> graphBuilder) {
+      return this.delegate.configure(graphBuilder).graphFormatter(new JsonDominatorReportFormatter<>(NodeIdRenderers.COORDINATES));
+    }
+  }
+}
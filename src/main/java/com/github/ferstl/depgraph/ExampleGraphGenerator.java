@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import static org.apache.maven.shared.dependency.tree.DependencyNode.OMITTED_FOR_CONFLICT;
+import static org.apache.maven.shared.dependency.tree.DependencyNode.OMITTED_FOR_DUPLICATE;
+
+/**
+ * Generates example graphs of arbitrary size. The generated graph only depends on the seed and the configured
+ * parameters:
+ * <ul>
+ * <li>The nodes are distributed on {@code depth} layers. The first layer only contains the root node.</li>
+ * <li>Each node is connected to a node of the previous layer. Additional edges to deeper layers are created until
+ * the graph contains {@code edgeDensity} edges per node.</li>
+ * <li>The scope of each node is chosen randomly according to the weights of the scope mix.</li>
+ * <li>The additional edges point to a node that was omitted for conflict or for duplicate with the probability of
+ * {@code conflictRate} and {@code duplicateRate}.</li>
+ * </ul>
+ */
+final class ExampleGraphGenerator {
+
+  private static final String VERSION = "1.0.0";
+  private static final String CONFLICTING_VERSION = "0.9.0";
+
+  private final int nodes;
+  private double edgeDensity = 2.0;
+  private int depth = 5;
+  private final Map<String, Integer> scopeWeights = new LinkedHashMap<>();
+  private double conflictRate;
+  private double duplicateRate;
+  private long seed;
+
+  ExampleGraphGenerator(int nodes) {
+    if (nodes < 1) {
+      throw new IllegalArgumentException("The example graph requires at least one node.");
+    }
+
+    this.nodes = nodes;
+    this.scopeWeights.put("compile", 1);
+  }
+
+  ExampleGraphGenerator edgeDensity(double edgeDensity) {
+    this.edgeDensity = edgeDensity;
+    return this;
+  }
+
+  ExampleGraphGenerator depth(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("The depth of the example graph must be at least 1.");
+    }
+
+    this.depth = depth;
+    return this;
+  }
+
+  /**
+   * Defines the scope mix in the form {@code scope:weight}, e.g. {@code compile:70}. A scope without weight has the
+   * weight 1.
+   *
+   * @param scopes The scopes and their weights.
+   * @return This generator.
+   */
+  ExampleGraphGenerator scopes(List<String> scopes) {
+    this.scopeWeights.clear();
+    for (String scope : scopes) {
+      String[] parts = scope.trim().split(":");
+      int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+      if (weight > 0) {
+        this.scopeWeights.put(parts[0].trim(), weight);
+      }
+    }
+
+    if (this.scopeWeights.isEmpty()) {
+      throw new IllegalArgumentException("The scope mix of the example graph must contain at least one scope.");
+    }
+    return this;
+  }
+
+  ExampleGraphGenerator conflictRate(double conflictRate) {
+    this.conflictRate = conflictRate;
+    return this;
+  }
+
+  ExampleGraphGenerator duplicateRate(double duplicateRate) {
+    this.duplicateRate = duplicateRate;
+    return this;
+  }
+
+  ExampleGraphGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  /**
+   * Generates the edges of the example graph.
+   *
+   * @return The edges in the order they were generated.
+   */
+  ListMultimap<DependencyNode, DependencyNode> generate() {
+    Random random = new Random(this.seed);
+    List<Artifact> artifacts = new ArrayList<>(this.nodes);
+    List<DependencyNode> nodes = new ArrayList<>(this.nodes);
+    for (int i = 0; i < this.nodes; i++) {
+      Artifact artifact = createArtifact(i, VERSION, i == 0 ? "compile" : nextScope(random));
+      artifacts.add(artifact);
+      nodes.add(new DependencyNode(artifact));
+    }
+
+    ListMultimap<DependencyNode, DependencyNode> edges = LinkedListMultimap.create();
+
+    // Connect each node with a node of the previous layer
+    for (int i = 1; i < this.nodes; i++) {
+      int layer = getLayer(i);
+      edges.put(nodes.get(nextNode(layer - 1, layer, random)), nodes.get(i));
+    }
+
+    // Additional edges from a node to a deeper layer
+    long additionalEdges = Math.round(this.edgeDensity * this.nodes) - (this.nodes - 1);
+    int lastLayer = getLayer(this.nodes - 1);
+    for (long i = 0; i < additionalEdges && lastLayer > 0; i++) {
+      int from = nextNode(0, lastLayer, random);
+      int to = nextNode(getLayer(from) + 1, lastLayer + 1, random);
+
+      double resolution = random.nextDouble();
+      if (resolution < this.conflictRate) {
+        Artifact conflictingArtifact = createArtifact(to, CONFLICTING_VERSION, artifacts.get(to).getScope());
+        edges.put(nodes.get(from), createOmittedNode(conflictingArtifact, OMITTED_FOR_CONFLICT, artifacts.get(to)));
+      } else if (resolution < this.conflictRate + this.duplicateRate) {
+        edges.put(nodes.get(from), createOmittedNode(artifacts.get(to), OMITTED_FOR_DUPLICATE, artifacts.get(to)));
+      } else {
+        edges.put(nodes.get(from), nodes.get(to));
+      }
+    }
+
+    return edges;
+  }
+
+  private int getLayer(int node) {
+    int depth = getEffectiveDepth();
+    if (node == 0 || depth == 1) {
+      return 0;
+    }
+
+    // All nodes except the root are distributed on the remaining layers
+    return 1 + (int) ((long) (node - 1) * (depth - 1) / (this.nodes - 1));
+  }
+
+  private int getFirstNode(int layer) {
+    int depth = getEffectiveDepth();
+    if (layer <= 0) {
+      return 0;
+    } else if (depth == 1) {
+      return this.nodes;
+    }
+
+    // Inverse of getLayer()
+    long first = 1 + ((long) (layer - 1) * (this.nodes - 1) + depth - 2) / (depth - 1);
+    return (int) Math.min(first, this.nodes);
+  }
+
+  /**
+   * There cannot be more layers than nodes. This guarantees that no layer is empty.
+   */
+  private int getEffectiveDepth() {
+    return Math.min(this.depth, this.nodes);
+  }
+
+  /**
+   * Returns a random node within the given range of layers.
+   */
+  private int nextNode(int fromLayer, int toLayerExclusive, Random random) {
+    int first = getFirstNode(fromLayer);
+    int end = getFirstNode(toLayerExclusive);
+    return first + random.nextInt(end - first);
+  }
+
+  private String nextScope(Random random) {
+    int totalWeight = 0;
+    for (int weight : this.scopeWeights.values()) {
+      totalWeight += weight;
+    }
+
+    int value = random.nextInt(totalWeight);
+    for (Entry<String, Integer> entry : this.scopeWeights.entrySet()) {
+      value -= entry.getValue();
+      if (value < 0) {
+        return entry.getKey();
+      }
+    }
+
+    throw new IllegalStateException("Unreachable");
+  }
+
+  private static Artifact createArtifact(int node, String version, String scope) {
+    // Ten artifacts per group
+    return new DefaultArtifact("com.example.group" + (node / 10), "artifact-" + node, version, scope, "jar", "", null);
+  }
+
+  private static DependencyNode createOmittedNode(Artifact artifact, int state, Artifact relatedArtifact) {
+    return new DependencyNode(new org.apache.maven.shared.dependency.tree.DependencyNode(artifact, state, relatedArtifact));
+  }
+}
@@ -15,10 +15,14 @@
  */
 package com.github.ferstl.depgraph;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map.Entry;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 import com.github.ferstl.depgraph.dependency.DependencyNode;
@@ -28,7 +32,8 @@ import com.github.ferstl.depgraph.graph.GraphBuilder;
 
 /**
  * Creates an example graph. This Mojo has the same capabilities as the {@code graph} Mojo. So it might be useful to
- * try out different options and node stylings.
+ * try out different options and node stylings. Besides the small built-in example, this Mojo can generate example
+ * graphs of arbitrary size (see {@link #exampleNodes}), e.g. to try out how Graphviz handles large graphs.
  *
  * @since 2.0.0
  */
@@ -42,10 +47,79 @@ import com.github.ferstl.depgraph.graph.GraphBuilder;
     threadSafe = true)
 public class ExampleGraphMojo extends DependencyGraphMojo {
 
+  /**
+   * Number of nodes of a generated example graph. A value of {@code 0} (default) creates the small built-in example
+   * graph. All other {@code example*} parameters are only relevant for generated example graphs.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleNodes", defaultValue = "0")
+  int exampleNodes;
+
+  /**
+   * Average number of edges per node.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleEdgeDensity", defaultValue = "2.0")
+  double exampleEdgeDensity;
+
+  /**
+   * Number of dependency levels, including the root node.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleDepth", defaultValue = "5")
+  int exampleDepth;
+
+  /**
+   * Comma-separated list of scopes and their weights in the form {@code scope:weight}.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleScopes", defaultValue = "compile:70,provided:10,runtime:10,test:10")
+  List<String> exampleScopes;
+
+  /**
+   * Probability (0.0 - 1.0) that an edge points to a node that was omitted due to a version conflict.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleConflictRate", defaultValue = "0.05")
+  double exampleConflictRate;
+
+  /**
+   * Probability (0.0 - 1.0) that an edge points to a node that was omitted as duplicate.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleDuplicateRate", defaultValue = "0.1")
+  double exampleDuplicateRate;
+
+  /**
+   * Seed for the generated example graph. The same seed and parameters always create the same graph.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "exampleSeed", defaultValue = "0")
+  long exampleSeed;
+
   @Override
   protected GraphFactory createGraphFactory(ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) {
     GraphBuilder<DependencyNode> graphBuilder = createGraphBuilder(graphStyleConfigurer);
-    return new ExampleGraphFactory(graphBuilder, globalFilter, targetFilter);
+    if (this.exampleNodes > 0) {
+      ExampleGraphGenerator generator = new ExampleGraphGenerator(this.exampleNodes)
+          .edgeDensity(this.exampleEdgeDensity)
+          .depth(this.exampleDepth)
+          .scopes(this.exampleScopes)
+          .conflictRate(this.exampleConflictRate)
+          .duplicateRate(this.exampleDuplicateRate)
+          .seed(this.exampleSeed);
+
+      return new ExampleGraphFactory(graphBuilder, globalFilter, targetFilter, generator);
+    }
+
+    return new ExampleGraphFactory(graphBuilder, globalFilter, targetFilter, null);
   }
 
 
@@ -54,16 +128,27 @@ public class ExampleGraphMojo extends DependencyGraphMojo {
     private final GraphBuilder<DependencyNode> graphBuilder;
     private final ArtifactFilter globalFilter;
     private final ArtifactFilter targetFilter;
+    private final ExampleGraphGenerator generator;
 
-    ExampleGraphFactory(GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter globalFilter, ArtifactFilter targetFilter) {
+    ExampleGraphFactory(GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter globalFilter, ArtifactFilter targetFilter, ExampleGraphGenerator generator) {
       this.graphBuilder = graphBuilder;
       this.globalFilter = globalFilter;
       this.targetFilter = targetFilter;
+      this.generator = generator;
     }
 
 
     @Override
-    public String createGraph(MavenProject project) {
+    public void createGraph(MavenProject project, Appendable output) throws IOException {
+      if (this.generator != null) {
+        for (Entry<DependencyNode, DependencyNode> edge : this.generator.generate().entries()) {
+          addEdge(edge.getKey(), edge.getValue());
+        }
+
+        this.graphBuilder.writeGraph(output);
+        return;
+      }
+
       DefaultArtifact aA = new DefaultArtifact("com.example", "artifact-a", "1.0.0", "compile", "jar", "", null);
       DefaultArtifact aB = new DefaultArtifact("com.example", "artifact-b", "1.0.0", "compile", "jar", "", null);
       DefaultArtifact aC = new DefaultArtifact("com.example", "artifact-c", "2.0.0", "compile", "jar", "", null);
@@ -96,7 +181,7 @@ public class ExampleGraphMojo extends DependencyGraphMojo {
       addEdge(nB, nG);
       addEdge(nB, nZ);
 
-      return this.graphBuilder.toString();
+      this.graphBuilder.writeGraph(output);
     }
 
     private void addEdge(DependencyNode from, DependencyNode to) {
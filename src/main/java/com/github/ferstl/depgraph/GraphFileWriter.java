@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes graphs as UTF-8 into files or other channels while they are formatted. Graph files mostly contain 7-bit
+ * ASCII characters, which are copied into a byte array without going through a
+ * {@link java.nio.charset.CharsetEncoder}. Other characters are UTF-8 encoded in place. Each time the array is full,
+ * it is written to all channels of this writer. Closing the writer closes the channels.
+ * <p>
+ * The writers take their buffers from a {@link BufferPool}, which is owned by a mojo execution. So the {@code serve}
+ * and {@code watch} goals do not allocate new buffers for each graph, and the buffers are released together with the
+ * mojo.
+ * </p>
+ */
+final class GraphFileWriter extends Writer {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int CHUNK_SIZE = 8 * 1024;
+  // An unpaired surrogate is replaced with '?', like String.getBytes() does
+  private static final byte REPLACEMENT = '?';
+
+  private final WritableByteChannel[] channels;
+  private final BufferPool bufferPool;
+  private final Buffers buffers;
+  private final byte[] bytes;
+  private int position;
+  private char highSurrogate;
+  private long bytesWritten;
+  private boolean closed;
+
+  /**
+   * Creates a writer that writes the same bytes into each of the given channels.
+   *
+   * @param bufferPool The pool to take the buffers from.
+   * @param channels The channels.
+   */
+  GraphFileWriter(BufferPool bufferPool, WritableByteChannel... channels) {
+    this.channels = channels.clone();
+    this.bufferPool = bufferPool;
+    this.buffers = bufferPool.take();
+    this.bytes = this.buffers.bytes.array();
+  }
+
+  /**
+   * Creates a writer for the given file and the given additional channels. An existing file will be overwritten.
+   *
+   * @param file The file.
+   * @param bufferPool The pool to take the buffers from.
+   * @param additionalChannels Channels that receive the same bytes as the file.
+   * @return The writer.
+   * @throws IOException In case the file cannot be opened.
+   */
+  static GraphFileWriter open(Path file, BufferPool bufferPool, WritableByteChannel... additionalChannels) throws IOException {
+    WritableByteChannel[] channels = new WritableByteChannel[additionalChannels.length + 1];
+    channels[0] = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE);
+    System.arraycopy(additionalChannels, 0, channels, 1, additionalChannels.length);
+
+    return new GraphFileWriter(bufferPool, channels);
+  }
+
+  /**
+   * Writes the given graph into the given file. An existing file will be overwritten.
+   *
+   * @param graph The graph.
+   * @param file The file.
+   * @param bufferPool The pool to take the buffers from.
+   * @return The number of bytes written.
+   * @throws IOException In case the file cannot be written.
+   */
+  static long write(String graph, Path file, BufferPool bufferPool) throws IOException {
+    GraphFileWriter writer = open(file, bufferPool);
+    try (Writer w = writer) {
+      w.write(graph);
+    }
+
+    return writer.getBytesWritten();
+  }
+
+  /**
+   * Returns the number of bytes that were written into each channel so far. Bytes that are still buffered are not
+   * included.
+   *
+   * @return The number of written bytes.
+   */
+  long getBytesWritten() {
+    return this.bytesWritten;
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    ensureOpen();
+    put((char) c);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    ensureOpen();
+    encode(cbuf, off, off + len);
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    ensureOpen();
+    char[] chunk = this.buffers.chunk;
+    int end = off + len;
+    for (int chunkStart = off; chunkStart < end; chunkStart += CHUNK_SIZE) {
+      int chunkLength = Math.min(CHUNK_SIZE, end - chunkStart);
+      str.getChars(chunkStart, chunkStart + chunkLength, chunk, 0);
+      encode(chunk, 0, chunkLength);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    drain();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.closed) {
+      return;
+    }
+
+    IOException failure = null;
+    try {
+      if (this.highSurrogate != 0) {
+        this.highSurrogate = 0;
+        this.bytes[this.position++] = REPLACEMENT;
+      }
+      drain();
+    } catch (IOException e) {
+      failure = e;
+    }
+
+    // The buffers must not be used by this writer anymore once they are returned
+    this.closed = true;
+    this.bufferPool.release(this.buffers);
+
+    for (WritableByteChannel channel : this.channels) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (this.closed) {
+      throw new IOException("Writer closed");
+    }
+  }
+
+  private void drain() throws IOException {
+    ByteBuffer buffer = this.buffers.bytes;
+    for (WritableByteChannel channel : this.channels) {
+      buffer.limit(this.position).position(0);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+
+    this.bytesWritten += this.position;
+    this.position = 0;
+  }
+
+  private void encode(char[] chars, int start, int end) throws IOException {
+    byte[] bytes = this.bytes;
+    int i = start;
+    while (i < end) {
+      // Copy ASCII characters until the buffer is full or another character needs to be encoded
+      if (this.highSurrogate == 0) {
+        int asciiEnd = Math.min(end, i + BUFFER_SIZE - this.position);
+        int position = this.position;
+        while (i < asciiEnd && chars[i] < 0x80) {
+          bytes[position++] = (byte) chars[i++];
+        }
+        this.position = position;
+      }
+
+      if (i < end) {
+        put(chars[i++]);
+      }
+    }
+  }
+
+  private void put(char c) throws IOException {
+    // The longest UTF-8 sequence has 4 bytes
+    if (BUFFER_SIZE - this.position < 4) {
+      drain();
+    }
+
+    byte[] bytes = this.bytes;
+    // A surrogate pair may be split across two writes
+    if (this.highSurrogate != 0) {
+      char high = this.highSurrogate;
+      this.highSurrogate = 0;
+      if (Character.isLowSurrogate(c)) {
+        int codePoint = Character.toCodePoint(high, c);
+        bytes[this.position++] = (byte) (0xf0 | codePoint >> 18);
+        bytes[this.position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+        bytes[this.position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+        bytes[this.position++] = (byte) (0x80 | codePoint & 0x3f);
+        return;
+      }
+
+      // There is still room for the up to 3 bytes of c
+      bytes[this.position++] = REPLACEMENT;
+    }
+
+    if (c < 0x80) {
+      bytes[this.position++] = (byte) c;
+    } else if (c < 0x800) {
+      bytes[this.position++] = (byte) (0xc0 | c >> 6);
+      bytes[this.position++] = (byte) (0x80 | c & 0x3f);
+    } else if (!Character.isSurrogate(c)) {
+      bytes[this.position++] = (byte) (0xe0 | c >> 12);
+      bytes[this.position++] = (byte) (0x80 | c >> 6 & 0x3f);
+      bytes[this.position++] = (byte) (0x80 | c & 0x3f);
+    } else if (Character.isHighSurrogate(c)) {
+      this.highSurrogate = c;
+    } else {
+      bytes[this.position++] = REPLACEMENT;
+    }
+  }
+
+  /**
+   * Buffers that are reused by the writers of a mojo execution. A writer takes buffers from the pool when it is created
+   * and returns them when it is closed. So writers that are open at the same time, e.g. in different threads, never
+   * share their buffers.
+   */
+  static final class BufferPool {
+
+    private final Deque<Buffers> buffers = new ArrayDeque<>();
+
+    synchronized Buffers take() {
+      Buffers buffers = this.buffers.poll();
+      return buffers != null ? buffers : new Buffers();
+    }
+
+    synchronized void release(Buffers buffers) {
+      this.buffers.push(buffers);
+    }
+  }
+
+  /**
+   * The buffers of a writer.
+   */
+  private static final class Buffers {
+
+    final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    final char[] chunk = new char[CHUNK_SIZE];
+  }
+}
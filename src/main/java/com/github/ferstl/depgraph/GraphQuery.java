@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.shared.artifact.filter.ScopeArtifactFilter;
+import org.apache.maven.shared.artifact.filter.StrictPatternExcludesArtifactFilter;
+import org.apache.maven.shared.artifact.filter.StrictPatternIncludesArtifactFilter;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A query of the {@code serve} goal. Queries are sent as URL parameters, e.g.
+ * {@code ?module=module-1&depth=2&includes=com.example:*&format=svg}:
+ * <ul>
+ * <li>{@code module}: Artifact ID or {@code groupId:artifactId} of the module. Defaults to the aggregated graph of all
+ * modules.</li>
+ * <li>{@code depth}: Maximum depth of the graph. {@code 0} (default) means unlimited.</li>
+ * <li>{@code scope}, {@code includes}, {@code excludes}: Same as the goal parameters. Patterns are
+ * comma-separated.</li>
+ * <li>{@code targetIncludes}: Only show the paths leading to these artifacts.</li>
+ * <li>{@code format}: {@code dot} (default), {@code gml}, {@code puml}, {@code json} or {@code svg}. SVG images require
+ * Graphviz.</li>
+ * </ul>
+ */
+final class GraphQuery {
+
+  static final String SVG_FORMAT = "svg";
+
+  private static final String MODULE = "module";
+  private static final String DEPTH = "depth";
+  private static final String SCOPE = "scope";
+  private static final String INCLUDES = "includes";
+  private static final String EXCLUDES = "excludes";
+  private static final String TARGET_INCLUDES = "targetIncludes";
+  private static final String FORMAT = "format";
+  private static final ImmutableSet<String> PARAMETERS = ImmutableSet.of(MODULE, DEPTH, SCOPE, INCLUDES, EXCLUDES, TARGET_INCLUDES, FORMAT);
+
+  private final Map<String, String> parameters;
+
+  private GraphQuery(Map<String, String> parameters) {
+    this.parameters = parameters;
+  }
+
+  /**
+   * Parses the given query string.
+   *
+   * @param queryString The (still encoded) query string or {@code null}.
+   * @return The query.
+   * @throws GraphQueryException In case the query contains an unknown parameter.
+   */
+  static GraphQuery parse(String queryString) {
+    Map<String, String> parameters = new HashMap<>();
+    for (String parameter : StringUtils.split(StringUtils.defaultString(queryString), '&')) {
+      String name = decode(StringUtils.substringBefore(parameter, "="));
+      String value = decode(StringUtils.substringAfter(parameter, "="));
+      if (!PARAMETERS.contains(name)) {
+        throw new GraphQueryException("Unknown parameter '" + name + "'. Supported parameters: " + PARAMETERS);
+      }
+
+      parameters.put(name, value);
+    }
+
+    return new GraphQuery(parameters);
+  }
+
+  /**
+   * Returns the requested module.
+   *
+   * @return The artifact ID or {@code groupId:artifactId} of the module or {@code null} for all modules.
+   */
+  String getModule() {
+    return StringUtils.trimToNull(this.parameters.get(MODULE));
+  }
+
+  int getDepth() {
+    String depth = StringUtils.trimToNull(this.parameters.get(DEPTH));
+    if (depth == null) {
+      return 0;
+    }
+
+    try {
+      int result = Integer.parseInt(depth);
+      if (result >= 0) {
+        return result;
+      }
+    } catch (NumberFormatException e) {
+      // handled below
+    }
+
+    throw new GraphQueryException("Invalid depth '" + depth + "'");
+  }
+
+  boolean isSvg() {
+    return SVG_FORMAT.equalsIgnoreCase(getFormat());
+  }
+
+  /**
+   * Returns the format of the graph. SVG images are created from dot graphs.
+   *
+   * @return The graph format.
+   * @throws GraphQueryException In case the format is not supported.
+   */
+  GraphFormat getGraphFormat() {
+    if (isSvg()) {
+      return GraphFormat.DOT;
+    }
+
+    try {
+      return GraphFormat.forName(getFormat());
+    } catch (IllegalArgumentException e) {
+      throw new GraphQueryException(e.getMessage(), e);
+    }
+  }
+
+  ArtifactFilter createGlobalFilter() {
+    AndArtifactFilter filter = new AndArtifactFilter();
+
+    String scope = StringUtils.trimToNull(this.parameters.get(SCOPE));
+    if (scope != null) {
+      filter.add(new ScopeArtifactFilter(scope));
+    }
+
+    List<String> includes = getPatterns(INCLUDES);
+    if (!includes.isEmpty()) {
+      filter.add(new StrictPatternIncludesArtifactFilter(includes));
+    }
+
+    List<String> excludes = getPatterns(EXCLUDES);
+    if (!excludes.isEmpty()) {
+      filter.add(new StrictPatternExcludesArtifactFilter(excludes));
+    }
+
+    return filter;
+  }
+
+  List<String> getTargetIncludes() {
+    return getPatterns(TARGET_INCLUDES);
+  }
+
+  private String getFormat() {
+    return StringUtils.defaultIfBlank(this.parameters.get(FORMAT), "dot").trim();
+  }
+
+  private List<String> getPatterns(String name) {
+    String patterns = StringUtils.trimToNull(this.parameters.get(name));
+    if (patterns == null) {
+      return Collections.emptyList();
+    }
+
+    return Arrays.asList(StringUtils.stripAll(StringUtils.split(patterns, ',')));
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+/**
+ * Thrown when a {@link GraphQuery} is invalid. The graph server answers such queries with status {@code 400}.
+ */
+final class GraphQueryException extends RuntimeException {
+
+  private static final long serialVersionUID = -2874561927338409116L;
+
+  GraphQueryException(String message) {
+    super(message);
+  }
+
+  GraphQueryException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
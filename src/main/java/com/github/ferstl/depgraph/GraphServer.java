@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import org.apache.maven.plugin.logging.Log;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Minimal HTTP server for the {@code serve} goal. The server only listens on the loopback interface and passes the
+ * query string of each {@code GET} request to a {@link RequestHandler}. Requests are handled one after another.
+ */
+final class GraphServer {
+
+  private final HttpServer server;
+  private final CountDownLatch stopped;
+
+  /**
+   * Constructor.
+   *
+   * @param port The port to listen on or {@code 0} for any free port.
+   * @param handler The request handler.
+   * @param log Log for failed requests.
+   * @throws IOException In case the server cannot be bound to the given port.
+   */
+  GraphServer(int port, RequestHandler handler, Log log) throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    this.server.createContext("/", new GraphHttpHandler(handler, log));
+    this.stopped = new CountDownLatch(1);
+  }
+
+  void start() {
+    this.server.start();
+  }
+
+  int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  /**
+   * Blocks until the server is {@link #stop() stopped}.
+   *
+   * @throws InterruptedException In case the current thread is interrupted while waiting.
+   */
+  void await() throws InterruptedException {
+    this.stopped.await();
+  }
+
+  void stop() {
+    this.server.stop(0);
+    this.stopped.countDown();
+  }
+
+  /**
+   * Creates the responses of the server.
+   */
+  interface RequestHandler {
+
+    /**
+     * Handles a request.
+     *
+     * @param query The (still encoded) query string or {@code null} if there is none.
+     * @return The response.
+     * @throws GraphQueryException In case the query is invalid. Results in status {@code 400}.
+     * @throws Exception In case the request cannot be handled. Results in status {@code 500}.
+     */
+    Response handle(String query) throws Exception;
+  }
+
+  static final class Response {
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+
+    private Response(int status, String contentType, byte[] body) {
+      this.status = status;
+      this.contentType = contentType;
+      this.body = body;
+    }
+
+    static Response ok(String contentType, byte[] body) {
+      return new Response(HttpURLConnection.HTTP_OK, contentType, body);
+    }
+
+    static Response ok(String contentType, String body) {
+      return ok(contentType + "; charset=utf-8", body.getBytes(UTF_8));
+    }
+
+    static Response error(int status, String message) {
+      return new Response(status, "text/plain; charset=utf-8", (message + "\n").getBytes(UTF_8));
+    }
+  }
+
+  private static final class GraphHttpHandler implements HttpHandler {
+
+    private final RequestHandler handler;
+    private final Log log;
+
+    GraphHttpHandler(RequestHandler handler, Log log) {
+      this.handler = handler;
+      this.log = log;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      try {
+        Response response = createResponse(exchange);
+        exchange.getResponseHeaders().set("Content-Type", response.contentType);
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+          responseBody.write(response.body);
+        }
+      } finally {
+        exchange.close();
+      }
+    }
+
+    private Response createResponse(HttpExchange exchange) {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        return Response.error(HttpURLConnection.HTTP_BAD_METHOD, "Only GET requests are supported.");
+      }
+
+      try {
+        return this.handler.handle(exchange.getRequestURI().getRawQuery());
+      } catch (GraphQueryException e) {
+        return Response.error(HttpURLConnection.HTTP_BAD_REQUEST, e.getMessage());
+      } catch (Exception e) {
+        this.log.error("Unable to handle request " + exchange.getRequestURI(), e);
+        return Response.error(HttpURLConnection.HTTP_INTERNAL_ERROR, "Unable to create graph: " + e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.shared.artifact.filter.StrictPatternIncludesArtifactFilter;
+import com.github.ferstl.depgraph.GraphServer.Response;
+import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+
+/**
+ * Serves dependency graphs of the current project and its modules on a local HTTP port. The dependencies are resolved
+ * once and kept in memory, so that each query only needs to build and format the requested graph. The modification
+ * times of the POM files are checked on each request. Projects affected by a modified POM file are reloaded and their
+ * dependencies resolved again. See {@link GraphQuery} for the supported query parameters, e.g.
+ * {@code http://localhost:8090/?module=my-module&depth=2&format=svg}.
+ *
+ * @since 2.2.1
+ */
+@Mojo(
+    name = "serve",
+    aggregator = true,
+    defaultPhase = LifecyclePhase.NONE,
+    inheritByDefault = false,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDirectInvocation = true,
+    threadSafe = true)
+public class GraphServerMojo extends AbstractCachingGraphMojo {
+
+  /**
+   * The local port to serve the graphs on. A value of {@code 0} chooses a free port.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "depgraph.port", defaultValue = "8090")
+  int port;
+
+  private ArtifactFilter globalFilter;
+  private ArtifactFilter targetFilter;
+  private final Map<GraphFormat, GraphStyleConfigurer> graphStyleConfigurers = new EnumMap<>(GraphFormat.class);
+
+  @Override
+  void run(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException {
+    this.globalFilter = globalFilter;
+    this.targetFilter = targetFilter;
+    this.graphStyleConfigurers.put(graphFormat, graphStyleConfigurer);
+
+    GraphServer server = new GraphServer(this.port, new GraphServer.RequestHandler() {
+
+      @Override
+      public Response handle(String query) throws Exception {
+        return handleRequest(query);
+      }
+    }, getLog());
+
+    server.start();
+    getLog().info("Serving dependency graphs on http://localhost:" + server.getPort() + "/ (press Ctrl+C to stop)");
+    try {
+      server.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      server.stop();
+    }
+  }
+
+  private Response handleRequest(String queryString) throws IOException, MojoFailureException, ProjectBuildingException {
+    GraphQuery query = GraphQuery.parse(queryString);
+    GraphFormat graphFormat = query.getGraphFormat();
+    int maxDepth = query.getDepth();
+
+    reloadModifiedProjects();
+    String module = query.getModule();
+    MavenProject project = module != null ? getReactorProjects().findProject(module) : getReactorProjects().getRoot();
+    if (project == null) {
+      return Response.error(HttpURLConnection.HTTP_NOT_FOUND, "Unknown module '" + module + "'");
+    }
+
+    AndArtifactFilter globalFilter = new AndArtifactFilter();
+    globalFilter.add(this.globalFilter);
+    globalFilter.add(query.createGlobalFilter());
+
+    List<String> targetIncludes = query.getTargetIncludes();
+    ArtifactFilter targetFilter = targetIncludes.isEmpty() ? this.targetFilter : new StrictPatternIncludesArtifactFilter(targetIncludes);
+
+    GraphFactory graphFactory = createGraphFactory(project, globalFilter, targetFilter, getGraphStyleConfigurer(graphFormat), maxDepth);
+    StringBuilder graphBuilder = new StringBuilder();
+    graphFactory.createGraph(project, graphBuilder);
+    String graph = graphBuilder.toString();
+
+    if (query.isSvg()) {
+      return Response.ok("image/svg+xml", renderSvg(graph));
+    }
+
+    return Response.ok(getContentType(graphFormat), graph);
+  }
+
+  private GraphStyleConfigurer getGraphStyleConfigurer(GraphFormat graphFormat) throws MojoFailureException {
+    // Requests are handled one after another, so the configurers can be reused
+    GraphStyleConfigurer graphStyleConfigurer = this.graphStyleConfigurers.get(graphFormat);
+    if (graphStyleConfigurer == null) {
+      graphStyleConfigurer = createGraphStyleConfigurer(graphFormat);
+      this.graphStyleConfigurers.put(graphFormat, graphStyleConfigurer);
+    }
+
+    return graphStyleConfigurer;
+  }
+
+  private byte[] renderSvg(String graph) throws IOException {
+    Path graphFile = Files.createTempFile("depgraph", GraphFormat.DOT.getFileExtension());
+    Path imageFile = graphFile.resolveSibling(graphFile.getFileName() + "." + GraphQuery.SVG_FORMAT);
+    try {
+      GraphFileWriter.write(graph, graphFile, getWriterBuffers());
+      createGraphviz().render(graphFile, Collections.singletonMap(GraphQuery.SVG_FORMAT, imageFile));
+      return Files.readAllBytes(imageFile);
+    } finally {
+      Files.deleteIfExists(graphFile);
+      Files.deleteIfExists(imageFile);
+    }
+  }
+
+  private void reloadModifiedProjects() throws ProjectBuildingException {
+    Set<Path> modifiedPomFiles = getReactorProjects().getModifiedPomFiles();
+    if (!modifiedPomFiles.isEmpty()) {
+      getLog().info("POM files have been modified. Reloading affected projects.");
+      reloadProjects(modifiedPomFiles);
+    }
+  }
+
+  private static String getContentType(GraphFormat graphFormat) {
+    switch (graphFormat) {
+      case DOT:
+        return "text/vnd.graphviz";
+      case JSON:
+        return "application/json";
+      default:
+        return "text/plain";
+    }
+  }
+}
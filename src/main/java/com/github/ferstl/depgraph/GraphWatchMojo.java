@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingException;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Creates the dependency graphs of the current project and all its modules and keeps them up to date while the POM
+ * files are edited. Parent projects get the aggregated graph of their modules. When a POM file is modified, only the
+ * projects inheriting from it are reloaded and only the dependencies of these projects and the projects depending on
+ * them are resolved again. Graph files whose content did not change are not rewritten.
+ *
+ * @since 2.2.1
+ */
+@Mojo(
+    name = "watch",
+    aggregator = true,
+    defaultPhase = LifecyclePhase.NONE,
+    inheritByDefault = false,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDirectInvocation = true,
+    threadSafe = true)
+public class GraphWatchMojo extends AbstractCachingGraphMojo {
+
+  /**
+   * Time to wait for further modifications after a POM file was modified. Editors often save a file in several steps.
+   */
+  private static final long QUIET_PERIOD_MILLIS = 100;
+
+  private final Map<Path, String> writtenGraphs = new HashMap<>();
+
+  @Override
+  void run(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException, MojoExecutionException {
+    checkGraphFilePaths(getReactorProjects().getProjects(), graphFormat);
+    int updatedGraphs = updateGraphs(graphFormat, globalFilter, targetFilter, graphStyleConfigurer);
+    getLog().info("Created dependency graphs for " + updatedGraphs + " projects.");
+
+    try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+      Set<Path> pomDirectories = new HashSet<>();
+      for (Path pomFile : getReactorProjects().getPomFiles()) {
+        if (pomDirectories.add(pomFile.getParent())) {
+          pomFile.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        }
+      }
+
+      getLog().info("Watching " + getReactorProjects().getPomFiles().size() + " POM files for changes (press Ctrl+C to stop)");
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<Path> modifiedPomFiles = awaitModifiedPomFiles(watchService);
+        long start = System.nanoTime();
+
+        try {
+          List<MavenProject> reloadedProjects = reloadProjects(modifiedPomFiles);
+          if (!reloadedProjects.isEmpty()) {
+            updatedGraphs = updateGraphs(graphFormat, globalFilter, targetFilter, graphStyleConfigurer);
+            getLog().info("Reloaded " + reloadedProjects.size() + " projects and updated " + updatedGraphs + " dependency graphs in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+          }
+        } catch (ProjectBuildingException | RuntimeException e) {
+          // Keep watching, the POM file might just be incomplete
+          getLog().error("Unable to update the dependency graphs: " + e);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Creates the graphs of all projects and writes those that have changed since they were written last time.
+   *
+   * @return The number of written graphs.
+   */
+  private int updateGraphs(GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException {
+    int updatedGraphs = 0;
+    for (MavenProject project : getReactorProjects().getProjects()) {
+      StringBuilder graphBuilder = new StringBuilder();
+      createGraphFactory(project, globalFilter, targetFilter, graphStyleConfigurer, 0).createGraph(project, graphBuilder);
+      String graph = graphBuilder.toString();
+      Path graphFilePath = createGraphFilePath(graphFormat, project);
+
+      if (!graph.equals(this.writtenGraphs.get(graphFilePath))) {
+        writeGraph(graph, project, graphFormat);
+        this.writtenGraphs.put(graphFilePath, graph);
+        updatedGraphs++;
+      }
+    }
+
+    return updatedGraphs;
+  }
+
+  private Set<Path> awaitModifiedPomFiles(WatchService watchService) throws InterruptedException {
+    Set<Path> pomFiles = getReactorProjects().getPomFiles();
+    Set<Path> modifiedPomFiles = new HashSet<>();
+
+    WatchKey key = watchService.take();
+    while (key != null) {
+      Path directory = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == OVERFLOW) {
+          // Events were lost, so any POM file might have been modified
+          modifiedPomFiles.addAll(pomFiles);
+        } else {
+          Path file = directory.resolve((Path) event.context()).toAbsolutePath().normalize();
+          if (pomFiles.contains(file)) {
+            modifiedPomFiles.add(file);
+          }
+        }
+      }
+      key.reset();
+
+      key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    return modifiedPomFiles;
+  }
+}
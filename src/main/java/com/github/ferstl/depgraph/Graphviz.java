@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamConsumer;
+import org.codehaus.plexus.util.cli.StreamPumper;
+import com.google.common.base.Joiner;
+
+/**
+ * Runs Graphviz' dot executable. The graph is either read from an existing file or streamed into the standard input of
+ * the dot process. The output of the process is logged line by line while it is running.
+ */
+final class Graphviz {
+
+  private static final long POLL_INTERVAL_MILLIS = 10;
+
+  private final String executable;
+  private final int timeoutInSeconds;
+  private final Log log;
+
+  /**
+   * Constructor.
+   *
+   * @param executable The dot executable.
+   * @param timeoutInSeconds Maximum time the dot process may run. A value of {@code 0} or less means no timeout.
+   * @param log Log for the output of the dot process.
+   */
+  Graphviz(String executable, int timeoutInSeconds, Log log) {
+    this.executable = executable;
+    this.timeoutInSeconds = timeoutInSeconds;
+    this.log = log;
+  }
+
+  /**
+   * Renders the given graph file into images. All images are created by a single dot process, so that the layout is
+   * done only once.
+   *
+   * @param graphFile The dot file.
+   * @param imageFiles The image files to create by their image format.
+   * @throws IOException In case dot cannot be executed, terminates abnormally or exceeds the timeout.
+   */
+  void render(Path graphFile, Map<String, Path> imageFiles) throws IOException {
+    Execution execution = start(imageFiles, graphFile.toAbsolutePath().toString());
+    execution.getInput().close();
+    execution.await();
+  }
+
+  /**
+   * Starts a dot process that reads the graph from its standard input. The graph has to be written to
+   * {@link Execution#getInput()} before calling {@link Execution#await()}.
+   *
+   * @param imageFiles The image files to create by their image format.
+   * @return The running dot process.
+   * @throws IOException In case dot cannot be executed.
+   */
+  Execution start(Map<String, Path> imageFiles) throws IOException {
+    return start(imageFiles, null);
+  }
+
+  private Execution start(Map<String, Path> imageFiles, String graphFile) throws IOException {
+    // Each -o option applies to the preceding -T option
+    List<String> arguments = new ArrayList<>();
+    for (Entry<String, Path> imageFile : imageFiles.entrySet()) {
+      arguments.add("-T");
+      arguments.add(imageFile.getKey());
+      arguments.add("-o");
+      arguments.add(imageFile.getValue().toAbsolutePath().toString());
+    }
+
+    if (graphFile != null) {
+      arguments.add(graphFile);
+    }
+
+    Commandline cmd = new Commandline();
+    cmd.setExecutable(this.executable);
+    cmd.addArguments(arguments.toArray(new String[0]));
+
+    this.log.info("Running Graphviz: " + this.executable + " " + Joiner.on(" ").join(arguments));
+
+    Process process;
+    try {
+      process = cmd.execute();
+    } catch (CommandLineException e) {
+      throw new IOException("Unable to execute Graphviz", e);
+    }
+
+    return new Execution(process);
+  }
+
+  /**
+   * A running dot process.
+   */
+  final class Execution {
+
+    private final Process process;
+    private final StreamPumper outputPumper;
+    private final StreamPumper errorPumper;
+
+    Execution(Process process) {
+      this.process = process;
+
+      StreamConsumer logConsumer = new LogConsumer(Graphviz.this.log);
+      this.outputPumper = new StreamPumper(process.getInputStream(), logConsumer);
+      this.errorPumper = new StreamPumper(process.getErrorStream(), logConsumer);
+      this.outputPumper.start();
+      this.errorPumper.start();
+    }
+
+    /**
+     * Standard input of the dot process. Closing this stream signals dot that the graph is complete.
+     *
+     * @return The standard input of the dot process.
+     */
+    OutputStream getInput() {
+      return this.process.getOutputStream();
+    }
+
+    /**
+     * Waits for the dot process to terminate. The process is killed if it exceeds the configured timeout.
+     *
+     * @throws IOException In case dot terminates abnormally or exceeds the timeout.
+     */
+    void await() throws IOException {
+      try {
+        closeQuietly(getInput());
+        if (!waitForProcess()) {
+          kill();
+          throw new IOException("Graphviz did not terminate within " + Graphviz.this.timeoutInSeconds + " seconds and was killed.");
+        }
+
+        this.outputPumper.waitUntilDone();
+        this.errorPumper.waitUntilDone();
+      } catch (InterruptedException e) {
+        kill();
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for Graphviz.", e);
+      }
+
+      int exitCode = this.process.exitValue();
+      if (exitCode != 0) {
+        throw new IOException("Graphviz terminated abnormally. Exit code: " + exitCode);
+      }
+    }
+
+    /**
+     * Kills the dot process, e.g. when the graph could not be written completely.
+     */
+    void kill() {
+      closeQuietly(getInput());
+      this.process.destroy();
+      this.outputPumper.disable();
+      this.errorPumper.disable();
+    }
+
+    private boolean waitForProcess() throws InterruptedException {
+      if (Graphviz.this.timeoutInSeconds <= 0) {
+        this.process.waitFor();
+        return true;
+      }
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Graphviz.this.timeoutInSeconds);
+      while (CommandLineUtils.isAlive(this.process)) {
+        if (System.nanoTime() > deadline) {
+          return false;
+        }
+        Thread.sleep(POLL_INTERVAL_MILLIS);
+      }
+
+      return true;
+    }
+
+    private void closeQuietly(OutputStream stream) {
+      try {
+        stream.close();
+      } catch (IOException e) {
+        // dot might already have terminated
+      }
+    }
+  }
+
+  private static final class LogConsumer implements StreamConsumer {
+
+    private final Log log;
+
+    LogConsumer(Log log) {
+      this.log = log;
+    }
+
+    @Override
+    public void consumeLine(String line) {
+      String trimmedLine = line.trim();
+      if (!trimmedLine.isEmpty()) {
+        this.log.info("  dot> " + trimmedLine);
+      }
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import com.github.ferstl.depgraph.dependency.GraphFactory;
+import com.github.ferstl.depgraph.dependency.GraphStyleConfigurer;
+
+/**
+ * Creates the dependency graph of each module in a multi-module project within a single execution. The result is the
+ * same as running the {@code graph} goal on each module, but the style configuration and the artifact filters are
+ * created only once and the modules are processed in parallel. This Mojo has the same options as the {@code graph}
+ * Mojo.
+ *
+ * @since 2.2.1
+ */
+@Mojo(
+    name = "reactor-graphs",
+    aggregator = true,
+    defaultPhase = LifecyclePhase.NONE,
+    inheritByDefault = false,
+    requiresDependencyCollection = ResolutionScope.TEST,
+    requiresDirectInvocation = false,
+    threadSafe = true)
+public class ReactorDependencyGraphMojo extends DependencyGraphMojo {
+
+  /**
+   * Number of modules to process in parallel. The default is {@code 1}, and a value of {@code 0} uses all available
+   * processors.
+   *
+   * @since 2.2.1
+   */
+  @Parameter(property = "threads", defaultValue = "1")
+  int threads;
+
+  @Override
+  void createGraphs(final GraphFormat graphFormat, ArtifactFilter globalFilter, ArtifactFilter targetFilter, GraphStyleConfigurer graphStyleConfigurer) throws IOException, MojoExecutionException {
+    List<MavenProject> projects = new ArrayList<>();
+    projects.add(this.project);
+    projects.addAll(this.project.getCollectedProjects());
+    checkGraphFilePaths(projects, graphFormat);
+
+    // The graph factories are stateful, so each project needs its own one. The style configurer is not thread-safe,
+    // so create them up front.
+    Map<MavenProject, GraphFactory> graphFactories = new HashMap<>();
+    for (MavenProject project : projects) {
+      graphFactories.put(project, createGraphFactory(globalFilter, targetFilter, graphStyleConfigurer));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(getNumberOfThreads(projects.size()));
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (final MavenProject project : projects) {
+        final GraphFactory graphFactory = graphFactories.get(project);
+        results.add(executor.submit(new Callable<Void>() {
+
+          @Override
+          public Void call() throws IOException {
+            createGraph(graphFactory, project, graphFormat);
+            return null;
+          }
+        }));
+      }
+
+      for (Future<Void> result : results) {
+        awaitResult(result);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    getLog().info("Created dependency graphs for " + projects.size() + " projects.");
+  }
+
+  private int getNumberOfThreads(int numberOfProjects) {
+    int threads = this.threads > 0 ? this.threads : Runtime.getRuntime().availableProcessors();
+    return Math.max(1, Math.min(threads, numberOfProjects));
+  }
+
+  private static void awaitResult(Future<Void> result) throws IOException, MojoExecutionException {
+    try {
+      result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while creating dependency graphs.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+
+      throw new MojoExecutionException("Unable to create dependency graph.", cause);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+
+/**
+ * The projects of a reactor, i.e. the current project followed by all its modules. Projects can be reloaded when their
+ * POM files were modified.
+ */
+final class ReactorProjects {
+
+  private final ProjectBuilder projectBuilder;
+  private final ProjectBuildingRequest projectBuildingRequest;
+  private final List<MavenProject> projects;
+  private final Map<Path, Long> pomModificationTimes;
+
+  ReactorProjects(MavenProject root, ProjectBuilder projectBuilder, ProjectBuildingRequest projectBuildingRequest) {
+    this.projectBuilder = projectBuilder;
+    this.projectBuildingRequest = projectBuildingRequest;
+    this.projects = new ArrayList<>();
+    this.projects.add(root);
+    this.projects.addAll(root.getCollectedProjects());
+    this.pomModificationTimes = new LinkedHashMap<>();
+    recordPomModificationTimes(this.projects);
+  }
+
+  MavenProject getRoot() {
+    return this.projects.get(0);
+  }
+
+  List<MavenProject> getProjects() {
+    return Collections.unmodifiableList(this.projects);
+  }
+
+  /**
+   * Finds a project by its artifact ID or by {@code groupId:artifactId}.
+   *
+   * @param module The artifact ID or {@code groupId:artifactId}.
+   * @return The project or {@code null} if there is no such project.
+   */
+  MavenProject findProject(String module) {
+    for (MavenProject project : this.projects) {
+      if (module.equals(project.getArtifactId()) || module.equals(project.getGroupId() + ":" + project.getArtifactId())) {
+        return project;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the normalized paths of all POM files.
+   *
+   * @return The POM files.
+   */
+  Set<Path> getPomFiles() {
+    return Collections.unmodifiableSet(this.pomModificationTimes.keySet());
+  }
+
+  /**
+   * Returns the POM files whose modification time has changed since their projects were loaded.
+   *
+   * @return The modified POM files.
+   */
+  Set<Path> getModifiedPomFiles() {
+    Set<Path> modifiedPomFiles = new HashSet<>();
+    for (Map.Entry<Path, Long> entry : this.pomModificationTimes.entrySet()) {
+      if (entry.getKey().toFile().lastModified() != entry.getValue()) {
+        modifiedPomFiles.add(entry.getKey());
+      }
+    }
+
+    return modifiedPomFiles;
+  }
+
+  /**
+   * Reloads the projects of the given POM files and all projects inheriting from them. The models of the reloaded
+   * projects are copied into the existing projects. This way, Maven sees the changes as well when it resolves
+   * dependencies on these projects from the reactor. Changes to the {@code <modules>} sections are not taken into
+   * account.
+   *
+   * @param modifiedPomFiles The modified POM files.
+   * @return The reloaded projects.
+   * @throws ProjectBuildingException In case a project cannot be reloaded. The current projects are kept in this case.
+   */
+  List<MavenProject> reload(Collection<Path> modifiedPomFiles) throws ProjectBuildingException {
+    Set<Path> normalizedPomFiles = new HashSet<>();
+    for (Path modifiedPomFile : modifiedPomFiles) {
+      normalizedPomFiles.add(normalize(modifiedPomFile));
+    }
+
+    Map<Path, MavenProject> affectedProjects = new LinkedHashMap<>();
+    for (MavenProject project : this.projects) {
+      if (isAffected(project, normalizedPomFiles)) {
+        affectedProjects.put(normalize(project.getFile().toPath()), project);
+      }
+    }
+
+    if (affectedProjects.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<File> affectedPomFiles = new ArrayList<>();
+    for (MavenProject project : affectedProjects.values()) {
+      affectedPomFiles.add(project.getFile());
+    }
+
+    // Build all projects before updating any of them
+    List<ProjectBuildingResult> results = this.projectBuilder.build(affectedPomFiles, false, this.projectBuildingRequest);
+    for (ProjectBuildingResult result : results) {
+      MavenProject project = affectedProjects.get(normalize(result.getPomFile().toPath()));
+      update(project, result.getProject());
+    }
+
+    recordPomModificationTimes(affectedProjects.values());
+    return new ArrayList<>(affectedProjects.values());
+  }
+
+  // Maven prefers the dependency artifacts of a project over the dependencies in its model when resolving them. They
+  // are deprecated but still have to be replaced together with the model.
+  @SuppressWarnings("deprecation")
+  private static void update(MavenProject project, MavenProject reloadedProject) {
+    project.setModel(reloadedProject.getModel());
+    project.setOriginalModel(reloadedProject.getOriginalModel());
+    project.setRemoteArtifactRepositories(reloadedProject.getRemoteArtifactRepositories());
+    project.setDependencyArtifacts(reloadedProject.getDependencyArtifacts());
+  }
+
+  /**
+   * A project is affected by a modification when its own POM or the POM of one of its parents was modified.
+   */
+  private static boolean isAffected(MavenProject project, Set<Path> modifiedPomFiles) {
+    for (MavenProject current = project; current != null; current = current.getParent()) {
+      File pomFile = current.getFile();
+      if (pomFile != null && modifiedPomFiles.contains(normalize(pomFile.toPath()))) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private void recordPomModificationTimes(Collection<MavenProject> projects) {
+    for (MavenProject project : projects) {
+      File pomFile = project.getFile();
+      if (pomFile != null) {
+        this.pomModificationTimes.put(normalize(pomFile.toPath()), pomFile.lastModified());
+      }
+    }
+  }
+
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+}
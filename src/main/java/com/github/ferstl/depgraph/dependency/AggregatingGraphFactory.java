@@ -15,17 +15,36 @@
  */
 package com.github.ferstl.depgraph.dependency;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.project.MavenProject;
+import com.github.ferstl.depgraph.graph.ConcurrentGraphBuilder;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.metrics.Metrics;
 
 /**
  * A graph factory that creates a dependency graph from a multi-module project. Child modules are treated as
  * dependencies of the parent project. The created graph is the <strong>union</strong> of the child modules' dependency
  * graphs.
+ * <p>
+ * The dependency graphs of the child modules can be built in parallel. This requires a
+ * {@link ConcurrentGraphBuilder}.
+ * </p>
+ * <p>
+ * Modules for which a {@link GraphFragment} is available are not resolved at all. Their fragments are merged into the
+ * graph instead.
+ * </p>
  */
 public class AggregatingGraphFactory implements GraphFactory {
 
@@ -33,37 +52,118 @@ public class AggregatingGraphFactory implements GraphFactory {
   private final ArtifactFilter globalFilter;
   private final GraphBuilder<DependencyNode> graphBuilder;
   private final boolean includeParentProjects;
+  private final int threads;
+  private Map<MavenProject, GraphFragment> fragments = Collections.emptyMap();
 
   public AggregatingGraphFactory(MavenGraphAdapter mavenGraphAdapter, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder, boolean includeParentProjects) {
+    this(mavenGraphAdapter, globalFilter, graphBuilder, includeParentProjects, 1);
+  }
+
+  public AggregatingGraphFactory(MavenGraphAdapter mavenGraphAdapter, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder, boolean includeParentProjects, int threads) {
+    if (threads > 1 && !(graphBuilder instanceof ConcurrentGraphBuilder)) {
+      throw new IllegalArgumentException("Building the graph with " + threads + " threads requires a concurrent graph builder");
+    }
+
     this.mavenGraphAdapter = mavenGraphAdapter;
     this.globalFilter = globalFilter;
     this.graphBuilder = graphBuilder;
     this.includeParentProjects = includeParentProjects;
+    this.threads = threads;
+  }
+
+  /**
+   * Sets the fragments of the modules that don't need to be resolved. The graphs created from fragments are always
+   * {@link GraphBuilder#sortOutput() sorted} because the merged edges have no discovery order.
+   *
+   * @param fragments The fragments by module.
+   */
+  public void setFragments(Map<MavenProject, GraphFragment> fragments) {
+    this.fragments = fragments;
   }
 
   @Override
-  public String createGraph(MavenProject parent) {
+  public void createGraph(MavenProject parent, Appendable output) throws IOException {
     this.graphBuilder.graphName(parent.getArtifactId());
 
     if (this.includeParentProjects) {
       buildModuleTree(parent, this.graphBuilder);
     }
 
-    List<MavenProject> collectedProjects = parent.getCollectedProjects();
-    for (MavenProject collectedProject : collectedProjects) {
+    List<MavenProject> collectedProjects = new ArrayList<>();
+    List<GraphFragment> collectedFragments = new ArrayList<>();
+    for (MavenProject collectedProject : parent.getCollectedProjects()) {
       // Process project only if its artifact is not filtered
       if (isPartOfGraph(collectedProject)) {
+        GraphFragment fragment = this.fragments.get(collectedProject);
+        if (fragment != null) {
+          collectedFragments.add(fragment);
+        } else {
+          collectedProjects.add(collectedProject);
+        }
+      }
+    }
+
+    if (this.threads > 1 && collectedProjects.size() > 1) {
+      buildDependencyGraphsInParallel(collectedProjects);
+    } else {
+      for (MavenProject collectedProject : collectedProjects) {
         this.mavenGraphAdapter.buildDependencyGraph(collectedProject, this.globalFilter, this.graphBuilder);
       }
     }
 
+    if (!collectedFragments.isEmpty()) {
+      GraphFragment.merge(collectedFragments, this.graphBuilder);
+      this.graphBuilder.sortOutput();
+    }
+
     // Add the project as single node if the graph is empty
     Artifact artifact = parent.getArtifact();
     if (this.graphBuilder.isEmpty() && this.globalFilter.include(artifact)) {
       this.graphBuilder.addNode(new DependencyNode(artifact));
     }
 
-    return this.graphBuilder.toString();
+    this.graphBuilder.writeGraph(output);
+  }
+
+  private void buildDependencyGraphsInParallel(List<MavenProject> projects) {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.threads, projects.size()));
+    try {
+      List<Future<Void>> results = new ArrayList<>();
+      for (final MavenProject project : projects) {
+        results.add(executor.submit(Metrics.propagate(new Callable<Void>() {
+
+          @Override
+          public Void call() {
+            AggregatingGraphFactory.this.mavenGraphAdapter.buildDependencyGraph(project, AggregatingGraphFactory.this.globalFilter, AggregatingGraphFactory.this.graphBuilder);
+            return null;
+          }
+        })));
+      }
+
+      for (Future<Void> result : results) {
+        awaitResult(result);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void awaitResult(Future<Void> result) {
+    try {
+      result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while building the dependency graphs", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+
+      throw new IllegalStateException("Unable to build the dependency graph", cause);
+    }
   }
 
   private void buildModuleTree(MavenProject parentProject, GraphBuilder<DependencyNode> graphBuilder) {
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.apache.maven.shared.dependency.graph.internal.DefaultDependencyNode;
+
+/**
+ * A {@link DependencyGraphBuilder} that creates the dependency graph from the dependencies Maven already collected for
+ * the project, i.e. {@link MavenProject#getArtifacts()} and their {@link Artifact#getDependencyTrail() dependency
+ * trails}. This requires the mojo to declare {@code requiresDependencyCollection}. The dependencies are resolved with
+ * the given {@link DependencyGraphBuilder} only if the collected dependencies are not available or incomplete.
+ * <p>
+ * Like the graphs of the {@link DependencyGraphBuilder}, the created graphs contain the resolved dependencies only. An
+ * artifact that is excluded by the filter is not part of the graph together with all its transitive dependencies.
+ * </p>
+ */
+public final class CollectedDependencyGraphBuilder implements DependencyGraphBuilder {
+
+  private final DependencyGraphBuilder dependencyGraphBuilder;
+
+  public CollectedDependencyGraphBuilder(DependencyGraphBuilder dependencyGraphBuilder) {
+    this.dependencyGraphBuilder = dependencyGraphBuilder;
+  }
+
+  @Override
+  public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter) throws DependencyGraphBuilderException {
+    DependencyNode root = createFromCollectedDependencies(project, filter);
+    return root != null ? root : this.dependencyGraphBuilder.buildDependencyGraph(project, filter);
+  }
+
+  @Override
+  public DependencyNode buildDependencyGraph(MavenProject project, ArtifactFilter filter, Collection<MavenProject> reactorProjects) throws DependencyGraphBuilderException {
+    DependencyNode root = createFromCollectedDependencies(project, filter);
+    return root != null ? root : this.dependencyGraphBuilder.buildDependencyGraph(project, filter, reactorProjects);
+  }
+
+  /**
+   * Creates the dependency graph from the collected artifacts. Maven collects the artifacts in pre-order, so the parent
+   * of each artifact, which is the second last element of its dependency trail, has always been processed before.
+   *
+   * @return The root node or {@code null} if the collected artifacts cannot be used.
+   */
+  private static DependencyNode createFromCollectedDependencies(MavenProject project, ArtifactFilter filter) {
+    Set<Artifact> artifacts = project.getArtifacts();
+    Artifact projectArtifact = project.getArtifact();
+    if (projectArtifact == null || (artifacts.isEmpty() && !project.getDependencies().isEmpty())) {
+      // Dependencies were not collected
+      return null;
+    }
+
+    DefaultDependencyNode root = new DefaultDependencyNode(null, projectArtifact, null, null, null);
+    Map<String, DefaultDependencyNode> nodes = new HashMap<>();
+    Map<DependencyNode, List<DependencyNode>> children = new HashMap<>();
+    Set<String> excludedIds = new HashSet<>();
+    nodes.put(projectArtifact.getId(), root);
+    children.put(root, new ArrayList<DependencyNode>());
+
+    for (Artifact artifact : artifacts) {
+      List<String> trail = artifact.getDependencyTrail();
+      if (trail == null || trail.size() < 2) {
+        return null;
+      }
+
+      String id = artifact.getId();
+      String parentId = trail.get(trail.size() - 2);
+      DefaultDependencyNode parent = nodes.get(parentId);
+      if (parent == null) {
+        if (!excludedIds.contains(parentId)) {
+          // The trail does not match the collected artifacts
+          return null;
+        }
+
+        excludedIds.add(id);
+      } else if (filter != null && !filter.include(artifact)) {
+        excludedIds.add(id);
+      } else {
+        DefaultDependencyNode node = new DefaultDependencyNode(parent, artifact, null, null, null);
+        nodes.put(id, node);
+        children.put(node, new ArrayList<DependencyNode>());
+        children.get(parent).add(node);
+      }
+    }
+
+    for (DefaultDependencyNode node : nodes.values()) {
+      node.setChildren(children.get(node));
+    }
+
+    return root;
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Joiner;
+
+/**
+ * Index of all requested versions of the artifacts in one or more dependency trees. For each artifact
+ * ({@code groupId:artifactId}), the index contains the effective versions and the paths that requested each version.
+ * The report contains only artifacts with version conflicts, i.e. artifacts having at least one node with a resolution
+ * of {@link NodeResolution#OMITTED_FOR_CONFLICT}. Artifacts, versions and paths are sorted, so the report is stable
+ * across runs. The versions are compared through a {@link VersionTable}, which parses each distinct version only once.
+ */
+public final class ConflictReport {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Joiner PATH_JOINER = Joiner.on(" > ");
+  private static final String CSV_HEADER = "groupId,artifactId,effectiveVersions,requestedVersion,path";
+
+  private static final Comparator<List<String>> PATH_ORDER = new Comparator<List<String>>() {
+
+    @Override
+    public int compare(List<String> path1, List<String> path2) {
+      int size = Math.min(path1.size(), path2.size());
+      for (int i = 0; i < size; i++) {
+        int result = path1.get(i).compareTo(path2.get(i));
+        if (result != 0) {
+          return result;
+        }
+      }
+
+      return Integer.compare(path1.size(), path2.size());
+    }
+  };
+
+  private final Map<String, ArtifactVersions> artifacts;
+  private final VersionTable versionTable;
+
+  public ConflictReport() {
+    this.artifacts = new TreeMap<>();
+    this.versionTable = new VersionTable();
+  }
+
+  /**
+   * Adds all nodes of the given dependency tree to this report. The tree needs to be built in verbose mode, so that it
+   * contains the omitted nodes. Nodes omitted for cycles are ignored.
+   *
+   * @param root The root of the dependency tree.
+   * @param globalFilter Filter for the nodes of the tree. The children of excluded nodes are not visited.
+   */
+  public void addDependencyTree(org.apache.maven.shared.dependency.tree.DependencyNode root, ArtifactFilter globalFilter) {
+    Deque<String> path = new ArrayDeque<>();
+    path.add(createPathElement(root.getArtifact()));
+    addChildren(root, globalFilter, path);
+  }
+
+  public String format(Format format) {
+    switch (format) {
+      case JSON:
+        return toJson();
+      case CSV:
+        return toCsv();
+      default:
+        throw new IllegalArgumentException("Unsupported report format: " + format);
+    }
+  }
+
+  private void addChildren(org.apache.maven.shared.dependency.tree.DependencyNode parent, ArtifactFilter globalFilter, Deque<String> path) {
+    for (org.apache.maven.shared.dependency.tree.DependencyNode child : parent.getChildren()) {
+      DependencyNode node = new DependencyNode(child);
+      Artifact artifact = node.getArtifact();
+      if (node.getResolution() == NodeResolution.OMITTED_FOR_CYCLE || !globalFilter.include(artifact)) {
+        continue;
+      }
+
+      getVersions(artifact).add(node, path);
+
+      path.addLast(createPathElement(artifact));
+      addChildren(child, globalFilter, path);
+      path.removeLast();
+    }
+  }
+
+  private ArtifactVersions getVersions(Artifact artifact) {
+    String key = artifact.getGroupId() + ":" + artifact.getArtifactId();
+    ArtifactVersions versions = this.artifacts.get(key);
+    if (versions == null) {
+      versions = new ArtifactVersions(artifact.getGroupId(), artifact.getArtifactId(), this.versionTable.comparator());
+      this.artifacts.put(key, versions);
+    }
+
+    return versions;
+  }
+
+  private String toJson() {
+    List<Map<String, Object>> conflicts = new ArrayList<>();
+    for (ArtifactVersions versions : this.artifacts.values()) {
+      if (!versions.conflict) {
+        continue;
+      }
+
+      List<Map<String, Object>> requestedVersions = new ArrayList<>();
+      for (Entry<String, Set<List<String>>> requestedVersion : versions.requestedVersions.entrySet()) {
+        Map<String, Object> version = new LinkedHashMap<>();
+        version.put("version", requestedVersion.getKey());
+        version.put("paths", requestedVersion.getValue());
+        requestedVersions.add(version);
+      }
+
+      Map<String, Object> conflict = new LinkedHashMap<>();
+      conflict.put("groupId", versions.groupId);
+      conflict.put("artifactId", versions.artifactId);
+      conflict.put("effectiveVersions", versions.effectiveVersions);
+      conflict.put("requestedVersions", requestedVersions);
+      conflicts.add(conflict);
+    }
+
+    try {
+      StringWriter w = new StringWriter();
+      OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(w, conflicts);
+      return w.toString();
+    } catch (IOException e) {
+      throw new RuntimeException(e.getMessage(), e);
+    }
+  }
+
+  private String toCsv() {
+    StringBuilder sb = new StringBuilder(CSV_HEADER);
+    for (ArtifactVersions versions : this.artifacts.values()) {
+      if (!versions.conflict) {
+        continue;
+      }
+
+      String effectiveVersions = Joiner.on('|').join(versions.effectiveVersions);
+      for (Entry<String, Set<List<String>>> requestedVersion : versions.requestedVersions.entrySet()) {
+        for (List<String> path : requestedVersion.getValue()) {
+          sb.append('\n')
+              .append(escapeCsv(versions.groupId)).append(',')
+              .append(escapeCsv(versions.artifactId)).append(',')
+              .append(escapeCsv(effectiveVersions)).append(',')
+              .append(escapeCsv(requestedVersion.getKey())).append(',')
+              .append(escapeCsv(PATH_JOINER.join(path)));
+        }
+      }
+    }
+
+    return sb.append('\n').toString();
+  }
+
+  private static String createPathElement(Artifact artifact) {
+    return artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+  }
+
+  private static String escapeCsv(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+
+  public enum Format {
+    JSON("json"), CSV("csv");
+
+    private final String fileExtension;
+
+    Format(String fileExtension) {
+      this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+      return this.fileExtension;
+    }
+
+    public static Format forName(String name) {
+      try {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unsupported report format: " + name, e);
+      }
+    }
+  }
+
+  private static final class ArtifactVersions {
+
+    final String groupId;
+    final String artifactId;
+    final Set<String> effectiveVersions;
+    final Map<String, Set<List<String>>> requestedVersions;
+    boolean conflict;
+
+    ArtifactVersions(String groupId, String artifactId, Comparator<String> versionOrder) {
+      this.groupId = groupId;
+      this.artifactId = artifactId;
+      this.effectiveVersions = new TreeSet<>(versionOrder);
+      this.requestedVersions = new TreeMap<>(versionOrder);
+    }
+
+    void add(DependencyNode node, Deque<String> path) {
+      String requestedVersion = node.getArtifact().getVersion();
+      this.effectiveVersions.add(node.getEffectiveVersion());
+      this.conflict |= node.getResolution() == NodeResolution.OMITTED_FOR_CONFLICT;
+
+      Set<List<String>> paths = this.requestedVersions.get(requestedVersion);
+      if (paths == null) {
+        paths = new TreeSet<>(PATH_ORDER);
+        this.requestedVersions.put(requestedVersion, paths);
+      }
+      paths.add(new ArrayList<>(path));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.tree.DependencyTreeBuilder;
+import org.apache.maven.shared.dependency.tree.DependencyTreeBuilderException;
+import com.github.ferstl.depgraph.metrics.Metrics;
+
+/**
+ * Creates a {@link ConflictReport} of a project and all its modules.
+ */
+public class ConflictReportFactory implements GraphFactory {
+
+  private final DependencyTreeBuilder dependencyTreeBuilder;
+  private final ArtifactRepository artifactRepository;
+  private final ArtifactFilter globalFilter;
+  private final ConflictReport.Format format;
+
+  public ConflictReportFactory(DependencyTreeBuilder dependencyTreeBuilder, ArtifactRepository artifactRepository, ArtifactFilter globalFilter, ConflictReport.Format format) {
+    this.dependencyTreeBuilder = dependencyTreeBuilder;
+    this.artifactRepository = artifactRepository;
+    this.globalFilter = globalFilter;
+    this.format = format;
+  }
+
+  @Override
+  public void createGraph(MavenProject parent, Appendable output) throws IOException {
+    List<MavenProject> projects = new ArrayList<>();
+    projects.add(parent);
+    projects.addAll(parent.getCollectedProjects());
+
+    ConflictReport report = new ConflictReport();
+    for (MavenProject project : projects) {
+      org.apache.maven.shared.dependency.tree.DependencyNode root;
+      try (Metrics.Timer timer = Metrics.start(Metrics.Phase.RESOLUTION)) {
+        root = this.dependencyTreeBuilder.buildDependencyTree(project, this.artifactRepository, this.globalFilter);
+      } catch (DependencyTreeBuilderException e) {
+        throw new DependencyGraphException(e);
+      }
+
+      try (Metrics.Timer timer = Metrics.start(Metrics.Phase.VISITING)) {
+        report.addDependencyTree(root, this.globalFilter);
+      }
+    }
+
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.FORMATTING)) {
+      output.append(report.format(this.format));
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import com.github.ferstl.depgraph.metrics.Metrics;
+
+/**
+ * Keeps the resolved dependency graphs of projects in memory, so that multiple graphs can be created without resolving
+ * the dependencies again. The dependencies are resolved without any filter. Filters are applied when the cached
+ * graphs are visited, see {@link MavenGraphAdapter#MavenGraphAdapter(DependencyGraphCache, ArtifactFilter)}.
+ */
+public final class DependencyGraphCache {
+
+  private static final ArtifactFilter INCLUDE_ALL = new AndArtifactFilter();
+
+  private final DependencyGraphBuilder dependencyGraphBuilder;
+  private final ConcurrentMap<String, DependencyNode> dependencyGraphs;
+
+  public DependencyGraphCache(DependencyGraphBuilder dependencyGraphBuilder) {
+    this.dependencyGraphBuilder = dependencyGraphBuilder;
+    this.dependencyGraphs = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the dependency graph of the given project. The dependencies are resolved on the first call for a project.
+   *
+   * @param project The project.
+   * @return The root node of the project's dependency graph.
+   * @throws DependencyGraphException In case the dependencies cannot be resolved.
+   */
+  DependencyNode getDependencyGraph(MavenProject project) {
+    String id = project.getId();
+    DependencyNode root = this.dependencyGraphs.get(id);
+    if (root != null) {
+      return root;
+    }
+
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.RESOLUTION)) {
+      root = this.dependencyGraphBuilder.buildDependencyGraph(project, INCLUDE_ALL);
+    } catch (DependencyGraphBuilderException e) {
+      throw new DependencyGraphException(e);
+    }
+
+    // Another thread may have resolved the same project in the meantime
+    DependencyNode existing = this.dependencyGraphs.putIfAbsent(id, root);
+    return existing != null ? existing : root;
+  }
+
+  /**
+   * Removes the dependency graph of the given project, e.g. after its POM file has been modified. The graphs of all
+   * projects that depend on the given project, directly or transitively, are removed as well since they contain the
+   * project's dependencies.
+   *
+   * @param project The project.
+   */
+  public void invalidate(MavenProject project) {
+    this.dependencyGraphs.remove(project.getId());
+
+    Iterator<DependencyNode> roots = this.dependencyGraphs.values().iterator();
+    while (roots.hasNext()) {
+      if (containsArtifact(roots.next().getChildren(), project.getGroupId(), project.getArtifactId())) {
+        roots.remove();
+      }
+    }
+  }
+
+  private static boolean containsArtifact(List<DependencyNode> nodes, String groupId, String artifactId) {
+    for (DependencyNode node : nodes) {
+      Artifact artifact = node.getArtifact();
+      if ((groupId.equals(artifact.getGroupId()) && artifactId.equals(artifact.getArtifactId()))
+          || containsArtifact(node.getChildren(), groupId, artifactId)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+}
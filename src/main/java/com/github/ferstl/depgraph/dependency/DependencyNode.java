@@ -18,6 +18,7 @@ package com.github.ferstl.depgraph.dependency;
 import java.util.Set;
 import java.util.TreeSet;
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
 import com.google.common.collect.ImmutableSet;
 
 /**
@@ -30,49 +31,86 @@ import com.google.common.collect.ImmutableSet;
  */
 public final class DependencyNode {
 
-  private org.apache.maven.shared.dependency.graph.DependencyNode graphNode;
-  private org.apache.maven.shared.dependency.tree.DependencyNode treeNode;
+  private final org.apache.maven.shared.dependency.tree.DependencyNode treeNode;
   private final Artifact artifact;
   private final NodeResolution resolution;
-  private final TreeSet<String> scopes;
 
+  /**
+   * Scopes of this node. This set is only created when other nodes are merged into this node. Otherwise the scope of
+   * the artifact is the only scope.
+   */
+  private TreeSet<String> scopes;
+
+  /**
+   * Number of transitive dependencies that were cut off below this node, see {@link #getPrunedDependencies()}.
+   */
+  private int prunedDependencies;
 
   public DependencyNode(Artifact artifact) {
-    this(artifact, NodeResolution.INCLUDED);
+    this(withDefaultScope(artifact), NodeResolution.INCLUDED, null);
   }
 
   public DependencyNode(org.apache.maven.shared.dependency.graph.DependencyNode dependencyNode) {
-    this(dependencyNode.getArtifact());
-    this.graphNode = dependencyNode;
+    this(withDefaultScope(dependencyNode.getArtifact()), NodeResolution.INCLUDED, null);
   }
 
   public DependencyNode(org.apache.maven.shared.dependency.tree.DependencyNode dependencyNode) {
-    this(dependencyNode.getArtifact(), determineResolution(dependencyNode.getState()));
-    this.treeNode = dependencyNode;
+    this(withDefaultScope(dependencyNode.getArtifact()), determineResolution(dependencyNode.getState()), dependencyNode);
   }
 
-  private DependencyNode(Artifact artifact, NodeResolution resolution) {
+  /**
+   * Creates a node for an artifact that was already passed through {@link #withDefaultScope(Artifact)}.
+   */
+  DependencyNode(Artifact artifact, NodeResolution resolution, org.apache.maven.shared.dependency.tree.DependencyNode treeNode) {
+    this.artifact = artifact;
+    this.resolution = resolution;
+    this.treeNode = treeNode;
+  }
+
+  /**
+   * Returns the given artifact if it has a scope. Otherwise a copy of the artifact with scope {@code compile} is
+   * returned. The given artifact is never modified since it may be shared with other modules of a (parallel) build.
+   *
+   * @param artifact The artifact.
+   * @return The given artifact or a copy with scope {@code compile}.
+   */
+  static Artifact withDefaultScope(Artifact artifact) {
     if (artifact == null) {
       throw new NullPointerException("Artifact must not be null");
     }
 
-    // FIXME: better create a copy of the artifact and set the missing attributes there.
-    if (artifact.getScope() == null) {
-      artifact.setScope("compile");
+    if (artifact.getScope() != null) {
+      return artifact;
     }
 
-    this.scopes = new TreeSet<>();
-    this.artifact = artifact;
-    this.resolution = resolution;
-    this.scopes.add(artifact.getScope());
+    Artifact copy = ArtifactUtils.copyArtifact(artifact);
+    copy.setScope("compile");
+    return copy;
   }
 
+  /**
+   * Merges the scopes of the given node into this node. The merged node keeps the smaller number of
+   * {@link #getPrunedDependencies() pruned dependencies}, since the dependencies of a node that is not pruned everywhere
+   * are part of the graph. This method is thread-safe.
+   *
+   * @param other The node to merge.
+   */
   public void merge(DependencyNode other) {
     if (this == other) {
       return;
     }
 
-    this.scopes.addAll(other.getScopes());
+    Set<String> otherScopes = other.getScopes();
+    int otherPrunedDependencies = other.getPrunedDependencies();
+    synchronized (this) {
+      if (this.scopes == null) {
+        this.scopes = new TreeSet<>();
+        this.scopes.add(this.artifact.getScope());
+      }
+
+      this.scopes.addAll(otherScopes);
+      this.prunedDependencies = Math.min(this.prunedDependencies, otherPrunedDependencies);
+    }
   }
 
   public Artifact getArtifact() {
@@ -83,10 +121,28 @@ public final class DependencyNode {
     return this.resolution;
   }
 
-  public Set<String> getScopes() {
+  public synchronized Set<String> getScopes() {
+    if (this.scopes == null) {
+      return ImmutableSet.of(this.artifact.getScope());
+    }
+
     return ImmutableSet.copyOf(this.scopes);
   }
 
+  /**
+   * Returns the number of distinct transitive dependencies that were cut off below this node because the maximum depth
+   * of the graph was reached.
+   *
+   * @return The number of pruned dependencies or {@code 0} if the dependencies of this node were not pruned.
+   */
+  public synchronized int getPrunedDependencies() {
+    return this.prunedDependencies;
+  }
+
+  synchronized void setPrunedDependencies(int prunedDependencies) {
+    this.prunedDependencies = prunedDependencies;
+  }
+
   /**
    * Returns the <strong>effective</strong> version of this node, i.e. the version that is actually used. This is
    * important for nodes with a resolution of {@link NodeResolution#OMITTED_FOR_CONFLICT} where
@@ -108,7 +164,7 @@ public final class DependencyNode {
     return this.artifact.toString();
   }
 
-  private static NodeResolution determineResolution(int res) {
+  static NodeResolution determineResolution(int res) {
     switch (res) {
       case org.apache.maven.shared.dependency.tree.DependencyNode.OMITTED_FOR_DUPLICATE:
         return NodeResolution.OMITTED_FOR_DUPLICATE;
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import com.github.ferstl.depgraph.graph.NodeMerger;
+
+/**
+ * Merges the scopes of {@link DependencyNode}s with the same ID in concurrent graph builders.
+ */
+public enum DependencyNodeMerger implements NodeMerger<DependencyNode> {
+  INSTANCE;
+
+  @Override
+  public void merge(DependencyNode existingNode, DependencyNode node) {
+    existingNode.merge(node);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.project.MavenProject;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.graph.NodeFilter;
+
+/**
+ * A graph factory that creates a reverse dependency graph of a multi-module project. The aggregated graph of all
+ * modules is reduced to the dependencies matching the given filter and all artifacts that depend on them, directly or
+ * transitively.
+ */
+public class DependentsGraphFactory implements GraphFactory {
+
+  private final MavenGraphAdapter mavenGraphAdapter;
+  private final ArtifactFilter globalFilter;
+  private final GraphBuilder<DependencyNode> graphBuilder;
+  private final ArtifactFilter dependencyFilter;
+
+  public DependentsGraphFactory(MavenGraphAdapter mavenGraphAdapter, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter dependencyFilter) {
+    this.mavenGraphAdapter = mavenGraphAdapter;
+    this.globalFilter = globalFilter;
+    this.graphBuilder = graphBuilder;
+    this.dependencyFilter = dependencyFilter;
+  }
+
+  @Override
+  public void createGraph(MavenProject parent, Appendable output) throws IOException {
+    this.graphBuilder.graphName(parent.getArtifactId());
+
+    List<MavenProject> collectedProjects = parent.getCollectedProjects();
+    for (MavenProject collectedProject : collectedProjects) {
+      // Parent projects don't contribute any dependencies of their own
+      if (this.globalFilter.include(collectedProject.getArtifact()) && collectedProject.getModules().isEmpty()) {
+        this.mavenGraphAdapter.buildDependencyGraph(collectedProject, this.globalFilter, this.graphBuilder);
+      }
+    }
+
+    this.graphBuilder.reduceToDependents(new NodeFilter<DependencyNode>() {
+
+      @Override
+      public boolean include(DependencyNode node) {
+        return DependentsGraphFactory.this.dependencyFilter.include(node.getArtifact());
+      }
+    });
+
+    this.graphBuilder.writeGraph(output);
+  }
+}
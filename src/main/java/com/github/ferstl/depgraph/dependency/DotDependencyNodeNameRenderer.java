@@ -52,10 +52,15 @@ public class DotDependencyNodeNameRenderer implements NodeRenderer<DependencyNod
         this.showVersion ? node.getEffectiveVersion() : null,
         artifact.getType(),
         scopes,
-        getFirst(node.getScopes(), null))
+        getFirst(node.getScopes(), null),
+        createPrunedDependenciesString(node.getPrunedDependencies()))
         .toString();
   }
 
+  private static String createPrunedDependenciesString(int prunedDependencies) {
+    return prunedDependencies > 0 ? "+" + prunedDependencies + " transitive" : null;
+  }
+
   private static String createScopeString(Set<String> scopes) {
     if (scopes.size() > 1 || !scopes.contains("compile")) {
       return "(" + SLASH_JOINER.join(scopes) + ")";
@@ -18,6 +18,8 @@ package com.github.ferstl.depgraph.dependency;
 
 import com.github.ferstl.depgraph.dependency.style.StyleConfiguration;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.graph.NodeClusterer;
+import com.github.ferstl.depgraph.graph.dot.DotAttributeBuilder;
 import com.github.ferstl.depgraph.graph.dot.DotGraphFormatter;
 
 public class DotGraphStyleConfigurer implements GraphStyleConfigurer {
@@ -27,6 +29,8 @@ public class DotGraphStyleConfigurer implements GraphStyleConfigurer {
   private boolean showArtifactId;
   private boolean showVersionsOnNodes;
   private boolean showVersionOnEdges;
+  private NodeClusterer nodeClusterer;
+  private boolean highlightDominators;
 
   public DotGraphStyleConfigurer(StyleConfiguration styleConfiguration) {
     this.styleConfiguration = styleConfiguration;
@@ -56,13 +60,36 @@ public class DotGraphStyleConfigurer implements GraphStyleConfigurer {
     return this;
   }
 
+  /**
+   * Renders the nodes in clusters.
+   *
+   * @param nodeClusterer Assigns the nodes to clusters or {@code null} to render the nodes without clusters.
+   * @return This configurer.
+   */
+  public DotGraphStyleConfigurer clusterNodes(NodeClusterer nodeClusterer) {
+    this.nodeClusterer = nodeClusterer;
+    return this;
+  }
+
+  /**
+   * Highlights the nodes through which every path to some other node passes.
+   *
+   * @param highlightDominators {@code true} to highlight the dominators.
+   * @return This configurer.
+   */
+  public DotGraphStyleConfigurer highlightDominators(boolean highlightDominators) {
+    this.highlightDominators = highlightDominators;
+    return this;
+  }
+
   @Override
   public GraphBuilder<DependencyNode> configure(GraphBuilder<DependencyNode> graphBuilder) {
     DotDependencyNodeNameRenderer nodeNameRenderer = new DotDependencyNodeNameRenderer(this.showGroupId, this.showArtifactId, this.showVersionsOnNodes, this.styleConfiguration);
     DotDependencyEdgeRenderer edgeRenderer = new DotDependencyEdgeRenderer(this.showVersionOnEdges, this.styleConfiguration);
+    DotAttributeBuilder dominatorAttributes = this.highlightDominators ? new DotAttributeBuilder().color("red").addAttribute("penwidth", "3") : null;
 
     return graphBuilder
-        .graphFormatter(new DotGraphFormatter(this.styleConfiguration.graphAttributes(), this.styleConfiguration.defaultNodeAttributes(), this.styleConfiguration.defaultEdgeAttributes()))
+        .graphFormatter(new DotGraphFormatter(this.styleConfiguration.graphAttributes(), this.styleConfiguration.defaultNodeAttributes(), this.styleConfiguration.defaultEdgeAttributes(), this.nodeClusterer, dominatorAttributes))
         .useNodeNameRenderer(nodeNameRenderer)
         .useEdgeRenderer(edgeRenderer);
   }
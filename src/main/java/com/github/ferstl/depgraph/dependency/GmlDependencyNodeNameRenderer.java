@@ -37,7 +37,8 @@ public class GmlDependencyNodeNameRenderer implements NodeRenderer<DependencyNod
     String content = NEWLINE_JOINER.join(
         this.showGroupId ? node.getArtifact().getGroupId() : null,
         this.showArtifactId ? node.getArtifact().getArtifactId() : null,
-        this.showVersion ? node.getEffectiveVersion() : null);
+        this.showVersion ? node.getEffectiveVersion() : null,
+        node.getPrunedDependencies() > 0 ? "+" + node.getPrunedDependencies() + " transitive" : null);
 
     if (content.isEmpty()) {
       return "";
@@ -17,11 +17,15 @@ package com.github.ferstl.depgraph.dependency;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
 
+import static com.github.ferstl.depgraph.dependency.DependencyNode.determineResolution;
+import static com.github.ferstl.depgraph.dependency.DependencyNode.withDefaultScope;
 import static java.util.EnumSet.allOf;
 
 
@@ -43,6 +47,17 @@ class GraphBuildingVisitor implements org.apache.maven.shared.dependency.graph.t
    */
   private int cutOffDepth = 0;
 
+  /**
+   * Max depth of the traversal. Children of nodes at this depth are not visited at all. {@code 0} means unlimited.
+   */
+  private int maxDepth = 0;
+  private boolean showPrunedDependencies;
+
+  /**
+   * IDs of the (distinct) transitive dependencies of the currently pruned node or {@code null} if there is none.
+   */
+  private Set<String> prunedDependencies;
+
   GraphBuildingVisitor(GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter globalFilter, ArtifactFilter targetFilter, Set<NodeResolution> includedResolutions) {
     this.graphBuilder = graphBuilder;
     this.nodeStack = new ArrayDeque<>();
@@ -55,63 +70,146 @@ class GraphBuildingVisitor implements org.apache.maven.shared.dependency.graph.t
     this(graphBuilder, DoNothingArtifactFilter.INSTANCE, targetFilter, allOf(NodeResolution.class));
   }
 
+  /**
+   * Limits the depth of the traversal. The direct dependencies of the root node have a depth of 1.
+   *
+   * @param maxDepth The max depth or {@code 0} for unlimited depth.
+   */
+  void setMaxDepth(int maxDepth) {
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * If set to {@code true}, nodes whose children were pruned because of the {@link #setMaxDepth(int) max depth} record
+   * the number of omitted transitive dependencies (see {@link DependencyNode#getPrunedDependencies()}).
+   */
+  void setShowPrunedDependencies(boolean showPrunedDependencies) {
+    this.showPrunedDependencies = showPrunedDependencies;
+  }
+
   @Override
   public boolean visit(org.apache.maven.shared.dependency.graph.DependencyNode node) {
-    return internalVisit(new DependencyNode(node));
+    Artifact artifact = withDefaultScope(node.getArtifact());
+    if (!isIncluded(artifact, NodeResolution.INCLUDED)) {
+      return false;
+    }
+
+    internalVisit(new DependencyNode(artifact, NodeResolution.INCLUDED, null));
+
+    if (isMaxDepthReached()) {
+      if (this.showPrunedDependencies) {
+        this.prunedDependencies = new HashSet<>();
+        collectGraphDependencies(node.getChildren(), this.prunedDependencies);
+      }
+      return false;
+    }
+
+    return true;
   }
 
   @Override
   public boolean endVisit(org.apache.maven.shared.dependency.graph.DependencyNode node) {
-    return internalEndVisit(new DependencyNode(node));
+    return internalEndVisit(withDefaultScope(node.getArtifact()), NodeResolution.INCLUDED);
   }
 
   @Override
   public boolean visit(org.apache.maven.shared.dependency.tree.DependencyNode node) {
-    return internalVisit(new DependencyNode(node));
+    Artifact artifact = withDefaultScope(node.getArtifact());
+    NodeResolution resolution = determineResolution(node.getState());
+    if (!isIncluded(artifact, resolution)) {
+      return false;
+    }
+
+    internalVisit(new DependencyNode(artifact, resolution, node));
+
+    if (isMaxDepthReached()) {
+      if (this.showPrunedDependencies) {
+        this.prunedDependencies = new HashSet<>();
+        collectTreeDependencies(node.getChildren(), this.prunedDependencies);
+      }
+      return false;
+    }
+
+    return true;
   }
 
   @Override
   public boolean endVisit(org.apache.maven.shared.dependency.tree.DependencyNode node) {
-    return internalEndVisit(new DependencyNode(node));
+    return internalEndVisit(withDefaultScope(node.getArtifact()), determineResolution(node.getState()));
   }
 
-  private boolean internalVisit(DependencyNode node) {
-    if (!isIncluded(node)) {
-      return false;
-    }
-
+  private void internalVisit(DependencyNode node) {
     this.nodeStack.push(node);
 
     if (this.targetFilter.include(node.getArtifact())) {
       this.cutOffDepth = this.nodeStack.size();
     }
-
-    return true;
   }
 
 
-  private boolean internalEndVisit(DependencyNode node) {
-    if (!isIncluded(node)) {
+  private boolean internalEndVisit(Artifact artifact, NodeResolution resolution) {
+    if (!isIncluded(artifact, resolution)) {
       return false;
     }
 
-    this.nodeStack.pop();
+    // Reuse the node that was created in visit()
+    DependencyNode node = this.nodeStack.pop();
 
     DependencyNode currentParent = this.nodeStack.peek();
     if (this.nodeStack.size() < this.cutOffDepth) {
       this.cutOffDepth = this.nodeStack.size();
 
+      if (this.prunedDependencies != null) {
+        node.setPrunedDependencies(this.prunedDependencies.size());
+      }
+
       if (currentParent != null) {
-        mergeWithExisting(node);
-        this.graphBuilder.addEdge(currentParent, node);
+        addEdge(currentParent, node);
       }
     }
 
+    this.prunedDependencies = null;
     return true;
   }
 
-  private boolean isIncluded(DependencyNode node) {
-    return this.globalFilter.include(node.getArtifact()) && this.includedResolutions.contains(node.getResolution());
+  /**
+   * Adds an edge between the given parent and the given node to the graph.
+   */
+  void addEdge(DependencyNode parent, DependencyNode node) {
+    mergeWithExisting(node);
+    this.graphBuilder.addEdge(parent, node);
+  }
+
+  private boolean isMaxDepthReached() {
+    // The root node is at depth 0
+    return this.maxDepth > 0 && this.nodeStack.size() > this.maxDepth;
+  }
+
+  private void collectGraphDependencies(List<org.apache.maven.shared.dependency.graph.DependencyNode> nodes, Set<String> ids) {
+    for (org.apache.maven.shared.dependency.graph.DependencyNode node : nodes) {
+      Artifact artifact = node.getArtifact();
+      if (this.globalFilter.include(artifact) && ids.add(artifact.getId())) {
+        collectGraphDependencies(node.getChildren(), ids);
+      }
+    }
+  }
+
+  private void collectTreeDependencies(List<org.apache.maven.shared.dependency.tree.DependencyNode> nodes, Set<String> ids) {
+    for (org.apache.maven.shared.dependency.tree.DependencyNode node : nodes) {
+      Artifact artifact = node.getArtifact();
+      if (node.getState() == org.apache.maven.shared.dependency.tree.DependencyNode.INCLUDED
+          && this.globalFilter.include(artifact) && ids.add(artifact.getId())) {
+        collectTreeDependencies(node.getChildren(), ids);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a node will be part of the graph. This check is done on the plain Maven artifact so that no
+   * {@link DependencyNode} needs to be created for excluded nodes.
+   */
+  private boolean isIncluded(Artifact artifact, NodeResolution resolution) {
+    return this.globalFilter.include(artifact) && this.includedResolutions.contains(resolution);
   }
 
   private void mergeWithExisting(DependencyNode node) {
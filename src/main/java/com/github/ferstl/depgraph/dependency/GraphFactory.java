@@ -15,17 +15,20 @@
  */
 package com.github.ferstl.depgraph.dependency;
 
+import java.io.IOException;
 import org.apache.maven.project.MavenProject;
 
 
 public interface GraphFactory {
 
   /**
-   * Creates a graph for the given {@link MavenProject}.
+   * Creates a graph for the given {@link MavenProject} and writes its String representation to the given output while
+   * it is formatted.
    *
    * @param project The maven project to create the graph for.
-   * @return The String representation of the created graph.
+   * @param output The output to write the graph to.
+   * @throws IOException In case the output cannot be written.
    * @throws DependencyGraphException In case that the graph cannot be created.
    */
-  String createGraph(MavenProject project);
+  void createGraph(MavenProject project, Appendable output) throws IOException;
 }
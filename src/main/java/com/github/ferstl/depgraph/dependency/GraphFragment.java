@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import com.github.ferstl.depgraph.graph.Edge;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.graph.Node;
+import com.github.ferstl.depgraph.graph.NodeRenderer;
+import com.github.ferstl.depgraph.metrics.Metrics;
+import com.google.common.base.Joiner;
+
+import static com.google.common.base.Strings.nullToEmpty;
+
+/**
+ * The resolved dependency graph of a single module in a compact binary form. Fragments are written by the
+ * {@code graph} goal and merged by the {@code aggregate} goal, so the aggregated graph can be created without resolving
+ * the dependencies of each module again.
+ * <p>
+ * The nodes of a fragment are sorted by their IDs, which contain the version and the scope of the artifacts. The edges
+ * refer to the nodes by their position and are sorted by the positions of their nodes. So the edges of each fragment
+ * are sorted by the IDs of their nodes as well, and multiple fragments can be merged with a k-way merge that adds each
+ * distinct edge only once.
+ * </p>
+ */
+public final class GraphFragment {
+
+  private static final int MAGIC = 0x44474652;
+  private static final int FORMAT_VERSION = 1;
+  private static final Joiner COLON_JOINER = Joiner.on(":").useForNull("");
+
+  /**
+   * Renders node IDs that identify the artifact including its version and scope. Builders using this renderer never
+   * merge different artifacts into the same node.
+   */
+  private static final NodeRenderer<DependencyNode> FULL_ID = new NodeRenderer<DependencyNode>() {
+
+    @Override
+    public String render(DependencyNode node) {
+      return fullId(node.getArtifact());
+    }
+  };
+
+  private final String configuration;
+  private final String[] nodeIds;
+  private final Artifact[] artifacts;
+  private final int[] edges;
+
+  private GraphFragment(String configuration, String[] nodeIds, Artifact[] artifacts, int[] edges) {
+    this.configuration = configuration;
+    this.nodeIds = nodeIds;
+    this.artifacts = artifacts;
+    this.edges = edges;
+  }
+
+  /**
+   * Creates a graph builder to collect the nodes and edges of a fragment.
+   *
+   * @return The graph builder.
+   */
+  public static GraphBuilder<DependencyNode> createGraphBuilder() {
+    return GraphBuilder.create(FULL_ID);
+  }
+
+  /**
+   * Creates a fragment from a graph builder that was created with {@link #createGraphBuilder()}.
+   *
+   * @param graphBuilder The graph builder.
+   * @param configuration Describes the configuration the fragment was created with, e.g. the filters. Fragments are
+   * only merged when they were created with the expected configuration.
+   * @return The fragment.
+   */
+  public static GraphFragment create(GraphBuilder<DependencyNode> graphBuilder, String configuration) {
+    List<Node<DependencyNode>> nodes = graphBuilder.getNodes();
+    Map<String, DependencyNode> nodesById = new HashMap<>(nodes.size() * 2);
+    for (Node<DependencyNode> node : nodes) {
+      nodesById.put(node.getNodeId(), node.getNodeObject());
+    }
+
+    String[] nodeIds = nodesById.keySet().toArray(new String[0]);
+    Arrays.sort(nodeIds);
+    Artifact[] artifacts = new Artifact[nodeIds.length];
+    Map<String, Integer> positions = new HashMap<>(nodeIds.length * 2);
+    for (int i = 0; i < nodeIds.length; i++) {
+      artifacts[i] = nodesById.get(nodeIds[i]).getArtifact();
+      positions.put(nodeIds[i], i);
+    }
+
+    // Combine the positions of both nodes in a single long, so the edges are sorted by their from and to nodes
+    Set<Edge> graphEdges = graphBuilder.getEdges();
+    long[] sortKeys = new long[graphEdges.size()];
+    int i = 0;
+    for (Edge edge : graphEdges) {
+      long from = positions.get(edge.getFromNodeId());
+      long to = positions.get(edge.getToNodeId());
+      sortKeys[i++] = from << 32 | to;
+    }
+    Arrays.sort(sortKeys);
+
+    int[] edges = new int[sortKeys.length * 2];
+    for (int j = 0; j < sortKeys.length; j++) {
+      edges[2 * j] = (int) (sortKeys[j] >>> 32);
+      edges[2 * j + 1] = (int) sortKeys[j];
+    }
+
+    return new GraphFragment(configuration, nodeIds, artifacts, edges);
+  }
+
+  /**
+   * Reads a fragment that was written with {@link #write(Path)}.
+   *
+   * @param file The fragment file.
+   * @return The fragment.
+   * @throws IOException In case the file cannot be read or is not a fragment file.
+   */
+  public static GraphFragment read(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a graph fragment: " + file);
+      }
+
+      int formatVersion = in.readInt();
+      if (formatVersion != FORMAT_VERSION) {
+        throw new IOException("Unsupported version " + formatVersion + " of graph fragment " + file);
+      }
+
+      String configuration = in.readUTF();
+      int nodeCount = in.readInt();
+      String[] nodeIds = new String[nodeCount];
+      Artifact[] artifacts = new Artifact[nodeCount];
+      for (int i = 0; i < nodeCount; i++) {
+        artifacts[i] = readArtifact(in);
+        nodeIds[i] = fullId(artifacts[i]);
+      }
+
+      int edgeCount = in.readInt();
+      int[] edges = new int[edgeCount * 2];
+      for (int i = 0; i < edges.length; i++) {
+        edges[i] = in.readInt();
+        if (edges[i] < 0 || edges[i] >= nodeCount) {
+          throw new IOException("Invalid node reference in graph fragment " + file);
+        }
+      }
+
+      return new GraphFragment(configuration, nodeIds, artifacts, edges);
+    } catch (EOFException e) {
+      throw new IOException("Truncated graph fragment: " + file, e);
+    }
+  }
+
+  /**
+   * Writes this fragment to the given file.
+   *
+   * @param file The fragment file.
+   * @throws IOException In case the file cannot be written.
+   */
+  public void write(Path file) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(this.configuration);
+
+      out.writeInt(this.artifacts.length);
+      for (Artifact artifact : this.artifacts) {
+        writeArtifact(artifact, out);
+      }
+
+      out.writeInt(this.edges.length / 2);
+      for (int position : this.edges) {
+        out.writeInt(position);
+      }
+    }
+  }
+
+  /**
+   * Merges the given fragments into a graph builder. Each distinct edge is added only once, so the merge takes time
+   * proportional to the total number of edges times the logarithm of the number of fragments. Nodes with the same ID
+   * are shared between the fragments. Like when visiting a dependency graph, the scopes of nodes that are merged
+   * because of the node ID renderer of the graph builder are combined.
+   *
+   * @param fragments The fragments.
+   * @param graphBuilder The graph builder.
+   */
+  public static void merge(List<GraphFragment> fragments, GraphBuilder<DependencyNode> graphBuilder) {
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.VISITING)) {
+      PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, fragments.size()));
+      for (GraphFragment fragment : fragments) {
+        if (fragment.edges.length > 0) {
+          cursors.add(new Cursor(fragment));
+        }
+      }
+
+      Map<String, DependencyNode> nodes = new HashMap<>();
+      String previousFromId = null;
+      String previousToId = null;
+      while (!cursors.isEmpty()) {
+        Cursor cursor = cursors.remove();
+        String fromId = cursor.getFromId();
+        String toId = cursor.getToId();
+
+        if (!fromId.equals(previousFromId) || !toId.equals(previousToId)) {
+          DependencyNode from = getNode(nodes, cursor.fragment, cursor.getFromPosition());
+          DependencyNode to = getNode(nodes, cursor.fragment, cursor.getToPosition());
+
+          to.merge(graphBuilder.getEffectiveNode(to));
+          graphBuilder.addEdge(from, to);
+
+          previousFromId = fromId;
+          previousToId = toId;
+        }
+
+        if (cursor.next()) {
+          cursors.add(cursor);
+        }
+      }
+    }
+  }
+
+  public String getConfiguration() {
+    return this.configuration;
+  }
+
+  /**
+   * Returns the number of edges in this fragment.
+   *
+   * @return The number of edges.
+   */
+  public int getEdgeCount() {
+    return this.edges.length / 2;
+  }
+
+  private static DependencyNode getNode(Map<String, DependencyNode> nodes, GraphFragment fragment, int position) {
+    String nodeId = fragment.nodeIds[position];
+    DependencyNode node = nodes.get(nodeId);
+    if (node == null) {
+      node = new DependencyNode(fragment.artifacts[position]);
+      nodes.put(nodeId, node);
+    }
+
+    return node;
+  }
+
+  private static String fullId(Artifact artifact) {
+    return COLON_JOINER.join(
+        artifact.getGroupId(),
+        artifact.getArtifactId(),
+        artifact.getVersion(),
+        artifact.getType(),
+        artifact.getClassifier(),
+        artifact.getScope());
+  }
+
+  private static void writeArtifact(Artifact artifact, DataOutputStream out) throws IOException {
+    out.writeUTF(nullToEmpty(artifact.getGroupId()));
+    out.writeUTF(nullToEmpty(artifact.getArtifactId()));
+    out.writeUTF(nullToEmpty(artifact.getVersion()));
+    out.writeUTF(nullToEmpty(artifact.getType()));
+    out.writeUTF(nullToEmpty(artifact.getClassifier()));
+    out.writeUTF(nullToEmpty(artifact.getScope()));
+    out.writeBoolean(artifact.isOptional());
+  }
+
+  private static Artifact readArtifact(DataInputStream in) throws IOException {
+    String groupId = in.readUTF();
+    String artifactId = in.readUTF();
+    String version = in.readUTF();
+    String type = in.readUTF();
+    String classifier = in.readUTF();
+    String scope = in.readUTF();
+    boolean optional = in.readBoolean();
+
+    return new DefaultArtifact(groupId, artifactId, VersionRange.createFromVersion(version), scope, type, classifier.isEmpty() ? null : classifier, new DefaultArtifactHandler(type), optional);
+  }
+
+  /**
+   * Position within the sorted edges of a fragment. Cursors are ordered by the node IDs of their current edge.
+   */
+  private static final class Cursor implements Comparable<Cursor> {
+
+    final GraphFragment fragment;
+    private int edge;
+
+    Cursor(GraphFragment fragment) {
+      this.fragment = fragment;
+    }
+
+    int getFromPosition() {
+      return this.fragment.edges[2 * this.edge];
+    }
+
+    int getToPosition() {
+      return this.fragment.edges[2 * this.edge + 1];
+    }
+
+    String getFromId() {
+      return this.fragment.nodeIds[getFromPosition()];
+    }
+
+    String getToId() {
+      return this.fragment.nodeIds[getToPosition()];
+    }
+
+    boolean next() {
+      this.edge++;
+      return 2 * this.edge < this.fragment.edges.length;
+    }
+
+    @Override
+    public int compareTo(Cursor other) {
+      int result = getFromId().compareTo(other.getFromId());
+      return result != 0 ? result : getToId().compareTo(other.getToId());
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import com.github.ferstl.depgraph.graph.Edge;
+import com.github.ferstl.depgraph.graph.Node;
+import com.github.ferstl.depgraph.graph.NodeClusterer;
+
+/**
+ * Creates a cluster for each group ID.
+ */
+public enum GroupIdClusterer implements NodeClusterer {
+  INSTANCE;
+
+  @Override
+  public Map<String, String> cluster(Collection<Node<?>> nodes, Collection<Edge> edges) {
+    Map<String, String> clusters = new HashMap<>();
+    for (Node<?> node : nodes) {
+      Object nodeObject = node.getNodeObject();
+      if (nodeObject instanceof DependencyNode) {
+        clusters.put(node.getNodeId(), ((DependencyNode) nodeObject).getArtifact().getGroupId());
+      }
+    }
+
+    return clusters;
+  }
+}
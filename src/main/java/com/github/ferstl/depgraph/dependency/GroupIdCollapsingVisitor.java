@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.Set;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+
+/**
+ * A {@link GraphBuildingVisitor} that creates a graph of group IDs. Instead of adding an edge for each visited
+ * dependency, the dependencies are mapped to their groups in a {@link GroupIdIndex}, which adds each edge between two
+ * groups only once.
+ */
+class GroupIdCollapsingVisitor extends GraphBuildingVisitor {
+
+  private final GraphBuilder<DependencyNode> graphBuilder;
+  private final GroupIdIndex groupIdIndex;
+
+  GroupIdCollapsingVisitor(GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter globalFilter, ArtifactFilter targetFilter, Set<NodeResolution> includedResolutions, GroupIdIndex groupIdIndex) {
+    super(graphBuilder, globalFilter, targetFilter, includedResolutions);
+    this.graphBuilder = graphBuilder;
+    this.groupIdIndex = groupIdIndex;
+  }
+
+  GroupIdCollapsingVisitor(GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter targetFilter, GroupIdIndex groupIdIndex) {
+    super(graphBuilder, targetFilter);
+    this.graphBuilder = graphBuilder;
+    this.groupIdIndex = groupIdIndex;
+  }
+
+  @Override
+  void addEdge(DependencyNode parent, DependencyNode node) {
+    this.groupIdIndex.addEdge(this.graphBuilder, parent, node);
+  }
+}
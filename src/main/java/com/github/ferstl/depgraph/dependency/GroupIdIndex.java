@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+
+/**
+ * Collapses dependencies to their group IDs (and scopes) while a graph is built. Each group gets an index when it is
+ * visited first and the edges between groups are stored in a bit set per group, so each edge between two groups is
+ * added to the {@link GraphBuilder} only once per {@link NodeResolution}. This avoids rendering node IDs, node names
+ * and edge names for every visited artifact. Edges within a group are omitted.
+ * <p>
+ * An instance must only be used with a single, non-concurrent graph builder. It can be shared by several visitors to
+ * collapse the dependency graphs of multiple modules into the same graph.
+ * </p>
+ */
+final class GroupIdIndex {
+
+  private static final String MERGED_SCOPES = "";
+  private static final int RESOLUTIONS = NodeResolution.values().length;
+
+  private final boolean mergeScopes;
+
+  /**
+   * Group indices by group ID and scope.
+   */
+  private final Map<String, Map<String, Integer>> indices;
+  private final List<DependencyNode> groupNodes;
+  private final List<BitSet> groupEdges;
+  private final BitSet groupsInGraph;
+
+  /**
+   * Creates a new index.
+   *
+   * @param mergeScopes {@code true} to collapse all scopes of a group into one node, {@code false} to create a node for
+   * each group ID and scope.
+   */
+  GroupIdIndex(boolean mergeScopes) {
+    this.mergeScopes = mergeScopes;
+    this.indices = new HashMap<>();
+    this.groupNodes = new ArrayList<>();
+    this.groupEdges = new ArrayList<>();
+    this.groupsInGraph = new BitSet();
+  }
+
+  /**
+   * Adds an edge between the groups of the given nodes to the given graph builder unless the two groups are already
+   * connected by an edge with the same resolution. The edge is rendered with the given target node, the graph contains
+   * the first node of each group.
+   *
+   * @param graphBuilder The graph builder.
+   * @param from The parent node.
+   * @param to The child node.
+   */
+  void addEdge(GraphBuilder<DependencyNode> graphBuilder, DependencyNode from, DependencyNode to) {
+    int fromIndex = getIndex(from);
+    int toIndex = getIndex(to);
+    DependencyNode toGroupNode = this.groupNodes.get(toIndex);
+
+    if (this.mergeScopes && !toGroupNode.getScopes().contains(to.getArtifact().getScope())) {
+      toGroupNode.merge(to);
+      if (this.groupsInGraph.get(toIndex)) {
+        // Update the name of the node
+        graphBuilder.addNode(toGroupNode);
+      }
+    }
+
+    BitSet successors = this.groupEdges.get(fromIndex);
+    int edgeIndex = toIndex * RESOLUTIONS + to.getResolution().ordinal();
+    if (fromIndex == toIndex || successors.get(edgeIndex)) {
+      return;
+    }
+
+    successors.set(edgeIndex);
+    to.merge(toGroupNode);
+    graphBuilder.addEdge(this.groupNodes.get(fromIndex), to);
+    // Replace the rendered node with the group node
+    graphBuilder.addNode(toGroupNode);
+    this.groupsInGraph.set(fromIndex);
+    this.groupsInGraph.set(toIndex);
+  }
+
+  private int getIndex(DependencyNode node) {
+    String groupId = node.getArtifact().getGroupId();
+    String scope = this.mergeScopes ? MERGED_SCOPES : node.getArtifact().getScope();
+
+    Map<String, Integer> indicesByScope = this.indices.get(groupId);
+    if (indicesByScope == null) {
+      indicesByScope = new HashMap<>(4);
+      this.indices.put(groupId, indicesByScope);
+    }
+
+    Integer index = indicesByScope.get(scope);
+    if (index == null) {
+      index = this.groupNodes.size();
+      indicesByScope.put(scope, index);
+      this.groupNodes.add(node);
+      this.groupEdges.add(new BitSet());
+    }
+
+    return index;
+  }
+}
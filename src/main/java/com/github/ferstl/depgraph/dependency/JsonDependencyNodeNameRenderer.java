@@ -42,6 +42,7 @@ public class JsonDependencyNodeNameRenderer implements NodeRenderer<DependencyNo
         "    , \"artifactId\": \"" + node.getArtifact().getArtifactId() + "\"",
         "    , \"groupId\": \"" + node.getArtifact().getGroupId() + "\"",
         "    , \"version\": \"" + node.getArtifact().getVersion() + "\"",
+        node.getPrunedDependencies() > 0 ? "    , \"prunedDependencies\": " + node.getPrunedDependencies() : null,
         "    }");
   }
 }
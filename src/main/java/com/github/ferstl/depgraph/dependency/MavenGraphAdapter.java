@@ -15,6 +15,7 @@
  */
 package com.github.ferstl.depgraph.dependency;
 
+import java.util.EnumSet;
 import java.util.Set;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
@@ -24,25 +25,32 @@ import org.apache.maven.shared.dependency.graph.DependencyGraphBuilderException;
 import org.apache.maven.shared.dependency.tree.DependencyTreeBuilder;
 import org.apache.maven.shared.dependency.tree.DependencyTreeBuilderException;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.metrics.Metrics;
 
 import static java.util.EnumSet.allOf;
 
 /**
- * Adapter for {@link DependencyGraphBuilder} and {@link DependencyTreeBuilder}.
+ * Adapter for {@link DependencyGraphBuilder}, {@link DependencyTreeBuilder} and {@link DependencyGraphCache}.
  */
 public final class MavenGraphAdapter {
 
   private final DependencyGraphBuilder dependencyGraphBuilder;
   private final DependencyTreeBuilder dependencyTreeBuilder;
+  private final DependencyGraphCache dependencyGraphCache;
   private final ArtifactRepository artifactRepository;
   private final ArtifactFilter targetFilter;
   private final Set<NodeResolution> includedResolutions;
+  private int maxDepth;
+  private boolean showPrunedDependencies;
+  private GraphBuilder<DependencyNode> fragmentGraphBuilder;
+  private GroupIdIndex groupIdIndex;
 
   public MavenGraphAdapter(DependencyGraphBuilder builder, ArtifactFilter targetFilter) {
     this.dependencyGraphBuilder = builder;
     this.targetFilter = targetFilter;
     this.includedResolutions = allOf(NodeResolution.class);
     this.dependencyTreeBuilder = null;
+    this.dependencyGraphCache = null;
     this.artifactRepository = null;
   }
 
@@ -52,12 +60,71 @@ public final class MavenGraphAdapter {
     this.targetFilter = targetFilter;
     this.includedResolutions = includedResolutions;
     this.dependencyGraphBuilder = null;
+    this.dependencyGraphCache = null;
+  }
+
+  /**
+   * Creates an adapter that takes the dependency graphs from the given cache. Since the cached graphs are resolved
+   * without filter, the global filter is applied while visiting them.
+   *
+   * @param dependencyGraphCache The cache.
+   * @param targetFilter The target filter.
+   */
+  public MavenGraphAdapter(DependencyGraphCache dependencyGraphCache, ArtifactFilter targetFilter) {
+    this.dependencyGraphCache = dependencyGraphCache;
+    this.targetFilter = targetFilter;
+    this.includedResolutions = allOf(NodeResolution.class);
+    this.dependencyGraphBuilder = null;
+    this.dependencyTreeBuilder = null;
+    this.artifactRepository = null;
+  }
+
+  /**
+   * Limits the depth of the created graphs. Transitive dependencies below this depth will not be visited.
+   *
+   * @param maxDepth The max depth or {@code 0} for unlimited depth.
+   */
+  public void setMaxDepth(int maxDepth) {
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * Shows the number of transitive dependencies that were pruned because of the max depth on the pruned nodes.
+   *
+   * @param showPrunedDependencies {@code true} to show the number of pruned dependencies.
+   */
+  public void setShowPrunedDependencies(boolean showPrunedDependencies) {
+    this.showPrunedDependencies = showPrunedDependencies;
+  }
+
+  /**
+   * Additionally visits each resolved dependency graph with the given graph builder, which is used to create a
+   * {@link GraphFragment}. The fragment contains only the resolved dependencies and ignores the max depth, so it has
+   * the same content as the graph of the module within an aggregated graph.
+   *
+   * @param fragmentGraphBuilder A graph builder created with {@link GraphFragment#createGraphBuilder()}.
+   */
+  public void setFragmentGraphBuilder(GraphBuilder<DependencyNode> fragmentGraphBuilder) {
+    this.fragmentGraphBuilder = fragmentGraphBuilder;
+  }
+
+  /**
+   * Collapses the dependencies to their group IDs while the graphs are visited, so that each edge between two groups
+   * is added only once. All graphs built by this adapter must use the same graph builder, which must not be a
+   * {@link com.github.ferstl.depgraph.graph.ConcurrentGraphBuilder}.
+   *
+   * @param mergeScopes {@code true} to create a single node for all scopes of a group.
+   */
+  public void collapseGroupIds(boolean mergeScopes) {
+    this.groupIdIndex = new GroupIdIndex(mergeScopes);
   }
 
   public void buildDependencyGraph(MavenProject project, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder) {
 
     if (this.dependencyGraphBuilder != null) {
       createGraph(project, globalFilter, graphBuilder);
+    } else if (this.dependencyGraphCache != null) {
+      createGraphFromCache(project, globalFilter, graphBuilder);
     } else {
       createTree(project, globalFilter, graphBuilder);
     }
@@ -65,26 +132,71 @@ public final class MavenGraphAdapter {
 
   private void createGraph(MavenProject project, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder) throws DependencyGraphException {
     org.apache.maven.shared.dependency.graph.DependencyNode root;
-    try {
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.RESOLUTION)) {
       root = this.dependencyGraphBuilder.buildDependencyGraph(project, globalFilter);
     } catch (DependencyGraphBuilderException e) {
       throw new DependencyGraphException(e);
     }
 
-    GraphBuildingVisitor visitor = new GraphBuildingVisitor(graphBuilder, this.targetFilter);
-    root.accept(visitor);
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.VISITING)) {
+      GraphBuildingVisitor visitor = this.groupIdIndex != null
+          ? new GroupIdCollapsingVisitor(graphBuilder, this.targetFilter, this.groupIdIndex)
+          : new GraphBuildingVisitor(graphBuilder, this.targetFilter);
+      visitor.setMaxDepth(this.maxDepth);
+      visitor.setShowPrunedDependencies(this.showPrunedDependencies);
+      root.accept(visitor);
+
+      if (this.fragmentGraphBuilder != null) {
+        root.accept(createFragmentVisitor(globalFilter));
+      }
+    }
+  }
+
+  private void createGraphFromCache(MavenProject project, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder) throws DependencyGraphException {
+    org.apache.maven.shared.dependency.graph.DependencyNode root = this.dependencyGraphCache.getDependencyGraph(project);
+
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.VISITING)) {
+      GraphBuildingVisitor visitor = createVisitor(graphBuilder, globalFilter);
+      visitor.setMaxDepth(this.maxDepth);
+      visitor.setShowPrunedDependencies(this.showPrunedDependencies);
+      root.accept(visitor);
+
+      if (this.fragmentGraphBuilder != null) {
+        root.accept(createFragmentVisitor(globalFilter));
+      }
+    }
   }
 
   private void createTree(MavenProject project, ArtifactFilter globalFilter, GraphBuilder<DependencyNode> graphBuilder) throws DependencyGraphException {
     org.apache.maven.shared.dependency.tree.DependencyNode root;
-    try {
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.RESOLUTION)) {
       root = this.dependencyTreeBuilder.buildDependencyTree(project, this.artifactRepository, globalFilter);
     } catch (DependencyTreeBuilderException e) {
       throw new DependencyGraphException(e);
     }
 
-    // Due to MNG-3236, we need to filter the artifacts on our own.
-    GraphBuildingVisitor visitor = new GraphBuildingVisitor(graphBuilder, globalFilter, this.targetFilter, this.includedResolutions);
-    root.accept(visitor);
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.VISITING)) {
+      // Due to MNG-3236, we need to filter the artifacts on our own.
+      GraphBuildingVisitor visitor = createVisitor(graphBuilder, globalFilter);
+      visitor.setMaxDepth(this.maxDepth);
+      visitor.setShowPrunedDependencies(this.showPrunedDependencies);
+      root.accept(visitor);
+
+      if (this.fragmentGraphBuilder != null) {
+        root.accept(createFragmentVisitor(globalFilter));
+      }
+    }
+  }
+
+  private GraphBuildingVisitor createVisitor(GraphBuilder<DependencyNode> graphBuilder, ArtifactFilter globalFilter) {
+    if (this.groupIdIndex != null) {
+      return new GroupIdCollapsingVisitor(graphBuilder, globalFilter, this.targetFilter, this.includedResolutions, this.groupIdIndex);
+    }
+
+    return new GraphBuildingVisitor(graphBuilder, globalFilter, this.targetFilter, this.includedResolutions);
+  }
+
+  private GraphBuildingVisitor createFragmentVisitor(ArtifactFilter globalFilter) {
+    return new GraphBuildingVisitor(this.fragmentGraphBuilder, globalFilter, this.targetFilter, EnumSet.of(NodeResolution.INCLUDED));
   }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.project.MavenProject;
+import com.github.ferstl.depgraph.graph.Edge;
+import com.github.ferstl.depgraph.graph.Node;
+import com.github.ferstl.depgraph.graph.NodeClusterer;
+
+/**
+ * Creates a cluster for each module of the reactor. Each module is the first node of its cluster. All other nodes are
+ * assigned to the cluster of the closest module that depends on them. Nodes that don't have a module as (transitive)
+ * dependent are not clustered.
+ */
+public class ModuleClusterer implements NodeClusterer {
+
+  /**
+   * The artifact IDs of the modules by their {@code groupId:artifactId}.
+   */
+  private final Map<String, String> modules;
+
+  public ModuleClusterer(Collection<MavenProject> modules) {
+    this.modules = new HashMap<>();
+    for (MavenProject module : modules) {
+      this.modules.put(module.getGroupId() + ":" + module.getArtifactId(), module.getArtifactId());
+    }
+  }
+
+  @Override
+  public Map<String, String> cluster(Collection<Node<?>> nodes, Collection<Edge> edges) {
+    Map<String, String> clusters = new HashMap<>();
+    Queue<String> queue = new ArrayDeque<>();
+    for (Node<?> node : nodes) {
+      String module = getModule(node);
+      if (module != null) {
+        clusters.put(node.getNodeId(), module);
+        queue.add(node.getNodeId());
+      }
+    }
+
+    if (queue.isEmpty()) {
+      return clusters;
+    }
+
+    Map<String, List<String>> successors = new HashMap<>();
+    for (Edge edge : edges) {
+      List<String> nodeSuccessors = successors.get(edge.getFromNodeId());
+      if (nodeSuccessors == null) {
+        nodeSuccessors = new ArrayList<>();
+        successors.put(edge.getFromNodeId(), nodeSuccessors);
+      }
+      nodeSuccessors.add(edge.getToNodeId());
+    }
+
+    // Breadth-first search starting at all modules, so each node gets the cluster of the closest module
+    Set<String> visited = new HashSet<>(queue);
+    while (!queue.isEmpty()) {
+      String nodeId = queue.remove();
+      List<String> nodeSuccessors = successors.get(nodeId);
+      if (nodeSuccessors == null) {
+        continue;
+      }
+
+      String module = clusters.get(nodeId);
+      for (String successor : nodeSuccessors) {
+        if (visited.add(successor)) {
+          clusters.put(successor, module);
+          queue.add(successor);
+        }
+      }
+    }
+
+    return clusters;
+  }
+
+  private String getModule(Node<?> node) {
+    Object nodeObject = node.getNodeObject();
+    if (!(nodeObject instanceof DependencyNode)) {
+      return null;
+    }
+
+    Artifact artifact = ((DependencyNode) nodeObject).getArtifact();
+    return this.modules.get(artifact.getGroupId() + ":" + artifact.getArtifactId());
+  }
+}
@@ -76,6 +76,19 @@ public enum NodeIdRenderers implements NodeRenderer<DependencyNode> {
           artifact.getType(),
           artifact.getClassifier());
     }
+  },
+
+  /**
+   * Renders {@code groupId:artifactId:version} and appends the classifier if there is one. Unlike the other
+   * renderers, the result does not depend on the graph's configuration.
+   */
+  COORDINATES {
+    @Override
+    public String render(DependencyNode node) {
+      Artifact artifact = node.getArtifact();
+      String coordinates = COLON_JOINER.join(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+      return artifact.hasClassifier() ? coordinates + ":" + artifact.getClassifier() : coordinates;
+    }
   };
 
   private static final Joiner COLON_JOINER = Joiner.on(":").useForNull("");
@@ -54,6 +54,10 @@ public class PumlDependencyNodeNameRenderer implements NodeRenderer<DependencyNo
       name.append(artifact.getVersion());
     }
 
+    if (node.getPrunedDependencies() > 0) {
+      name.append(" (+").append(node.getPrunedDependencies()).append(" transitive)");
+    }
+
     nodeInfo.withLabel(name.toString())
         .withStereotype(node.getArtifact().getScope());
 
@@ -15,6 +15,7 @@
  */
 package com.github.ferstl.depgraph.dependency;
 
+import java.io.IOException;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.project.MavenProject;
@@ -36,7 +37,7 @@ public class SimpleGraphFactory implements GraphFactory {
   }
 
   @Override
-  public String createGraph(MavenProject project) {
+  public void createGraph(MavenProject project, Appendable output) throws IOException {
     this.graphBuilder.graphName(project.getArtifactId());
     this.mavenGraphAdapter.buildDependencyGraph(project, this.globalFilter, this.graphBuilder);
 
@@ -46,7 +47,7 @@ public class SimpleGraphFactory implements GraphFactory {
       this.graphBuilder.addNode(new DependencyNode(artifact));
     }
 
-    return this.graphBuilder.toString();
+    this.graphBuilder.writeGraph(output);
   }
 
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import com.github.ferstl.depgraph.metrics.Metrics;
+
+/**
+ * Table of interned and pre-parsed versions. Each distinct version string gets an ID and is parsed into a
+ * {@link ComparableVersion} only once. The results of comparisons are cached by the pair of version IDs, so comparing
+ * the same versions again is a single lookup. Graphs contain only a few thousand distinct versions, which are compared
+ * many times when the versions of conflicting artifacts are sorted.
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class VersionTable {
+
+  private final Map<String, Integer> ids;
+  private final List<ComparableVersion> versions;
+
+  /**
+   * Comparison results by the pair of version IDs. The smaller ID is in the upper half of the key, so each pair is
+   * stored only once.
+   */
+  private final Map<Long, Integer> comparisons;
+
+  private final Comparator<String> comparator;
+
+  VersionTable() {
+    this.ids = new HashMap<>();
+    this.versions = new ArrayList<>();
+    this.comparisons = new HashMap<>();
+    this.comparator = new Comparator<String>() {
+
+      @Override
+      public int compare(String version1, String version2) {
+        int result = VersionTable.this.compare(getId(version1), getId(version2));
+        // Keep equivalent versions like 1.0 and 1.0.0 apart
+        return result != 0 ? result : version1.compareTo(version2);
+      }
+    };
+  }
+
+  /**
+   * Returns the ID of the given version. Versions are parsed when they get their ID.
+   *
+   * @param version The version.
+   * @return The ID of the version.
+   */
+  int getId(String version) {
+    Integer id = this.ids.get(version);
+    if (id == null) {
+      id = this.versions.size();
+      this.ids.put(version, id);
+      this.versions.add(new ComparableVersion(version));
+    }
+
+    return id;
+  }
+
+  /**
+   * Compares the versions with the given IDs according to Maven's version ordering.
+   *
+   * @param id1 ID of the first version.
+   * @param id2 ID of the second version.
+   * @return A negative number, zero or a positive number if the first version is smaller than, equivalent to or
+   * greater than the second version.
+   */
+  int compare(int id1, int id2) {
+    if (id1 == id2) {
+      return 0;
+    }
+
+    long key = id1 < id2 ? (long) id1 << 32 | id2 : (long) id2 << 32 | id1;
+    Integer result = this.comparisons.get(key);
+    Metrics.cacheAccess(Metrics.CacheType.VERSION_COMPARISON, result != null);
+    if (result == null) {
+      result = Integer.signum(this.versions.get(Math.min(id1, id2)).compareTo(this.versions.get(Math.max(id1, id2))));
+      this.comparisons.put(key, result);
+    }
+
+    return id1 < id2 ? result : -result;
+  }
+
+  /**
+   * Returns a comparator that orders version strings according to Maven's version ordering. Equivalent versions with
+   * different strings are ordered by their strings.
+   *
+   * @return The comparator.
+   */
+  Comparator<String> comparator() {
+    return this.comparator;
+  }
+}
@@ -51,7 +51,7 @@ abstract class AbstractNode {
         .fontColor(defaultFont.color);
   }
 
-  DotAttributeBuilder createAttributes(String groupId, String artifactId, String version, String scopes, boolean includeNodeAttributes) {
+  DotAttributeBuilder createAttributes(String groupId, String artifactId, String version, String scopes, String additionalText, boolean includeNodeAttributes) {
     Font groupIdFont = this.groupIdFont;
     Font artifactIdFont = this.artifactIdFont;
     Font versionFont = this.versionFont;
@@ -83,6 +83,12 @@ abstract class AbstractNode {
             .color(scopeFont.color)
             .size(scopeFont.size)
             .text(scopes)
+            .smartNewLine()
+            .font()
+            .name(scopeFont.name)
+            .color(scopeFont.color)
+            .size(scopeFont.size)
+            .text(additionalText)
             .build());
   }
 
@@ -18,11 +18,16 @@ package com.github.ferstl.depgraph.dependency.style;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.maven.artifact.Artifact;
 import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -33,11 +38,32 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.github.ferstl.depgraph.dependency.NodeResolution;
 import com.github.ferstl.depgraph.dependency.style.resource.StyleResource;
 import com.github.ferstl.depgraph.graph.dot.DotAttributeBuilder;
+import com.github.ferstl.depgraph.metrics.Metrics;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 
 import static com.github.ferstl.depgraph.dependency.NodeResolution.INCLUDED;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class StyleConfiguration {
 
+  private static final int MAX_CACHED_CONFIGURATIONS = 16;
+  private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+  private static final ObjectReader CONFIG_READER = OBJECT_MAPPER.readerFor(StyleConfiguration.class);
+
+  /**
+   * Process-wide cache of loaded configurations. Keys are hashes over the names and contents of the loaded resources.
+   */
+  private static final Cache<HashCode, StyleConfiguration> CONFIGURATION_CACHE = CacheBuilder.newBuilder()
+      .maximumSize(MAX_CACHED_CONFIGURATIONS)
+      .build();
+
   private final Graph graph = new Graph();
   private AbstractNode defaultNode = new Box();
   private final Edge defaultEdge = new Edge();
@@ -47,20 +73,76 @@ public class StyleConfiguration {
   private final Map<StyleKey, Edge> edgeNodeStylesTo = new LinkedHashMap<>();
   private final Map<NodeResolution, Edge> edgeResolutionStyles = new LinkedHashMap<>();
 
+  // Caches for the style matching. The same artifacts occur many times within a graph and - when the configuration is
+  // shared - within several graphs. These caches may be accessed concurrently.
+  @JsonIgnore
+  private final ConcurrentMap<StyleKey, AbstractNode> nodeStyleCache = new ConcurrentHashMap<>();
+  @JsonIgnore
+  private final ConcurrentMap<StyleKey, Optional<Edge>> edgeStyleFromCache = new ConcurrentHashMap<>();
+  @JsonIgnore
+  private final ConcurrentMap<StyleKey, Optional<Edge>> edgeStyleToCache = new ConcurrentHashMap<>();
+
 
   public static StyleConfiguration load(StyleResource mainConfig, StyleResource... overrides) {
-    ObjectMapper mapper = createObjectMapper();
+    List<StyleResource> resources = Lists.asList(mainConfig, overrides);
+    return load(resources, readResources(resources));
+  }
+
+  /**
+   * Same as {@link #load(StyleResource, StyleResource...)} but returns the configuration from a process-wide cache if
+   * resources with the same names and contents have been loaded before. This avoids parsing and merging the same style
+   * resources again for each module of a multi-module build. The returned configuration is shared.
+   *
+   * @param mainConfig The main configuration.
+   * @param overrides Configurations overriding the main configuration.
+   * @return The (possibly cached) style configuration.
+   */
+  public static StyleConfiguration loadCached(StyleResource mainConfig, StyleResource... overrides) {
+    List<StyleResource> resources = Lists.asList(mainConfig, overrides);
+    List<byte[]> contents = readResources(resources);
+
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (int i = 0; i < resources.size(); i++) {
+      byte[] content = contents.get(i);
+      hasher.putString(resources.get(i).toString(), UTF_8)
+          .putInt(content.length)
+          .putBytes(content);
+    }
+    HashCode key = hasher.hash();
+
+    StyleConfiguration styleConfiguration = CONFIGURATION_CACHE.getIfPresent(key);
+    Metrics.cacheAccess(Metrics.CacheType.STYLE_CONFIGURATION, styleConfiguration != null);
+    if (styleConfiguration == null) {
+      styleConfiguration = load(resources, contents);
+      CONFIGURATION_CACHE.put(key, styleConfiguration);
+    }
+
+    return styleConfiguration;
+  }
 
-    ObjectReader reader = mapper.readerFor(StyleConfiguration.class);
-    StyleConfiguration styleConfiguration = readConfig(reader, mainConfig);
-    for (StyleResource override : overrides) {
-      StyleConfiguration overrideConfig = readConfig(reader, override);
+  private static StyleConfiguration load(List<StyleResource> resources, List<byte[]> contents) {
+    StyleConfiguration styleConfiguration = readConfig(resources.get(0), contents.get(0));
+    for (int i = 1; i < resources.size(); i++) {
+      StyleConfiguration overrideConfig = readConfig(resources.get(i), contents.get(i));
       styleConfiguration.merge(overrideConfig);
     }
 
     return styleConfiguration;
   }
 
+  private static List<byte[]> readResources(List<StyleResource> resources) {
+    List<byte[]> contents = new ArrayList<>(resources.size());
+    for (StyleResource resource : resources) {
+      try (InputStream is = resource.openStream()) {
+        contents.add(ByteStreams.toByteArray(is));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    return contents;
+  }
+
   private static ObjectMapper createObjectMapper() {
     SimpleModule module = new SimpleModule()
         .addKeySerializer(NodeResolution.class, new NodeResolutionSerializer())
@@ -73,9 +155,9 @@ public class StyleConfiguration {
         .setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
   }
 
-  private static StyleConfiguration readConfig(ObjectReader reader, StyleResource config) {
-    try (InputStream is = config.openStream()) {
-      return reader.readValue(is);
+  private static StyleConfiguration readConfig(StyleResource config, byte[] content) {
+    try {
+      return CONFIG_READER.readValue(content);
     } catch (JsonProcessingException e) {
       String message = String.format("Unable to read style configuration %s.\nLocation: line %s, column %s\nDetails: %s",
           config, e.getLocation().getLineNr(), e.getLocation().getColumnNr(), e.getOriginalMessage());
@@ -109,23 +191,17 @@ public class StyleConfiguration {
     // Specific edge style-from win over node resolution
     if (from != null) {
       StyleKey artifactKeyFrom = StyleKey.create(from.getGroupId(), from.getArtifactId(), from.getScope(), from.getType(), from.getVersion());
-      for (Entry<StyleKey, Edge> entry : this.edgeNodeStylesFrom.entrySet()) {
-        StyleKey styleKey = entry.getKey();
-        if (styleKey.matches(artifactKeyFrom)) {
-          edge = entry.getValue();
-          break;
-        }
+      Optional<Edge> fromEdge = findEdgeStyle(artifactKeyFrom, this.edgeNodeStylesFrom, this.edgeStyleFromCache);
+      if (fromEdge.isPresent()) {
+        edge = fromEdge.get();
       }
     }
     // Specific edge style-from to over node resolution
     if (to != null) {
       StyleKey artifactKeyTo = StyleKey.create(to.getGroupId(), to.getArtifactId(), to.getScope(), to.getType(), to.getVersion());
-      for (Entry<StyleKey, Edge> entry : this.edgeNodeStylesTo.entrySet()) {
-        StyleKey styleKey = entry.getKey();
-        if (styleKey.matches(artifactKeyTo)) {
-          edge = entry.getValue();
-          break;
-        }
+      Optional<Edge> toEdge = findEdgeStyle(artifactKeyTo, this.edgeNodeStylesTo, this.edgeStyleToCache);
+      if (toEdge.isPresent()) {
+        edge = toEdge.get();
       }
     }
 
@@ -133,31 +209,73 @@ public class StyleConfiguration {
   }
 
   public DotAttributeBuilder nodeAttributes(String groupId, String artifactId, String version, String type, String scopes, String effectiveScope) {
+    return nodeAttributes(groupId, artifactId, version, type, scopes, effectiveScope, null);
+  }
+
+  /**
+   * Creates the attributes of a node. The style of the node is selected by its coordinates only, the additional text is
+   * shown below the scopes.
+   *
+   * @param groupId Group ID or {@code null} to not show it.
+   * @param artifactId Artifact ID or {@code null} to not show it.
+   * @param version Version or {@code null} to not show it.
+   * @param type Type of the artifact.
+   * @param scopes Scopes to show.
+   * @param effectiveScope Scope used to select the style.
+   * @param additionalText Additional text, e.g. the number of pruned dependencies, or {@code null}.
+   * @return The node attributes.
+   */
+  public DotAttributeBuilder nodeAttributes(String groupId, String artifactId, String version, String type, String scopes, String effectiveScope, String additionalText) {
     StyleKey artifactKey = StyleKey.create(groupId, artifactId, effectiveScope, type, version);
-    AbstractNode node = this.defaultNode;
+    AbstractNode node = this.nodeStyleCache.get(artifactKey);
+    Metrics.cacheAccess(Metrics.CacheType.NODE_STYLE, node != null);
 
-    for (Entry<StyleKey, AbstractNode> entry : this.nodeStyles.entrySet()) {
-      StyleKey styleKey = entry.getKey();
-      if (styleKey.matches(artifactKey)) {
-        node = entry.getValue();
-        break;
+    if (node == null) {
+      node = this.defaultNode;
+      for (Entry<StyleKey, AbstractNode> entry : this.nodeStyles.entrySet()) {
+        StyleKey styleKey = entry.getKey();
+        if (styleKey.matches(artifactKey)) {
+          node = entry.getValue();
+          break;
+        }
       }
+
+      this.nodeStyleCache.put(artifactKey, node);
     }
 
-    return node.createAttributes(groupId, artifactId, version, scopes, node != this.defaultNode);
+    return node.createAttributes(groupId, artifactId, version, scopes, additionalText, node != this.defaultNode);
   }
 
   public String toJson() {
-    ObjectMapper mapper = createObjectMapper();
     try {
       StringWriter w = new StringWriter();
-      mapper.writerWithDefaultPrettyPrinter().writeValue(w, this);
+      OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(w, this);
       return w.toString();
     } catch (IOException e) {
       throw new RuntimeException(e.getMessage(), e);
     }
   }
 
+  private static Optional<Edge> findEdgeStyle(StyleKey artifactKey, Map<StyleKey, Edge> edgeStyles, ConcurrentMap<StyleKey, Optional<Edge>> cache) {
+    Optional<Edge> edge = cache.get(artifactKey);
+    Metrics.cacheAccess(Metrics.CacheType.EDGE_STYLE, edge != null);
+    if (edge != null) {
+      return edge;
+    }
+
+    edge = Optional.absent();
+    for (Entry<StyleKey, Edge> entry : edgeStyles.entrySet()) {
+      StyleKey styleKey = entry.getKey();
+      if (styleKey.matches(artifactKey)) {
+        edge = Optional.of(entry.getValue());
+        break;
+      }
+    }
+
+    cache.put(artifactKey, edge);
+    return edge;
+  }
+
   private void merge(StyleConfiguration other) {
     this.graph.merge(other.graph);
     // We have to deal with subclasses here. Hence the double merge.
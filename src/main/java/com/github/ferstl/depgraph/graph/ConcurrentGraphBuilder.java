@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link GraphBuilder} that can be filled by multiple threads at the same time. In contrast to the sequential
+ * builder, the first node added for a node ID stays in the graph and all nodes added later with the same ID are merged
+ * into it using a {@link NodeMerger}. The merger may be called concurrently for the same node. Each thread buffers its
+ * edges on its own. Node names and edge names are rendered when the graph is created, which must not happen before all
+ * threads finished filling the builder. The output is always {@link #sortOutput() sorted} so that the created graph
+ * does not depend on the order in which the threads added the nodes and edges.
+ *
+ * @param <T> Type of the graph nodes.
+ */
+public final class ConcurrentGraphBuilder<T> extends GraphBuilder<T> {
+
+  private final NodeRenderer<? super T> nodeIdRenderer;
+  private final NodeMerger<? super T> nodeMerger;
+  private final ConcurrentMap<String, T> nodes;
+  private final Queue<List<PendingEdge<T>>> edgeBuffers;
+  private final ThreadLocal<List<PendingEdge<T>>> edgeBuffer;
+
+  /**
+   * Creates a new concurrent builder.
+   *
+   * @param nodeIdRenderer Renderer for the node IDs.
+   * @param nodeMerger Merger for nodes with the same ID.
+   * @param <T> Type of the graph nodes.
+   * @return The concurrent builder.
+   */
+  public static <T> ConcurrentGraphBuilder<T> create(NodeRenderer<? super T> nodeIdRenderer, NodeMerger<? super T> nodeMerger) {
+    if (nodeMerger == null) {
+      throw new NullPointerException("Node merger must not be null");
+    }
+
+    return new ConcurrentGraphBuilder<>(nodeIdRenderer, nodeMerger);
+  }
+
+  private ConcurrentGraphBuilder(NodeRenderer<? super T> nodeIdRenderer, NodeMerger<? super T> nodeMerger) {
+    super(nodeIdRenderer);
+    this.nodeIdRenderer = nodeIdRenderer;
+    this.nodeMerger = nodeMerger;
+    this.nodes = new ConcurrentHashMap<>();
+    this.edgeBuffers = new ConcurrentLinkedQueue<>();
+    this.edgeBuffer = new ThreadLocal<List<PendingEdge<T>>>() {
+
+      @Override
+      protected List<PendingEdge<T>> initialValue() {
+        List<PendingEdge<T>> buffer = new ArrayList<>();
+        ConcurrentGraphBuilder.this.edgeBuffers.add(buffer);
+        return buffer;
+      }
+    };
+
+    sortOutput();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.nodes.isEmpty();
+  }
+
+  @Override
+  public ConcurrentGraphBuilder<T> addNode(T node) {
+    T existingNode = this.nodes.putIfAbsent(this.nodeIdRenderer.render(node), node);
+    if (existingNode != null && existingNode != node) {
+      this.nodeMerger.merge(existingNode, node);
+    }
+
+    return this;
+  }
+
+  @Override
+  public ConcurrentGraphBuilder<T> addEdge(T from, T to) {
+    if (from != null && to != null) {
+      addNode(from);
+      addNode(to);
+      this.edgeBuffer.get().add(new PendingEdge<>(from, to));
+    }
+
+    return this;
+  }
+
+  @Override
+  public T getEffectiveNode(T node) {
+    T existingNode = this.nodes.get(this.nodeIdRenderer.render(node));
+    return existingNode != null ? existingNode : node;
+  }
+
+  /**
+   * Reduces this graph to the nodes matching the given filter and all nodes that depend on them. Must not be called
+   * before all threads finished filling this builder.
+   *
+   * @param targets Filter selecting the target nodes.
+   * @return This builder.
+   */
+  @Override
+  public ConcurrentGraphBuilder<T> reduceToDependents(NodeFilter<? super T> targets) {
+    consolidate();
+    super.reduceToDependents(targets);
+    this.nodes.keySet().retainAll(getNodeIds());
+
+    return this;
+  }
+
+  /**
+   * Returns the nodes of this graph. Must not be called before all threads finished filling this builder.
+   *
+   * @return The nodes of this graph.
+   */
+  @Override
+  public List<Node<T>> getNodes() {
+    consolidate();
+    return super.getNodes();
+  }
+
+  /**
+   * Returns the edges of this graph. Must not be called before all threads finished filling this builder.
+   *
+   * @return The edges of this graph.
+   */
+  @Override
+  public Set<Edge> getEdges() {
+    consolidate();
+    return super.getEdges();
+  }
+
+  @Override
+  public void writeGraph(Appendable output) throws IOException {
+    consolidate();
+    super.writeGraph(output);
+  }
+
+  /**
+   * Renders the nodes and the buffered edges. The nodes are rendered again each time since they may have been merged
+   * with other nodes in the meantime.
+   */
+  private void consolidate() {
+    for (Map.Entry<String, T> entry : this.nodes.entrySet()) {
+      putNode(entry.getKey(), entry.getValue());
+    }
+
+    for (List<PendingEdge<T>> buffer : this.edgeBuffers) {
+      for (PendingEdge<T> pendingEdge : buffer) {
+        safelyAddEdge(pendingEdge.from, pendingEdge.to);
+      }
+      buffer.clear();
+    }
+  }
+
+  private static final class PendingEdge<T> {
+
+    final T from;
+    final T to;
+
+    PendingEdge(T from, T to) {
+      this.from = from;
+      this.to = to;
+    }
+  }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dominator tree of a graph. A node <em>dominates</em> another node if every path from the root of the graph to the
+ * other node passes through it. The root is a virtual node with an edge to each node without incoming edges, i.e. to
+ * the project in a module's graph or to the modules without dependents in the graph of a reactor. Nodes that are only
+ * reachable through cycles are attached to the virtual root as well.
+ * <p>
+ * The tree is computed with the algorithm of Lengauer and Tarjan on int-indexed adjacency arrays, which runs in
+ * {@code O(m log n)} for a graph with {@code n} nodes and {@code m} edges.
+ * </p>
+ */
+public final class DominatorTree {
+
+  private static final int NONE = -1;
+
+  private final List<String> nodeIds;
+  private final Map<String, Integer> nodeIndexes;
+  private final int[] immediateDominators;
+  private final boolean[] dominators;
+
+  private DominatorTree(List<String> nodeIds, Map<String, Integer> nodeIndexes, int[] immediateDominators) {
+    this.nodeIds = nodeIds;
+    this.nodeIndexes = nodeIndexes;
+    this.immediateDominators = immediateDominators;
+    this.dominators = new boolean[nodeIds.size()];
+    for (int idom : immediateDominators) {
+      if (idom != NONE) {
+        this.dominators[idom] = true;
+      }
+    }
+  }
+
+  /**
+   * Computes the dominator tree of the given graph. Edges referring to unknown nodes are ignored.
+   *
+   * @param nodes The nodes of the graph.
+   * @param edges The edges of the graph.
+   * @return The dominator tree.
+   */
+  public static DominatorTree create(Collection<Node<?>> nodes, Collection<Edge> edges) {
+    List<String> nodeIds = new ArrayList<>(nodes.size());
+    Map<String, Integer> nodeIndexes = new HashMap<>();
+    for (Node<?> node : nodes) {
+      if (!nodeIndexes.containsKey(node.getNodeId())) {
+        nodeIndexes.put(node.getNodeId(), nodeIds.size());
+        nodeIds.add(node.getNodeId());
+      }
+    }
+
+    // Parallel edges don't affect the dominators and self references are skipped
+    int n = nodeIds.size();
+    int[] edgeSources = new int[edges.size()];
+    int[] edgeTargets = new int[edges.size()];
+    int edgeCount = 0;
+    for (Edge edge : edges) {
+      Integer from = nodeIndexes.get(edge.getFromNodeId());
+      Integer to = nodeIndexes.get(edge.getToNodeId());
+      if (from != null && to != null && !from.equals(to)) {
+        edgeSources[edgeCount] = from;
+        edgeTargets[edgeCount] = to;
+        edgeCount++;
+      }
+    }
+
+    Adjacency successors = new Adjacency(n, edgeSources, edgeTargets, edgeCount);
+    Adjacency predecessors = new Adjacency(n, edgeTargets, edgeSources, edgeCount);
+    int[] immediateDominators = new LengauerTarjan(n, successors, predecessors).compute();
+
+    return new DominatorTree(Collections.unmodifiableList(nodeIds), nodeIndexes, immediateDominators);
+  }
+
+  /**
+   * Returns the immediate dominator of the given node, i.e. the closest node through which every path to the given
+   * node passes.
+   *
+   * @param nodeId ID of the node.
+   * @return ID of the immediate dominator or {@code null} if the node is a root of the graph or is unknown.
+   */
+  public String getImmediateDominator(String nodeId) {
+    Integer index = this.nodeIndexes.get(nodeId);
+    if (index == null || this.immediateDominators[index] == NONE) {
+      return null;
+    }
+
+    return this.nodeIds.get(this.immediateDominators[index]);
+  }
+
+  /**
+   * Returns all dominators of the given node, starting with its immediate dominator and ending with the root it is
+   * reachable from.
+   *
+   * @param nodeId ID of the node.
+   * @return IDs of the dominators or an empty list if the node is a root of the graph or is unknown.
+   */
+  public List<String> getDominators(String nodeId) {
+    Integer index = this.nodeIndexes.get(nodeId);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+
+    List<String> result = new ArrayList<>();
+    for (int current = this.immediateDominators[index]; current != NONE; current = this.immediateDominators[current]) {
+      result.add(this.nodeIds.get(current));
+    }
+
+    return result;
+  }
+
+  /**
+   * Indicates whether the given node is a single point of dependency, i.e. whether it is not a root of the graph and
+   * immediately dominates at least one other node.
+   *
+   * @param nodeId ID of the node.
+   * @return {@code true} if every path to some other node passes through the given node.
+   */
+  public boolean isDominator(String nodeId) {
+    Integer index = this.nodeIndexes.get(nodeId);
+    return index != null && this.dominators[index] && this.immediateDominators[index] != NONE;
+  }
+
+  /**
+   * Returns the nodes that are {@link #isDominator(String) dominators} in the order of the nodes of the graph.
+   *
+   * @return IDs of the dominators.
+   */
+  public Set<String> getDominatorNodes() {
+    Set<String> result = new LinkedHashSet<>();
+    for (String nodeId : this.nodeIds) {
+      if (isDominator(nodeId)) {
+        result.add(nodeId);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the IDs of the nodes in this tree.
+   *
+   * @return The node IDs in the order of the nodes of the graph.
+   */
+  public List<String> getNodeIds() {
+    return this.nodeIds;
+  }
+
+  /**
+   * Adjacency lists in compressed form: the neighbors of node {@code i} are
+   * {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}.
+   */
+  private static final class Adjacency {
+
+    final int[] offsets;
+    final int[] targets;
+
+    Adjacency(int n, int[] sources, int[] targets, int edgeCount) {
+      this.offsets = new int[n + 1];
+      this.targets = new int[edgeCount];
+      for (int i = 0; i < edgeCount; i++) {
+        this.offsets[sources[i] + 1]++;
+      }
+      for (int i = 0; i < n; i++) {
+        this.offsets[i + 1] += this.offsets[i];
+      }
+
+      int[] positions = Arrays.copyOf(this.offsets, n);
+      for (int i = 0; i < edgeCount; i++) {
+        this.targets[positions[sources[i]]++] = targets[i];
+      }
+    }
+
+    int degree(int node) {
+      return this.offsets[node + 1] - this.offsets[node];
+    }
+  }
+
+  /**
+   * The algorithm of Lengauer and Tarjan with simple path compression. The virtual root has the index {@code n}, all
+   * vertices are identified by their index and all recursions are replaced with explicit stacks so that deep graphs
+   * don't overflow the call stack.
+   */
+  private static final class LengauerTarjan {
+
+    private final int n;
+    private final int root;
+    private final Adjacency successors;
+    private final Adjacency predecessors;
+
+    // DFS numbering
+    private final int[] preorder;
+    private final int[] vertex;
+    private final int[] parent;
+    private final int[] cursor;
+    private int count;
+
+    // semi-dominators, forest and buckets
+    private final int[] semi;
+    private final int[] ancestor;
+    private final int[] label;
+    private final int[] bucketHead;
+    private final int[] bucketNext;
+    private final int[] idom;
+    private final int[] stack;
+
+    LengauerTarjan(int n, Adjacency successors, Adjacency predecessors) {
+      this.n = n;
+      this.root = n;
+      this.successors = successors;
+      this.predecessors = predecessors;
+
+      int size = n + 1;
+      this.preorder = new int[size];
+      this.vertex = new int[size];
+      this.parent = new int[size];
+      this.cursor = Arrays.copyOf(successors.offsets, size);
+      this.semi = new int[size];
+      this.ancestor = new int[size];
+      this.label = new int[size];
+      this.bucketHead = new int[size];
+      this.bucketNext = new int[size];
+      this.idom = new int[size];
+      this.stack = new int[size];
+    }
+
+    int[] compute() {
+      numberVertices();
+
+      for (int i = this.count - 1; i > 0; i--) {
+        int w = this.vertex[i];
+        int parentOfW = this.parent[w];
+
+        if (parentOfW == this.root) {
+          // Edge from the virtual root
+          this.semi[w] = 0;
+        }
+        for (int j = this.predecessors.offsets[w]; j < this.predecessors.offsets[w + 1]; j++) {
+          int v = this.predecessors.targets[j];
+          int u = eval(v);
+          if (this.semi[u] < this.semi[w]) {
+            this.semi[w] = this.semi[u];
+          }
+        }
+
+        int semiVertex = this.vertex[this.semi[w]];
+        this.bucketNext[w] = this.bucketHead[semiVertex];
+        this.bucketHead[semiVertex] = w;
+        this.ancestor[w] = parentOfW;
+
+        for (int v = this.bucketHead[parentOfW]; v != NONE; v = this.bucketNext[v]) {
+          int u = eval(v);
+          this.idom[v] = this.semi[u] < this.semi[v] ? u : parentOfW;
+        }
+        this.bucketHead[parentOfW] = NONE;
+      }
+
+      for (int i = 1; i < this.count; i++) {
+        int w = this.vertex[i];
+        if (this.idom[w] != this.vertex[this.semi[w]]) {
+          this.idom[w] = this.idom[this.idom[w]];
+        }
+      }
+
+      int[] result = new int[this.n];
+      for (int i = 0; i < this.n; i++) {
+        result[i] = this.idom[i] == this.root ? NONE : this.idom[i];
+      }
+      return result;
+    }
+
+    /**
+     * Numbers the vertices in DFS preorder, starting at the virtual root. The root's children are the nodes without
+     * predecessors, followed by all nodes that were not reached from them.
+     */
+    private void numberVertices() {
+      Arrays.fill(this.preorder, NONE);
+      Arrays.fill(this.ancestor, NONE);
+      Arrays.fill(this.bucketHead, NONE);
+      for (int i = 0; i <= this.n; i++) {
+        this.label[i] = i;
+      }
+
+      visit(this.root);
+      for (int i = 0; i < this.n; i++) {
+        if (this.predecessors.degree(i) == 0) {
+          this.parent[i] = this.root;
+          depthFirstSearch(i);
+        }
+      }
+      for (int i = 0; i < this.n; i++) {
+        if (this.preorder[i] == NONE) {
+          this.parent[i] = this.root;
+          depthFirstSearch(i);
+        }
+      }
+    }
+
+    private void depthFirstSearch(int start) {
+      int top = 0;
+      this.stack[top++] = start;
+      visit(start);
+      while (top > 0) {
+        int v = this.stack[top - 1];
+        if (this.cursor[v] < this.successors.offsets[v + 1]) {
+          int w = this.successors.targets[this.cursor[v]++];
+          if (this.preorder[w] == NONE) {
+            this.parent[w] = v;
+            visit(w);
+            this.stack[top++] = w;
+          }
+        } else {
+          top--;
+        }
+      }
+    }
+
+    private void visit(int v) {
+      this.preorder[v] = this.count;
+      this.semi[v] = this.count;
+      this.vertex[this.count] = v;
+      this.count++;
+    }
+
+    /**
+     * Returns the vertex with the minimal semi-dominator on the forest path from {@code v} to its root, excluding the
+     * root itself.
+     */
+    private int eval(int v) {
+      if (this.ancestor[v] == NONE) {
+        return v;
+      }
+
+      compress(v);
+      return this.label[v];
+    }
+
+    private void compress(int v) {
+      int top = 0;
+      for (int current = v; this.ancestor[this.ancestor[current]] != NONE; current = this.ancestor[current]) {
+        this.stack[top++] = current;
+      }
+
+      while (top > 0) {
+        int current = this.stack[--top];
+        int ancestorOfCurrent = this.ancestor[current];
+        if (this.semi[this.label[ancestorOfCurrent]] < this.semi[this.label[current]]) {
+          this.label[current] = this.label[ancestorOfCurrent];
+        }
+        this.ancestor[current] = this.ancestor[ancestorOfCurrent];
+      }
+    }
+  }
+}
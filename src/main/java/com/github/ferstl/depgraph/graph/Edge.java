@@ -22,11 +22,14 @@ public final class Edge {
   private final String fromNodeId;
   private final String toNodeId;
   private final String name;
+  private final int hashCode;
 
   public Edge(String fromNodeId, String toNodeId, String name) {
     this.fromNodeId = fromNodeId;
     this.toNodeId = toNodeId;
     this.name = name;
+    // Edges are hashed several times while building a graph, so calculate the hash code only once
+    this.hashCode = Objects.hash(fromNodeId, toNodeId, name);
   }
 
   public String getFromNodeId() {
@@ -47,14 +50,15 @@ public final class Edge {
     if (!(o instanceof Edge)) { return false; }
 
     Edge edge = (Edge) o;
-    return Objects.equals(this.fromNodeId, edge.fromNodeId)
+    return this.hashCode == edge.hashCode
+        && Objects.equals(this.fromNodeId, edge.fromNodeId)
         && Objects.equals(this.toNodeId, edge.toNodeId)
         && Objects.equals(this.name, edge.name);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(this.fromNodeId, this.toNodeId, this.name);
+    return this.hashCode;
   }
 
   @Override
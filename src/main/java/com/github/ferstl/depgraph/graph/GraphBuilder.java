@@ -15,39 +15,57 @@
  */
 package com.github.ferstl.depgraph.graph;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import com.github.ferstl.depgraph.graph.dot.DotAttributeBuilder;
 import com.github.ferstl.depgraph.graph.dot.DotGraphFormatter;
+import com.github.ferstl.depgraph.metrics.Metrics;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 
 /**
  * A builder to create <a href="http://www.graphviz.org/doc/info/lang.html">DOT</a> strings by defining edges between
  * Nodes. The builder allows some customizations including custom {@link NodeRenderer}s and
  * {@link EdgeRenderer}s.
+ * <p>
+ * This builder is not thread-safe. Use a {@link ConcurrentGraphBuilder} to fill a graph from multiple threads.
+ * </p>
  *
  * @param <T> Type of the graph nodes.
  */
-public final class GraphBuilder<T> {
+public class GraphBuilder<T> {
 
   private final NodeRenderer<? super T> nodeIdRenderer;
   private final Map<String, Node<T>> nodeDefinitions;
-  private final Set<Edge> edges;
+  private Set<Edge> edges;
 
   private String graphName;
   private GraphFormatter graphFormatter;
   private NodeRenderer<? super T> nodeNameRenderer;
   private EdgeRenderer<? super T> edgeRenderer;
   private boolean omitSelfReferences;
+  private boolean sortOutput;
+  // Rendering a single node or edge is too fast for a metrics timer
+  private long stylingTime;
 
   public static <T> GraphBuilder<T> create(NodeRenderer<? super T> nodeIdRenderer) {
     return new GraphBuilder<>(nodeIdRenderer);
   }
 
-  private GraphBuilder(NodeRenderer<? super T> nodeIdRenderer) {
+  GraphBuilder(NodeRenderer<? super T> nodeIdRenderer) {
     this.nodeIdRenderer = nodeIdRenderer;
     this.nodeDefinitions = new LinkedHashMap<>();
     this.edges = new LinkedHashSet<>();
@@ -82,6 +100,47 @@ public final class GraphBuilder<T> {
     return this;
   }
 
+  /**
+   * Sorts the nodes by their IDs and the edges by the IDs of their nodes when the graph is created. Without sorting,
+   * the nodes and edges appear in the order in which they were added.
+   *
+   * @return This builder.
+   */
+  public GraphBuilder<T> sortOutput() {
+    this.sortOutput = true;
+    return this;
+  }
+
+  /**
+   * Keeps at most the given number of edges in memory. When the graph has more edges, they are written to temporary
+   * files in the given directory and merged while the graph is formatted. The nodes are always kept in memory. Once
+   * edges have been written to files, the graph is always {@link #sortOutput() sorted}. Formatters that cluster the
+   * nodes or highlight dominators read the edges once more and keep their own adjacency lists in memory. The files are
+   * deleted by {@link #deleteSpilledEdges()}. This method must be called before any edge is added.
+   *
+   * @param maxEdgesInMemory The maximum number of edges in memory.
+   * @param directory Directory for the temporary files.
+   * @return This builder.
+   */
+  public GraphBuilder<T> spillEdges(int maxEdgesInMemory, Path directory) {
+    if (!this.edges.isEmpty()) {
+      throw new IllegalStateException("Edges have already been added");
+    }
+
+    this.edges = new SpillingEdgeSet(maxEdgesInMemory, directory);
+    return this;
+  }
+
+  /**
+   * Deletes the temporary files of {@link #spillEdges(int, Path) spilled} edges. The graph does not contain any edges
+   * afterwards.
+   */
+  public void deleteSpilledEdges() {
+    if (this.edges instanceof SpillingEdgeSet) {
+      this.edges.clear();
+    }
+  }
+
   public GraphBuilder<T> graphFormatter(GraphFormatter formatter) {
     this.graphFormatter = formatter;
     return this;
@@ -98,10 +157,7 @@ public final class GraphBuilder<T> {
    * @return This builder.
    */
   public GraphBuilder<T> addNode(T node) {
-    String nodeId = this.nodeIdRenderer.render(node);
-    String nodeName = this.nodeNameRenderer.render(node);
-    this.nodeDefinitions.put(nodeId, new Node<>(nodeId, nodeName, node));
-
+    putNode(this.nodeIdRenderer.render(node), node);
     return this;
   }
 
@@ -118,7 +174,6 @@ public final class GraphBuilder<T> {
     if (from != null && to != null) {
       addNode(from);
       addNode(to);
-
       safelyAddEdge(from, to);
     }
 
@@ -140,29 +195,195 @@ public final class GraphBuilder<T> {
     return node;
   }
 
-  @Override
-  public String toString() {
+  /**
+   * Reduces this graph to the nodes matching the given filter and all nodes that depend on them, directly or
+   * transitively. The reduction builds an inverted adjacency index once and runs a breadth-first search on it, so the
+   * result is the minimal subgraph containing all paths that lead to the matching nodes.
+   *
+   * @param targets Filter selecting the target nodes.
+   * @return This builder.
+   */
+  public GraphBuilder<T> reduceToDependents(NodeFilter<? super T> targets) {
+    ListMultimap<String, Edge> incomingEdges = ArrayListMultimap.create();
+    for (Edge edge : this.edges) {
+      incomingEdges.put(edge.getToNodeId(), edge);
+    }
+
+    Set<String> reachedNodeIds = new HashSet<>();
+    Set<Edge> reachedEdges = new HashSet<>();
+    Queue<String> queue = new ArrayDeque<>();
+    for (Node<T> node : this.nodeDefinitions.values()) {
+      if (targets.include(node.nodeObject) && reachedNodeIds.add(node.getNodeId())) {
+        queue.add(node.getNodeId());
+      }
+    }
+
+    while (!queue.isEmpty()) {
+      for (Edge edge : incomingEdges.get(queue.remove())) {
+        reachedEdges.add(edge);
+        if (reachedNodeIds.add(edge.getFromNodeId())) {
+          queue.add(edge.getFromNodeId());
+        }
+      }
+    }
+
+    this.nodeDefinitions.keySet().retainAll(reachedNodeIds);
+    this.edges.retainAll(reachedEdges);
+
+    return this;
+  }
+
+  /**
+   * Returns the nodes of this graph in the order in which they were added.
+   *
+   * @return The nodes of this graph.
+   */
+  public List<Node<T>> getNodes() {
+    return ImmutableList.copyOf(this.nodeDefinitions.values());
+  }
+
+  /**
+   * Returns the edges of this graph in the order in which they were added.
+   *
+   * @return The edges of this graph.
+   */
+  public Set<Edge> getEdges() {
+    return ImmutableSet.copyOf(this.edges);
+  }
+
+  /**
+   * Formats this graph and writes it to the given output while it is formatted.
+   *
+   * @param output Output to write the formatted graph to.
+   * @throws IOException If the output cannot be written.
+   */
+  public void writeGraph(Appendable output) throws IOException {
+    if (this.sortOutput || isSpilled()) {
+      sort();
+    }
+
     // Work around some generics restrictions
     ImmutableList.Builder<Node<?>> nodeListBuilder = ImmutableList.builder();
     for (Node<?> node : this.nodeDefinitions.values()) {
       nodeListBuilder.add(node);
     }
     ImmutableList<Node<?>> nodeList = nodeListBuilder.build();
-    ImmutableSet<Edge> edgeSet = ImmutableSet.copyOf(this.edges);
+    // Spilled edges are streamed from their files into the formatter
+    Collection<Edge> edgeSet = isSpilled() ? this.edges : ImmutableSet.copyOf(this.edges);
+
+    Metrics.addTime(Metrics.Phase.STYLING, this.stylingTime);
+    this.stylingTime = 0;
+    Metrics.count(Metrics.Counter.NODES, nodeList.size());
+    try (Metrics.Timer timer = Metrics.start(Metrics.Phase.FORMATTING)) {
+      this.graphFormatter.format(this.graphName, nodeList, edgeSet, output);
+      // Spilled edges are counted while the formatter iterates them
+      timer.graphSize(nodeList.size(), edgeSet.size());
+    }
+    Metrics.count(Metrics.Counter.EDGES, edgeSet.size());
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder graph = new StringBuilder();
+    try {
+      writeGraph(graph);
+    } catch (IOException e) {
+      // A StringBuilder does not throw IOExceptions
+      throw new IllegalStateException(e);
+    }
+
+    return graph.toString();
+  }
+
+  /**
+   * Renders the name of the given node and adds it to the graph, replacing a node with the same ID.
+   */
+  void putNode(String nodeId, T node) {
+    long start = System.nanoTime();
+    String nodeName = this.nodeNameRenderer.render(node);
+    this.stylingTime += System.nanoTime() - start;
+    this.nodeDefinitions.put(nodeId, new Node<>(nodeId, nodeName, node));
+  }
+
+  /**
+   * Returns a live view of the IDs of all nodes in the graph.
+   */
+  Set<String> getNodeIds() {
+    return this.nodeDefinitions.keySet();
+  }
+
+  /**
+   * Sorts the nodes by their IDs and the edges by the positions of their nodes. The node IDs are compared only once.
+   * Each edge gets a sort key that combines the positions of its nodes in a single {@code long}, so sorting the edges
+   * does not need to compare any strings unless there are multiple edges between the same nodes.
+   */
+  private void sort() {
+    String[] nodeIds = this.nodeDefinitions.keySet().toArray(new String[0]);
+    Arrays.sort(nodeIds);
+
+    Map<String, Integer> positions = new HashMap<>(nodeIds.length * 2);
+    Map<String, Node<T>> sortedNodes = new LinkedHashMap<>(nodeIds.length * 2);
+    for (int i = 0; i < nodeIds.length; i++) {
+      positions.put(nodeIds[i], i);
+      sortedNodes.put(nodeIds[i], this.nodeDefinitions.get(nodeIds[i]));
+    }
+
+    this.nodeDefinitions.clear();
+    this.nodeDefinitions.putAll(sortedNodes);
+    if (isSpilled()) {
+      // Spilled edges are already sorted
+      return;
+    }
 
-    return this.graphFormatter.format(this.graphName, nodeList, edgeSet);
+    SortableEdge[] sortableEdges = new SortableEdge[this.edges.size()];
+    int i = 0;
+    for (Edge edge : this.edges) {
+      long from = positions.get(edge.getFromNodeId());
+      long to = positions.get(edge.getToNodeId());
+      sortableEdges[i++] = new SortableEdge(from << 32 | to, edge);
+    }
+    Arrays.sort(sortableEdges);
+
+    this.edges.clear();
+    for (SortableEdge sortableEdge : sortableEdges) {
+      this.edges.add(sortableEdge.edge);
+    }
   }
 
-  private void safelyAddEdge(T fromNode, T toNode) {
+  private boolean isSpilled() {
+    return this.edges instanceof SpillingEdgeSet && ((SpillingEdgeSet) this.edges).isSpilled();
+  }
+
+  void safelyAddEdge(T fromNode, T toNode) {
     String fromNodeId = this.nodeIdRenderer.render(fromNode);
     String toNodeId = this.nodeIdRenderer.render(toNode);
 
     if (!this.omitSelfReferences || !fromNodeId.equals(toNodeId)) {
-      Edge edge = new Edge(fromNodeId, toNodeId, this.edgeRenderer.render(fromNode, toNode));
+      long start = System.nanoTime();
+      String edgeName = this.edgeRenderer.render(fromNode, toNode);
+      this.stylingTime += System.nanoTime() - start;
+      Edge edge = new Edge(fromNodeId, toNodeId, edgeName);
       this.edges.add(edge);
     }
   }
 
+  private static final class SortableEdge implements Comparable<SortableEdge> {
+
+    final long sortKey;
+    final Edge edge;
+
+    SortableEdge(long sortKey, Edge edge) {
+      this.sortKey = sortKey;
+      this.edge = edge;
+    }
+
+    @Override
+    public int compareTo(SortableEdge other) {
+      int result = Long.compare(this.sortKey, other.sortKey);
+      return result != 0 ? result : this.edge.getName().compareTo(other.edge.getName());
+    }
+  }
+
   private static <T> EdgeRenderer<T> createDefaultEdgeRenderer() {
     return new EdgeRenderer<T>() {
 
@@ -15,6 +15,7 @@
  */
 package com.github.ferstl.depgraph.graph;
 
+import java.io.IOException;
 import java.util.Collection;
 
 /**
@@ -22,5 +23,15 @@ import java.util.Collection;
  */
 public interface GraphFormatter {
 
-  String format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges);
+  /**
+   * Formats the graph and appends it to the given output while it is formatted. The formatted graph does not need to
+   * fit into memory as a whole if the output writes it to a file or a process.
+   *
+   * @param graphName Name of the graph.
+   * @param nodes Nodes of the graph.
+   * @param edges Edges of the graph.
+   * @param output Output to append the formatted graph to.
+   * @throws IOException If the output cannot be written.
+   */
+  void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable output) throws IOException;
 }
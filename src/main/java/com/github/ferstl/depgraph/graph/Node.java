@@ -37,6 +37,10 @@ public final class Node<T> {
     return this.nodeName;
   }
 
+  public T getNodeObject() {
+    return this.nodeObject;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Assigns the nodes of a graph to clusters. Graph formatters supporting clusters render the nodes of each cluster as
+ * a group.
+ */
+public interface NodeClusterer {
+
+  /**
+   * Assigns the given nodes to clusters.
+   *
+   * @param nodes The nodes of the graph.
+   * @param edges The edges of the graph.
+   * @return The cluster names by node ID. Nodes that don't belong to a cluster are not contained.
+   */
+  Map<String, String> cluster(Collection<Node<?>> nodes, Collection<Edge> edges);
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+/**
+ * Selects nodes of a graph, e.g. the target nodes of {@link GraphBuilder#reduceToDependents(NodeFilter)}.
+ *
+ * @param <T> Type of the graph nodes.
+ */
+public interface NodeFilter<T> {
+
+  /**
+   * Indicates whether the given node is selected by this filter.
+   *
+   * @param node The node.
+   * @return {@code true} if the node is selected.
+   */
+  boolean include(T node);
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+/**
+ * Merges nodes with the same ID in graph builders that keep the first node added for each ID.
+ *
+ * @param <T> Type of the graph nodes.
+ */
+public interface NodeMerger<T> {
+
+  /**
+   * Merges the given node into the node that is already part of the graph.
+   *
+   * @param existingNode The node that is part of the graph.
+   * @param node The node with the same ID that is merged into the existing node.
+   */
+  void merge(T existingNode, T node);
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A set of edges that keeps at most a given number of edges in memory. When this limit is reached, the edges in memory
+ * are sorted and written to a temporary file, a so called run, and removed from memory. Iterating the set merges all
+ * runs and the edges in memory with a k-way merge, which returns each distinct edge only once. The merged edges are
+ * sorted by the IDs of their nodes and by their names, which is the same order as in a
+ * {@link GraphBuilder#sortOutput() sorted} graph. As long as no run was written, the edges are returned in insertion
+ * order.
+ * <p>
+ * Once edges have been written to runs, {@link #add(Edge)} cannot tell whether an edge is already contained and always
+ * returns {@code true}. The merge counts the distinct edges, so the size of this set is known after it was iterated
+ * completely. Otherwise, {@link #size()} has to merge the runs. The runs are deleted by {@link #clear()}, which also
+ * closes the runs of iterators that were not iterated completely.
+ * </p>
+ */
+final class SpillingEdgeSet extends AbstractSet<Edge> {
+
+  private static final Comparator<Edge> EDGE_ORDER = new Comparator<Edge>() {
+
+    @Override
+    public int compare(Edge edge1, Edge edge2) {
+      int result = edge1.getFromNodeId().compareTo(edge2.getFromNodeId());
+      if (result == 0) {
+        result = edge1.getToNodeId().compareTo(edge2.getToNodeId());
+      }
+
+      return result != 0 ? result : compareNames(edge1.getName(), edge2.getName());
+    }
+
+    private int compareNames(String name1, String name2) {
+      if (name1 == null || name2 == null) {
+        return name1 == null ? (name2 == null ? 0 : -1) : 1;
+      }
+
+      return name1.compareTo(name2);
+    }
+  };
+
+  private final int maxEdgesInMemory;
+  private final Path directory;
+  private final Set<Edge> edges;
+  private final List<Path> runs;
+  private final Set<MergingIterator> openIterators;
+
+  /**
+   * Size of this set or {@code -1} if it needs to be determined.
+   */
+  private int size;
+  /**
+   * Incremented on each modification, so that a merge knows whether its count is still the size of this set.
+   */
+  private int modifications;
+
+  SpillingEdgeSet(int maxEdgesInMemory, Path directory) {
+    if (maxEdgesInMemory < 1) {
+      throw new IllegalArgumentException("The number of edges in memory must be positive: " + maxEdgesInMemory);
+    }
+
+    this.maxEdgesInMemory = maxEdgesInMemory;
+    this.directory = directory;
+    this.edges = new LinkedHashSet<>();
+    this.runs = new ArrayList<>();
+    this.openIterators = new HashSet<>();
+  }
+
+  /**
+   * Indicates whether edges have been written to runs.
+   *
+   * @return {@code true} if the edges are returned in sorted order.
+   */
+  boolean isSpilled() {
+    return !this.runs.isEmpty();
+  }
+
+  @Override
+  public boolean add(Edge edge) {
+    if (!this.edges.add(edge)) {
+      return false;
+    }
+
+    this.size = -1;
+    this.modifications++;
+    if (this.edges.size() >= this.maxEdgesInMemory) {
+      spill();
+    }
+
+    return true;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    // Runs are never empty
+    return !isSpilled() && this.edges.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    if (!isSpilled()) {
+      return this.edges.size();
+    }
+
+    if (this.size < 0) {
+      int size = 0;
+      try (MergingIterator iterator = new MergingIterator(this.runs, sortedEdgesInMemory())) {
+        for (; iterator.hasNext(); iterator.next()) {
+          size++;
+        }
+      }
+      this.size = size;
+    }
+
+    return this.size;
+  }
+
+  @Override
+  public Iterator<Edge> iterator() {
+    if (!isSpilled()) {
+      return this.edges.iterator();
+    }
+
+    return new MergingIterator(this.runs, sortedEdgesInMemory());
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> edgesToRetain) {
+    if (!isSpilled()) {
+      return this.edges.retainAll(edgesToRetain);
+    }
+
+    // Merge the current runs and write the retained edges to new runs
+    List<Path> oldRuns = new ArrayList<>(this.runs);
+    MergingIterator iterator = new MergingIterator(oldRuns, sortedEdgesInMemory());
+    this.runs.clear();
+    this.edges.clear();
+    this.size = -1;
+    this.modifications++;
+
+    boolean changed = false;
+    try {
+      while (iterator.hasNext()) {
+        Edge edge = iterator.next();
+        if (edgesToRetain.contains(edge)) {
+          add(edge);
+        } else {
+          changed = true;
+        }
+      }
+    } catch (RuntimeException e) {
+      iterator.close();
+      deleteRuns(oldRuns, e);
+      throw e;
+    }
+
+    iterator.close();
+    deleteRuns(oldRuns, null);
+    return changed;
+  }
+
+  /**
+   * Removes all edges and deletes the runs. The runs are not registered for deletion on exit because each registration
+   * stays in memory until the JVM terminates.
+   */
+  @Override
+  public void clear() {
+    // Open runs cannot be deleted on some platforms
+    for (MergingIterator iterator : new ArrayList<>(this.openIterators)) {
+      iterator.close();
+    }
+
+    List<Path> runs = new ArrayList<>(this.runs);
+    this.edges.clear();
+    this.runs.clear();
+    deleteRuns(runs, null);
+    this.size = -1;
+    this.modifications++;
+  }
+
+  private List<Edge> sortedEdgesInMemory() {
+    List<Edge> sortedEdges = new ArrayList<>(this.edges);
+    Collections.sort(sortedEdges, EDGE_ORDER);
+    return sortedEdges;
+  }
+
+  private void spill() {
+    try {
+      Files.createDirectories(this.directory);
+      Path run = Files.createTempFile(this.directory, "edges", ".run");
+
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+        out.writeInt(this.edges.size());
+        for (Edge edge : sortedEdgesInMemory()) {
+          out.writeUTF(edge.getFromNodeId());
+          out.writeUTF(edge.getToNodeId());
+          out.writeBoolean(edge.getName() != null);
+          if (edge.getName() != null) {
+            out.writeUTF(edge.getName());
+          }
+        }
+      }
+
+      this.runs.add(run);
+      this.edges.clear();
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write edges to " + this.directory, e);
+    }
+  }
+
+  /**
+   * Deletes the given runs. A run that cannot be deleted does not prevent the deletion of the other runs. If there is
+   * already a failure, the exceptions are added to it, so that they don't hide it. Otherwise, an
+   * {@link IllegalStateException} is thrown after all runs were processed.
+   */
+  private static void deleteRuns(List<Path> runs, Throwable failure) {
+    IllegalStateException deleteFailure = null;
+    for (Path run : runs) {
+      try {
+        Files.deleteIfExists(run);
+      } catch (IOException e) {
+        if (failure != null) {
+          failure.addSuppressed(e);
+        } else if (deleteFailure == null) {
+          deleteFailure = new IllegalStateException("Unable to delete " + run, e);
+        } else {
+          deleteFailure.addSuppressed(e);
+        }
+      }
+    }
+
+    if (deleteFailure != null) {
+      throw deleteFailure;
+    }
+  }
+
+  /**
+   * Sorted source of edges, either a run or the edges in memory.
+   */
+  private abstract static class EdgeSource implements Comparable<EdgeSource> {
+
+    Edge current;
+
+    /**
+     * Moves to the next edge.
+     *
+     * @return {@code false} if there are no more edges.
+     */
+    abstract boolean next();
+
+    /**
+     * Releases the resources of this source.
+     */
+    void close() {
+      // NOP
+    }
+
+    @Override
+    public int compareTo(EdgeSource other) {
+      return EDGE_ORDER.compare(this.current, other.current);
+    }
+  }
+
+  private static final class RunSource extends EdgeSource {
+
+    private final Path run;
+    private final DataInputStream in;
+    private int remaining;
+
+    RunSource(Path run) {
+      this.run = run;
+      try {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to read edges from " + run, e);
+      }
+
+      try {
+        this.remaining = this.in.readInt();
+      } catch (IOException e) {
+        throw closeAfterFailure(e);
+      }
+    }
+
+    @Override
+    boolean next() {
+      try {
+        if (this.remaining == 0) {
+          close();
+          return false;
+        }
+
+        this.remaining--;
+        String fromNodeId = this.in.readUTF();
+        String toNodeId = this.in.readUTF();
+        String name = this.in.readBoolean() ? this.in.readUTF() : null;
+        this.current = new Edge(fromNodeId, toNodeId, name);
+        return true;
+      } catch (IOException e) {
+        throw closeAfterFailure(e);
+      }
+    }
+
+    @Override
+    void close() {
+      try {
+        this.in.close();
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to close " + this.run, e);
+      }
+    }
+
+    /**
+     * Closes the run after a read failure. Failures while closing are added to the returned exception.
+     */
+    private IllegalStateException closeAfterFailure(IOException readFailure) {
+      IllegalStateException failure = new IllegalStateException("Unable to read edges from " + this.run, readFailure);
+      try {
+        this.in.close();
+      } catch (IOException e) {
+        failure.addSuppressed(e);
+      }
+
+      return failure;
+    }
+  }
+
+  private static final class MemorySource extends EdgeSource {
+
+    private final Iterator<Edge> edges;
+
+    MemorySource(List<Edge> sortedEdges) {
+      this.edges = sortedEdges.iterator();
+    }
+
+    @Override
+    boolean next() {
+      if (!this.edges.hasNext()) {
+        return false;
+      }
+
+      this.current = this.edges.next();
+      return true;
+    }
+  }
+
+  /**
+   * Merges the runs and the edges in memory. The iterator closes its runs when it is exhausted. An iterator that is not
+   * iterated completely has to be closed.
+   */
+  private final class MergingIterator implements Iterator<Edge>, Closeable {
+
+    private final PriorityQueue<EdgeSource> sources;
+    private final int expectedModifications;
+    private Edge next;
+    private int count;
+
+    MergingIterator(List<Path> runs, List<Edge> sortedEdgesInMemory) {
+      this.sources = new PriorityQueue<>(runs.size() + 1);
+      this.expectedModifications = SpillingEdgeSet.this.modifications;
+      SpillingEdgeSet.this.openIterators.add(this);
+      try {
+        for (Path run : runs) {
+          addIfNotEmpty(new RunSource(run));
+        }
+        addIfNotEmpty(new MemorySource(sortedEdgesInMemory));
+        this.next = poll(null);
+      } catch (RuntimeException e) {
+        closeAfterFailure(e);
+        throw e;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Edge next() {
+      if (this.next == null) {
+        throw new NoSuchElementException();
+      }
+
+      Edge edge = this.next;
+      try {
+        this.next = poll(edge);
+      } catch (RuntimeException e) {
+        closeAfterFailure(e);
+        throw e;
+      }
+      this.count++;
+
+      if (this.next == null) {
+        close();
+        if (this.expectedModifications == SpillingEdgeSet.this.modifications) {
+          SpillingEdgeSet.this.size = this.count;
+        }
+      }
+
+      return edge;
+    }
+
+    /**
+     * Closes all runs that were not read completely.
+     */
+    @Override
+    public void close() {
+      SpillingEdgeSet.this.openIterators.remove(this);
+      IllegalStateException failure = null;
+      while (!this.sources.isEmpty()) {
+        try {
+          this.sources.remove().close();
+        } catch (IllegalStateException e) {
+          if (failure == null) {
+            failure = e;
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    private void closeAfterFailure(RuntimeException failure) {
+      try {
+        close();
+      } catch (IllegalStateException e) {
+        failure.addSuppressed(e);
+      }
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the smallest edge of all sources that is not equal to the given previous edge.
+     */
+    private Edge poll(Edge previous) {
+      while (!this.sources.isEmpty()) {
+        EdgeSource source = this.sources.remove();
+        Edge edge = source.current;
+        addIfNotEmpty(source);
+
+        if (!edge.equals(previous)) {
+          return edge;
+        }
+      }
+
+      return null;
+    }
+
+    private void addIfNotEmpty(EdgeSource source) {
+      if (source.next()) {
+        this.sources.add(source);
+      }
+    }
+  }
+}
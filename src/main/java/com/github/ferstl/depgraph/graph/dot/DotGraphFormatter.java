@@ -16,10 +16,19 @@
 package com.github.ferstl.depgraph.graph.dot;
 
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.github.ferstl.depgraph.graph.DominatorTree;
 import com.github.ferstl.depgraph.graph.Edge;
 import com.github.ferstl.depgraph.graph.GraphFormatter;
 import com.github.ferstl.depgraph.graph.Node;
+import com.github.ferstl.depgraph.graph.NodeClusterer;
 
 import static com.github.ferstl.depgraph.graph.dot.DotEscaper.escape;
 
@@ -28,50 +37,133 @@ public class DotGraphFormatter implements GraphFormatter {
   private final DotAttributeBuilder graphAttributeBuilder;
   private final DotAttributeBuilder nodeAttributeBuilder;
   private final DotAttributeBuilder edgeAttributeBuilder;
+  private final NodeClusterer nodeClusterer;
+  private final DotAttributeBuilder dominatorAttributeBuilder;
 
   public DotGraphFormatter() {
     this.graphAttributeBuilder = new DotAttributeBuilder();
     this.nodeAttributeBuilder = new DotAttributeBuilder().shape("box").fontName("Helvetica");
     this.edgeAttributeBuilder = new DotAttributeBuilder().fontName("Helvetica").fontSize(10);
+    this.nodeClusterer = null;
+    this.dominatorAttributeBuilder = null;
   }
 
   public DotGraphFormatter(DotAttributeBuilder graphAttributeBuilder, DotAttributeBuilder nodeAttributeBuilder, DotAttributeBuilder edgeAttributeBuilder) {
+    this(graphAttributeBuilder, nodeAttributeBuilder, edgeAttributeBuilder, null);
+  }
+
+  /**
+   * Creates a formatter that renders the nodes of each cluster in a {@code subgraph cluster_<name>} block. Graphviz
+   * draws a labeled box around the nodes of each cluster. The clusters are purely visual and make the layout slower.
+   *
+   * @param graphAttributeBuilder Graph attributes.
+   * @param nodeAttributeBuilder Default node attributes.
+   * @param edgeAttributeBuilder Default edge attributes.
+   * @param nodeClusterer Assigns the nodes to clusters or {@code null} to render all nodes without clusters.
+   */
+  public DotGraphFormatter(DotAttributeBuilder graphAttributeBuilder, DotAttributeBuilder nodeAttributeBuilder, DotAttributeBuilder edgeAttributeBuilder, NodeClusterer nodeClusterer) {
+    this(graphAttributeBuilder, nodeAttributeBuilder, edgeAttributeBuilder, nodeClusterer, null);
+  }
+
+  /**
+   * Creates a formatter that additionally highlights the {@link DominatorTree#isDominator(String) dominators} of the
+   * graph, i.e. the nodes through which every path to some other node passes.
+   *
+   * @param graphAttributeBuilder Graph attributes.
+   * @param nodeAttributeBuilder Default node attributes.
+   * @param edgeAttributeBuilder Default edge attributes.
+   * @param nodeClusterer Assigns the nodes to clusters or {@code null} to render all nodes without clusters.
+   * @param dominatorAttributeBuilder Attributes that are added to the dominators or {@code null} to not highlight them.
+   */
+  public DotGraphFormatter(DotAttributeBuilder graphAttributeBuilder, DotAttributeBuilder nodeAttributeBuilder, DotAttributeBuilder edgeAttributeBuilder, NodeClusterer nodeClusterer, DotAttributeBuilder dominatorAttributeBuilder) {
     this.graphAttributeBuilder = graphAttributeBuilder;
     this.nodeAttributeBuilder = nodeAttributeBuilder;
     this.edgeAttributeBuilder = edgeAttributeBuilder;
+    this.nodeClusterer = nodeClusterer;
+    this.dominatorAttributeBuilder = dominatorAttributeBuilder;
   }
 
   @Override
-  public String format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges) {
-    StringBuilder sb = new StringBuilder("digraph ").append(escape(graphName)).append(" {");
+  public void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable sb) throws IOException {
+    sb.append("digraph ").append(escape(graphName)).append(" {");
     appendAttributes("graph", this.graphAttributeBuilder, sb);
     appendAttributes("node", this.nodeAttributeBuilder, sb);
     appendAttributes("edge", this.edgeAttributeBuilder, sb);
 
+    Set<String> dominators = Collections.emptySet();
+    if (this.dominatorAttributeBuilder != null) {
+      dominators = DominatorTree.create(nodes, edges).getDominatorNodes();
+    }
+
     sb.append("\n\n  // Node Definitions:");
+    if (this.nodeClusterer != null) {
+      appendClusteredNodes(nodes, edges, dominators, sb);
+    } else {
+      appendNodes(nodes, dominators, "\n  ", sb);
+    }
+
+    sb.append("\n\n  // Edge Definitions:");
+    for (Edge edge : edges) {
+      sb.append("\n  ")
+          .append(escape(edge.getFromNodeId()))
+          .append(" -> ")
+          .append(escape(edge.getToNodeId()))
+          .append(edge.getName());
+    }
+
+    sb.append("\n}");
+  }
+
+  private void appendClusteredNodes(Collection<Node<?>> nodes, Collection<Edge> edges, Set<String> dominators, Appendable sb) throws IOException {
+    Map<String, String> clusterNames = this.nodeClusterer.cluster(nodes, edges);
+    Map<String, List<Node<?>>> clusters = new LinkedHashMap<>();
+    List<Node<?>> unclusteredNodes = new ArrayList<>();
+    for (Node<?> node : nodes) {
+      String clusterName = clusterNames.get(node.getNodeId());
+      if (clusterName != null) {
+        List<Node<?>> clusterNodes = clusters.get(clusterName);
+        if (clusterNodes == null) {
+          clusterNodes = new ArrayList<>();
+          clusters.put(clusterName, clusterNodes);
+        }
+        clusterNodes.add(node);
+      } else {
+        unclusteredNodes.add(node);
+      }
+    }
+
+    for (Map.Entry<String, List<Node<?>>> cluster : clusters.entrySet()) {
+      String clusterName = cluster.getKey();
+      sb.append("\n  subgraph ").append(escape("cluster_" + clusterName)).append(" {")
+          .append("\n    label=").append(escape(clusterName));
+      appendNodes(cluster.getValue(), dominators, "\n    ", sb);
+      sb.append("\n  }");
+    }
+
+    appendNodes(unclusteredNodes, dominators, "\n  ", sb);
+  }
+
+  private void appendNodes(Collection<Node<?>> nodes, Set<String> dominators, String indentation, Appendable sb) throws IOException {
     for (Node<?> node : nodes) {
       String nodeId = node.getNodeId();
       String nodeName = node.getNodeName();
-      sb.append("\n  ")
+      sb.append(indentation)
           .append(escape(nodeId))
           .append(nodeName);
-    }
 
-    sb.append("\n\n  // Edge Definitions:");
-    for (Edge edge : edges) {
-      String edgeDefinition = escape(edge.getFromNodeId()) + " -> " + escape(edge.getToNodeId()) + edge.getName();
-      sb.append("\n  ").append(edgeDefinition);
+      // DOT allows several attribute lists per node, the later ones override the attributes of the node name
+      if (dominators.contains(nodeId)) {
+        sb.append(this.dominatorAttributeBuilder.toString());
+      }
     }
-
-    return sb.append("\n}").toString();
   }
 
-  private void appendAttributes(String tagName, DotAttributeBuilder attributeBuilder, StringBuilder sb) {
+  private void appendAttributes(String tagName, DotAttributeBuilder attributeBuilder, Appendable sb) throws IOException {
     if (!attributeBuilder.isEmpty()) {
       sb.append("\n  ")
           .append(tagName)
           .append(" ")
-          .append(attributeBuilder);
+          .append(attributeBuilder.toString());
     }
   }
 }
@@ -15,6 +15,7 @@
  */
 package com.github.ferstl.depgraph.graph.gml;
 
+import java.io.IOException;
 import java.util.Collection;
 import com.github.ferstl.depgraph.graph.Edge;
 import com.github.ferstl.depgraph.graph.GraphFormatter;
@@ -25,8 +26,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class GmlGraphFormatter implements GraphFormatter {
 
   @Override
-  public String format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges) {
-    StringBuilder result = new StringBuilder();
+  public void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable result) throws IOException {
     result.append("graph [\n");
 
     //output nodes
@@ -51,6 +51,5 @@ public class GmlGraphFormatter implements GraphFormatter {
     }
 
     result.append("]");
-    return result.toString();
   }
 }
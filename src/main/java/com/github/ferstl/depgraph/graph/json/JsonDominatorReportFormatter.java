@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.ferstl.depgraph.graph.DominatorTree;
+import com.github.ferstl.depgraph.graph.Edge;
+import com.github.ferstl.depgraph.graph.GraphFormatter;
+import com.github.ferstl.depgraph.graph.Node;
+import com.github.ferstl.depgraph.graph.NodeRenderer;
+import com.google.common.io.CharStreams;
+
+/**
+ * Formats the {@link DominatorTree} of a graph as JSON report. The report contains an entry for each node that is not
+ * a root of the graph. Each entry lists the nodes through which every path to the node passes, starting with the
+ * immediate dominator. The nodes are reported with the given artifact renderer instead of their node IDs, which depend
+ * on the graph's configuration.
+ *
+ * @param <T> Type of the node objects.
+ */
+public class JsonDominatorReportFormatter<T> implements GraphFormatter {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+  private final NodeRenderer<? super T> artifactRenderer;
+
+  public JsonDominatorReportFormatter(NodeRenderer<? super T> artifactRenderer) {
+    this.artifactRenderer = artifactRenderer;
+  }
+
+  @Override
+  public void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable output) throws IOException {
+    DominatorTree dominatorTree = DominatorTree.create(nodes, edges);
+    Map<String, String> artifacts = renderArtifacts(nodes);
+
+    List<Map<String, Object>> entries = new ArrayList<>();
+    for (String nodeId : dominatorTree.getNodeIds()) {
+      List<String> dominators = dominatorTree.getDominators(nodeId);
+      if (dominators.isEmpty()) {
+        continue;
+      }
+
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("artifact", artifacts.get(nodeId));
+      entry.put("dominators", toArtifacts(dominators, artifacts));
+      entries.add(entry);
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("graphName", graphName);
+    report.put("singlePointsOfDependency", toArtifacts(dominatorTree.getDominatorNodes(), artifacts));
+    report.put("artifacts", entries);
+
+    OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(CharStreams.asWriter(output), report);
+  }
+
+  private Map<String, String> renderArtifacts(Collection<Node<?>> nodes) {
+    Map<String, String> artifacts = new HashMap<>();
+    for (Node<?> node : nodes) {
+      @SuppressWarnings("unchecked")
+      T nodeObject = (T) node.getNodeObject();
+      artifacts.put(node.getNodeId(), this.artifactRenderer.render(nodeObject));
+    }
+
+    return artifacts;
+  }
+
+  private static List<String> toArtifacts(Collection<String> nodeIds, Map<String, String> artifacts) {
+    List<String> result = new ArrayList<>(nodeIds.size());
+    for (String nodeId : nodeIds) {
+      result.add(artifacts.get(nodeId));
+    }
+
+    return result;
+  }
+}
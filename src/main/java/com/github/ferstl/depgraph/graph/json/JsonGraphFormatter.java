@@ -15,41 +15,35 @@
  */
 package com.github.ferstl.depgraph.graph.json;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
 import com.github.ferstl.depgraph.graph.Edge;
 import com.github.ferstl.depgraph.graph.GraphFormatter;
 import com.github.ferstl.depgraph.graph.Node;
-import com.google.common.base.Joiner;
 
 public class JsonGraphFormatter implements GraphFormatter {
 
   @Override
-  public String format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges) {
-    StringBuilder result = new StringBuilder();
-
+  public void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable result) throws IOException {
     // output artifacts
     result.append("{ \"artifacts\":\n");
     result.append("  [ ");
-    List<String> nodeStrings = new ArrayList<>();
+    String separator = "";
     for (Node<?> node : nodes) {
-      nodeStrings.add(node.getNodeName());
+      result.append(separator).append(node.getNodeName());
+      separator = "\n  , ";
     }
-    result.append(Joiner.on("\n  , ").join(nodeStrings));
     result.append("\n  ]\n");
 
     // output dependencies
     result.append(", \"dependencies\":\n");
     result.append("  [ ");
-    List<String> depenencyStrings = new ArrayList<>();
+    separator = "";
     for (Edge edge : edges) {
-      depenencyStrings.add(edge.getName());
+      result.append(separator).append(edge.getName());
+      separator = "\n  , ";
     }
-    result.append(Joiner.on("\n  , ").join(depenencyStrings));
     result.append("\n  ]\n");
     result.append("}");
-
-    return result.toString();
   }
 }
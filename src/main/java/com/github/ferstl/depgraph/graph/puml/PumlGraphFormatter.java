@@ -15,6 +15,7 @@
  */
 package com.github.ferstl.depgraph.graph.puml;
 
+import java.io.IOException;
 import java.util.Collection;
 import org.apache.commons.lang3.StringUtils;
 import com.github.ferstl.depgraph.dependency.PumlEdgeInfo;
@@ -29,23 +30,20 @@ import com.github.ferstl.depgraph.graph.Node;
 public class PumlGraphFormatter implements GraphFormatter {
 
   @Override
-  public String format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges) {
-    final StringBuilder puml = new StringBuilder();
+  public void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable puml) throws IOException {
 
     startUml(puml);
     skinParam(puml);
     writeNodes(puml, nodes);
     writeEdges(puml, edges);
     endUml(puml);
-
-    return puml.toString();
   }
 
-  private void startUml(StringBuilder puml) {
+  private void startUml(Appendable puml) throws IOException {
     puml.append("@startuml\n");
   }
 
-  private void skinParam(StringBuilder puml) {
+  private void skinParam(Appendable puml) throws IOException {
     puml.append("skinparam rectangle {\n")
         .append("  BackgroundColor<<test>> lightGreen\n")
         .append("  BackgroundColor<<runtime>> lightBlue\n")
@@ -53,7 +51,7 @@ public class PumlGraphFormatter implements GraphFormatter {
         .append("}\n");
   }
 
-  private void writeNodes(StringBuilder puml, Collection<Node<?>> nodes) {
+  private void writeNodes(Appendable puml, Collection<Node<?>> nodes) throws IOException {
     for (Node<?> node : nodes) {
 
       final PumlNodeInfo nodeInfo = PumlNodeInfo.parse(node.getNodeName());
@@ -76,7 +74,7 @@ public class PumlGraphFormatter implements GraphFormatter {
     }
   }
 
-  private void writeEdges(StringBuilder puml, Collection<Edge> edges) {
+  private void writeEdges(Appendable puml, Collection<Edge> edges) throws IOException {
     for (Edge edge : edges) {
       final PumlEdgeInfo edgeInfo = PumlEdgeInfo.parse(edge.getName());
       puml.append(escape(edge.getFromNodeId()))
@@ -96,7 +94,7 @@ public class PumlGraphFormatter implements GraphFormatter {
     }
   }
 
-  private void endUml(StringBuilder puml) {
+  private void endUml(Appendable puml) throws IOException {
     puml.append("@enduml");
   }
 
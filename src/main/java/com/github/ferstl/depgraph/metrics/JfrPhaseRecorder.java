@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import com.github.ferstl.depgraph.metrics.Metrics.Phase;
+
+/**
+ * Records phases as JDK Flight Recorder events. The plugin is compiled for Java 7, so the JFR API is only accessed via
+ * reflection. The event type is defined at runtime with {@code jdk.jfr.EventFactory}, which is available in Java 8u262
+ * and later. Each phase is recorded as a single event.
+ */
+final class JfrPhaseRecorder implements PhaseRecorder {
+
+  static final String EVENT_NAME = "com.github.ferstl.depgraph.Phase";
+
+  private static final int PHASE = 0;
+  private static final int MODULE = 1;
+  private static final int NODES = 2;
+  private static final int EDGES = 3;
+  private static final int BYTES_WRITTEN = 4;
+
+  private final Object eventFactory;
+  private final Method newEvent;
+  private final Method isEnabled;
+  private final Method begin;
+  private final Method end;
+  private final Method shouldCommit;
+  private final Method commit;
+  private final Method set;
+  // Used to check if the event is enabled without creating a new event for each phase
+  private final Object probe;
+
+  private JfrPhaseRecorder(ClassLoader classLoader) throws ReflectiveOperationException {
+    Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory", true, classLoader);
+    Class<?> eventClass = Class.forName("jdk.jfr.Event", true, classLoader);
+    JfrTypes types = new JfrTypes(classLoader);
+
+    List<Object> eventAnnotations = Arrays.asList(
+        types.annotation("jdk.jfr.Name", EVENT_NAME),
+        types.annotation("jdk.jfr.Label", "Depgraph Phase"),
+        types.annotation("jdk.jfr.Description", "A phase of the dependency graph creation"),
+        types.annotation("jdk.jfr.Category", new String[]{"Maven", "Depgraph"}),
+        types.annotation("jdk.jfr.StackTrace", false));
+
+    // The order of the fields must match the indices above
+    List<Object> fields = Arrays.asList(
+        types.field(String.class, "phase", types.annotation("jdk.jfr.Label", "Phase")),
+        types.field(String.class, "module", types.annotation("jdk.jfr.Label", "Module")),
+        types.field(long.class, "nodes",
+            types.annotation("jdk.jfr.Label", "Nodes"),
+            types.annotation("jdk.jfr.Description", "Number of nodes or -1 if not known in this phase")),
+        types.field(long.class, "edges",
+            types.annotation("jdk.jfr.Label", "Edges"),
+            types.annotation("jdk.jfr.Description", "Number of edges or -1 if not known in this phase")),
+        types.field(long.class, "bytesWritten",
+            types.annotation("jdk.jfr.Label", "Bytes Written"),
+            types.annotation("jdk.jfr.Description", "Number of written bytes or -1 if not known in this phase"),
+            types.annotation("jdk.jfr.DataAmount", "BYTES")));
+
+    this.eventFactory = eventFactoryClass.getMethod("create", List.class, List.class).invoke(null, eventAnnotations, fields);
+    this.newEvent = eventFactoryClass.getMethod("newEvent");
+    this.isEnabled = eventClass.getMethod("isEnabled");
+    this.begin = eventClass.getMethod("begin");
+    this.end = eventClass.getMethod("end");
+    this.shouldCommit = eventClass.getMethod("shouldCommit");
+    this.commit = eventClass.getMethod("commit");
+    this.set = eventClass.getMethod("set", int.class, Object.class);
+    this.probe = this.newEvent.invoke(this.eventFactory);
+  }
+
+  /**
+   * Creates a recorder if JFR is available in the running JVM.
+   *
+   * @return The recorder or {@code null} if JFR is not available.
+   */
+  static PhaseRecorder create() {
+    try {
+      return new JfrPhaseRecorder(JfrPhaseRecorder.class.getClassLoader());
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public Object begin() {
+    if (!(Boolean) invoke(this.isEnabled, this.probe)) {
+      return null;
+    }
+
+    Object event = invoke(this.newEvent, this.eventFactory);
+    invoke(this.begin, event);
+    return event;
+  }
+
+  @Override
+  public void end(Object event, Phase phase, String module, long nodes, long edges, long bytesWritten) {
+    invoke(this.end, event);
+
+    if ((Boolean) invoke(this.shouldCommit, event)) {
+      invoke(this.set, event, PHASE, phase.getLabel());
+      invoke(this.set, event, MODULE, module);
+      invoke(this.set, event, NODES, nodes);
+      invoke(this.set, event, EDGES, edges);
+      invoke(this.set, event, BYTES_WRITTEN, bytesWritten);
+      invoke(this.commit, event);
+    }
+  }
+
+  private static Object invoke(Method method, Object target, Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Creates the annotation elements and value descriptors that define the event type.
+   */
+  private static final class JfrTypes {
+
+    private final ClassLoader classLoader;
+    private final Class<?> annotationElementClass;
+    private final Constructor<?> valueDescriptor;
+
+    JfrTypes(ClassLoader classLoader) throws ReflectiveOperationException {
+      this.classLoader = classLoader;
+      this.annotationElementClass = Class.forName("jdk.jfr.AnnotationElement", true, classLoader);
+      this.valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor", true, classLoader).getConstructor(Class.class, String.class, List.class);
+    }
+
+    Object annotation(String annotationType, Object value) throws ReflectiveOperationException {
+      return this.annotationElementClass.getConstructor(Class.class, Object.class).newInstance(annotationClass(annotationType), value);
+    }
+
+    Object field(Class<?> type, String name, Object... annotations) throws ReflectiveOperationException {
+      List<Object> annotationList = new ArrayList<>(annotations.length);
+      Collections.addAll(annotationList, annotations);
+      return this.valueDescriptor.newInstance(type, name, annotationList);
+    }
+
+    private Class<? extends Annotation> annotationClass(String annotationType) throws ClassNotFoundException {
+      return Class.forName(annotationType, true, this.classLoader).asSubclass(Annotation.class);
+    }
+  }
+}
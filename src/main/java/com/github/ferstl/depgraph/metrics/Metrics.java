@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Collects the wall-clock time and the allocated bytes of each {@link Phase} of a graph creation, together with some
+ * {@link Counter}s and {@link CacheType cache} statistics.
+ * <p>
+ * Instrumented code does not get the metrics passed. It reports to the static methods of this class, which record to
+ * the metrics that are {@link #bind(Metrics, String) bound} to the current thread. All static methods are no-ops when
+ * no metrics are bound. Phases may be nested. The time and the allocations of a nested phase are not counted for the
+ * enclosing phase. Work that is too fine-grained for a {@link Timer} is {@link #addTime(Phase, long) added} to its phase
+ * afterwards and remains part of the enclosing phase.
+ * <p>
+ * Independent of the bound metrics, each phase is reported as JDK Flight Recorder event if JFR is available in the
+ * running JVM and the event is enabled in the current recording.
+ */
+public final class Metrics {
+
+  private static final ThreadLocal<Context> CURRENT_CONTEXT = new ThreadLocal<>();
+  private static final ThreadLocal<Timer> CURRENT_TIMER = new ThreadLocal<>();
+  private static final Timer NO_OP_TIMER = new Timer(null, null, null, null, null);
+  private static final PhaseRecorder EVENT_RECORDER = JfrPhaseRecorder.create();
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+  private final long startTime;
+  private long totalTime;
+  private final Map<Phase, PhaseStatistics> phases = new EnumMap<>(Phase.class);
+  private final Map<Counter, AtomicLong> counters = new EnumMap<>(Counter.class);
+  private final Map<CacheType, CacheStatistics> caches = new EnumMap<>(CacheType.class);
+
+  public Metrics() {
+    this.startTime = System.nanoTime();
+
+    // The maps are filled up front and are never modified afterwards. So they can be read by multiple threads.
+    for (Phase phase : Phase.values()) {
+      this.phases.put(phase, new PhaseStatistics());
+    }
+    for (Counter counter : Counter.values()) {
+      this.counters.put(counter, new AtomicLong());
+    }
+    for (CacheType cache : CacheType.values()) {
+      this.caches.put(cache, new CacheStatistics());
+    }
+  }
+
+  /**
+   * Binds the given metrics and the module being processed to the current thread until the returned binding is
+   * closed.
+   *
+   * @param metrics The metrics to bind. May be {@code null} to disable the metrics in the current thread.
+   * @param module ID of the module being processed. Used for the flight recorder events.
+   * @return The binding which restores the previously bound metrics when closed.
+   */
+  public static Binding bind(Metrics metrics, String module) {
+    Binding binding = new Binding(CURRENT_CONTEXT.get());
+    CURRENT_CONTEXT.set(new Context(metrics, module));
+
+    return binding;
+  }
+
+  /**
+   * Wraps the given task so that it runs with the metrics and the module that are bound to the current thread. Use this
+   * method for tasks that are executed in other threads.
+   *
+   * @param task The task to wrap.
+   * @param <V> Result type of the task.
+   * @return The wrapped task.
+   */
+  public static <V> Callable<V> propagate(final Callable<V> task) {
+    final Context context = CURRENT_CONTEXT.get();
+    if (context == null) {
+      return task;
+    }
+
+    return new Callable<V>() {
+
+      @Override
+      public V call() throws Exception {
+        try (Binding binding = bind(context.metrics, context.module)) {
+          return task.call();
+        }
+      }
+    };
+  }
+
+  /**
+   * Starts measuring the given phase in the current thread. The measurement ends when the returned timer is closed.
+   *
+   * @param phase The phase to measure.
+   * @return The timer of the phase.
+   */
+  public static Timer start(Phase phase) {
+    Context context = CURRENT_CONTEXT.get();
+    Metrics metrics = context != null ? context.metrics : null;
+    Object event = EVENT_RECORDER != null ? EVENT_RECORDER.begin() : null;
+    if (metrics == null && event == null) {
+      return NO_OP_TIMER;
+    }
+
+    Timer timer = new Timer(phase, metrics, context != null ? context.module : null, event, CURRENT_TIMER.get());
+    CURRENT_TIMER.set(timer);
+    return timer;
+  }
+
+  /**
+   * Adds time that was measured by the caller to the given phase. Use this method for work that is too fine-grained to
+   * be measured with a {@link Timer}, such as rendering a single node: Accumulate the {@link System#nanoTime()}
+   * differences in a plain counter and add the sum once. The time is not subtracted from the enclosing phase and neither
+   * allocations nor flight recorder events are recorded for it.
+   *
+   * @param phase The phase.
+   * @param nanos The measured time in nanoseconds.
+   */
+  public static void addTime(Phase phase, long nanos) {
+    Metrics metrics = currentMetrics();
+    if (metrics != null) {
+      metrics.phases.get(phase).time.addAndGet(nanos);
+    }
+  }
+
+  public static void count(Counter counter, long value) {
+    Metrics metrics = currentMetrics();
+    if (metrics != null) {
+      metrics.counters.get(counter).addAndGet(value);
+    }
+  }
+
+  public static void cacheAccess(CacheType cache, boolean hit) {
+    Metrics metrics = currentMetrics();
+    if (metrics != null) {
+      CacheStatistics statistics = metrics.caches.get(cache);
+      statistics.lookups.incrementAndGet();
+      if (hit) {
+        statistics.hits.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Stops the overall time measurement which was started when these metrics were created.
+   */
+  public void finish() {
+    this.totalTime = System.nanoTime() - this.startTime;
+  }
+
+  public long getTime(Phase phase) {
+    return this.phases.get(phase).time.get();
+  }
+
+  public long getAllocatedBytes(Phase phase) {
+    return this.phases.get(phase).allocatedBytes.get();
+  }
+
+  public long getCount(Counter counter) {
+    return this.counters.get(counter).get();
+  }
+
+  public long getCacheLookups(CacheType cache) {
+    return this.caches.get(cache).lookups.get();
+  }
+
+  public long getCacheHits(CacheType cache) {
+    return this.caches.get(cache).hits.get();
+  }
+
+  /**
+   * Creates a human readable summary table of these metrics.
+   *
+   * @return The lines of the summary table.
+   */
+  public List<String> toTable() {
+    List<String> lines = new ArrayList<>();
+    String format = "%-22s %12s %16s";
+    lines.add(String.format(Locale.ROOT, format, "Phase", "Time [ms]", "Allocated [MB]"));
+
+    long totalAllocatedBytes = 0;
+    for (Phase phase : Phase.values()) {
+      long allocatedBytes = getAllocatedBytes(phase);
+      totalAllocatedBytes += allocatedBytes;
+      lines.add(String.format(Locale.ROOT, format, phase.getLabel(), millis(getTime(phase)), megabytes(allocatedBytes)));
+    }
+    lines.add(String.format(Locale.ROOT, format, "Total", millis(this.totalTime), megabytes(totalAllocatedBytes)));
+
+    StringBuilder counts = new StringBuilder();
+    for (Counter counter : Counter.values()) {
+      counts.append(counts.length() == 0 ? "" : ", ").append(counter.getLabel()).append(": ").append(getCount(counter));
+    }
+    lines.add(counts.toString());
+
+    for (CacheType cache : CacheType.values()) {
+      long lookups = getCacheLookups(cache);
+      long hits = getCacheHits(cache);
+      lines.add(String.format(Locale.ROOT, "%s cache: %s hit ratio (%d of %d lookups)", cache.getLabel(), percentage(hits, lookups), hits, lookups));
+    }
+
+    return lines;
+  }
+
+  /**
+   * Creates a JSON representation of these metrics. Times are in nanoseconds. Allocated bytes are {@code -1} if the JVM
+   * does not support the measurement of allocated memory.
+   *
+   * @return The metrics in JSON format.
+   */
+  public String toJson() {
+    Map<String, Object> phases = new LinkedHashMap<>();
+    for (Phase phase : Phase.values()) {
+      Map<String, Long> values = new LinkedHashMap<>();
+      values.put("timeNanos", getTime(phase));
+      values.put("allocatedBytes", ALLOCATION_SUPPORTED ? getAllocatedBytes(phase) : -1);
+      phases.put(phase.getKey(), values);
+    }
+
+    Map<String, Long> counters = new LinkedHashMap<>();
+    for (Counter counter : Counter.values()) {
+      counters.put(counter.getKey(), getCount(counter));
+    }
+
+    Map<String, Object> caches = new LinkedHashMap<>();
+    for (CacheType cache : CacheType.values()) {
+      Map<String, Long> values = new LinkedHashMap<>();
+      values.put("lookups", getCacheLookups(cache));
+      values.put("hits", getCacheHits(cache));
+      caches.put(cache.getKey(), values);
+    }
+
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("totalTimeNanos", this.totalTime);
+    metrics.put("phases", phases);
+    metrics.put("counters", counters);
+    metrics.put("caches", caches);
+
+    try {
+      StringWriter w = new StringWriter();
+      OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(w, metrics);
+      return w.toString();
+    } catch (IOException e) {
+      throw new RuntimeException(e.getMessage(), e);
+    }
+  }
+
+  private static Metrics currentMetrics() {
+    Context context = CURRENT_CONTEXT.get();
+    return context != null ? context.metrics : null;
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+  }
+
+  private static String megabytes(long bytes) {
+    return ALLOCATION_SUPPORTED ? String.format(Locale.ROOT, "%.1f", bytes / (1024.0 * 1024.0)) : "n/a";
+  }
+
+  private static String percentage(long hits, long lookups) {
+    return lookups > 0 ? String.format(Locale.ROOT, "%.1f%%", 100.0 * hits / lookups) : "n/a";
+  }
+
+  private static long allocatedBytes() {
+    if (ALLOCATION_SUPPORTED) {
+      return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    return 0;
+  }
+
+  private static boolean isAllocationSupported() {
+    try {
+      // Not every JVM provides the extended thread MX bean
+      return THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+          && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled();
+    } catch (LinkageError e) {
+      return false;
+    }
+  }
+
+  public enum Phase {
+    RESOLUTION("resolution", "Dependency resolution"),
+    VISITING("visiting", "Graph building"),
+    // Added afterwards, so it is also part of the graph building or the formatting time
+    STYLING("styling", "Style matching"),
+    FORMATTING("formatting", "Formatting"),
+    WRITING("writing", "Writing"),
+    GRAPHVIZ("graphviz", "Graphviz");
+
+    private final String key;
+    private final String label;
+
+    Phase(String key, String label) {
+      this.key = key;
+      this.label = label;
+    }
+
+    public String getKey() {
+      return this.key;
+    }
+
+    public String getLabel() {
+      return this.label;
+    }
+  }
+
+  public enum Counter {
+    NODES("nodes", "Nodes"),
+    EDGES("edges", "Edges");
+
+    private final String key;
+    private final String label;
+
+    Counter(String key, String label) {
+      this.key = key;
+      this.label = label;
+    }
+
+    public String getKey() {
+      return this.key;
+    }
+
+    public String getLabel() {
+      return this.label;
+    }
+  }
+
+  public enum CacheType {
+    STYLE_CONFIGURATION("styleConfiguration", "Style configuration"),
+    NODE_STYLE("nodeStyle", "Node style"),
+    EDGE_STYLE("edgeStyle", "Edge style"),
+    VERSION_COMPARISON("versionComparison", "Version comparison");
+
+    private final String key;
+    private final String label;
+
+    CacheType(String key, String label) {
+      this.key = key;
+      this.label = label;
+    }
+
+    public String getKey() {
+      return this.key;
+    }
+
+    public String getLabel() {
+      return this.label;
+    }
+  }
+
+  /**
+   * Binding of metrics to a thread.
+   */
+  public static final class Binding implements AutoCloseable {
+
+    private final Context previous;
+
+    Binding(Context previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      CURRENT_CONTEXT.set(this.previous);
+    }
+  }
+
+  /**
+   * Measures a single execution of a phase.
+   */
+  public static final class Timer implements AutoCloseable {
+
+    private final Phase phase;
+    private final Metrics metrics;
+    private final String module;
+    private final Object event;
+    private final Timer parent;
+    private final long startTime;
+    private final long startAllocatedBytes;
+    private long nestedTime;
+    private long nestedAllocatedBytes;
+    private long nodes = -1;
+    private long edges = -1;
+    private long bytesWritten = -1;
+
+    Timer(Phase phase, Metrics metrics, String module, Object event, Timer parent) {
+      this.phase = phase;
+      this.metrics = metrics;
+      this.module = module;
+      this.event = event;
+      this.parent = parent;
+      this.startTime = metrics != null ? System.nanoTime() : 0;
+      this.startAllocatedBytes = metrics != null ? allocatedBytes() : 0;
+    }
+
+    /**
+     * Records the size of the graph processed in this phase.
+     *
+     * @param nodes Number of nodes.
+     * @param edges Number of edges.
+     */
+    public void graphSize(long nodes, long edges) {
+      if (this.phase != null) {
+        this.nodes = nodes;
+        this.edges = edges;
+      }
+    }
+
+    /**
+     * Records the number of bytes written in this phase.
+     *
+     * @param bytesWritten Number of bytes.
+     */
+    public void bytesWritten(long bytesWritten) {
+      if (this.phase != null) {
+        this.bytesWritten = bytesWritten;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (this.phase == null) {
+        return;
+      }
+
+      if (this.event != null) {
+        EVENT_RECORDER.end(this.event, this.phase, this.module, this.nodes, this.edges, this.bytesWritten);
+      }
+
+      if (this.metrics != null) {
+        long time = System.nanoTime() - this.startTime;
+        long allocatedBytes = allocatedBytes() - this.startAllocatedBytes;
+        this.metrics.phases.get(this.phase).time.addAndGet(time - this.nestedTime);
+        this.metrics.phases.get(this.phase).allocatedBytes.addAndGet(allocatedBytes - this.nestedAllocatedBytes);
+
+        // Only subtract from the parent if it belongs to the same metrics
+        if (this.parent != null && this.parent.metrics == this.metrics) {
+          this.parent.nestedTime += time;
+          this.parent.nestedAllocatedBytes += allocatedBytes;
+        }
+      }
+      CURRENT_TIMER.set(this.parent);
+    }
+  }
+
+  private static final class Context {
+
+    final Metrics metrics;
+    final String module;
+
+    Context(Metrics metrics, String module) {
+      this.metrics = metrics;
+      this.module = module;
+    }
+  }
+
+  private static final class PhaseStatistics {
+
+    final AtomicLong time = new AtomicLong();
+    final AtomicLong allocatedBytes = new AtomicLong();
+  }
+
+  private static final class CacheStatistics {
+
+    final AtomicLong lookups = new AtomicLong();
+    final AtomicLong hits = new AtomicLong();
+  }
+}
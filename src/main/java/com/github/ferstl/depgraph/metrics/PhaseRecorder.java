@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.metrics;
+
+import com.github.ferstl.depgraph.metrics.Metrics.Phase;
+
+/**
+ * Records phases to an external event system.
+ */
+interface PhaseRecorder {
+
+  /**
+   * Begins the recording of a phase.
+   *
+   * @return The recorded event or {@code null} if recording is currently disabled.
+   */
+  Object begin();
+
+  /**
+   * Ends the recording of a phase. Counts that are not known are {@code -1}.
+   *
+   * @param event The event returned by {@link #begin()}.
+   * @param phase The phase.
+   * @param module ID of the processed module. May be {@code null}.
+   * @param nodes Number of nodes.
+   * @param edges Number of edges.
+   * @param bytesWritten Number of written bytes.
+   */
+  void end(Object event, Phase phase, String module, long nodes, long edges, long bytesWritten);
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.util.Locale;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertSame;
+
+public class ClusterByTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void forName() {
+    // act
+    ClusterBy result1 = ClusterBy.forName("none");
+    ClusterBy result2 = ClusterBy.forName("groupId");
+    ClusterBy result3 = ClusterBy.forName("module");
+
+    // assert
+    assertSame(ClusterBy.NONE, result1);
+    assertSame(ClusterBy.GROUP_ID, result2);
+    assertSame(ClusterBy.MODULE, result3);
+  }
+
+  @Test
+  public void forNameWithTurkishLocale() {
+    // arrange
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault(new Locale("tr", "TR"));
+
+    try {
+      // act
+      ClusterBy result = ClusterBy.forName("groupId");
+
+      // assert
+      assertSame(ClusterBy.GROUP_ID, result);
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  @Test
+  public void forNameWithUnknownType() {
+    // arrange
+    this.expectedException.expect(IllegalArgumentException.class);
+    this.expectedException.expectMessage("unknown_type");
+
+    // act/assert
+    ClusterBy.forName("unknown_type");
+  }
+}
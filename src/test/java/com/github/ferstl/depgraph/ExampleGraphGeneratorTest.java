@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.junit.Test;
+import com.github.ferstl.depgraph.dependency.DependencyNode;
+import com.github.ferstl.depgraph.dependency.NodeResolution;
+import com.google.common.collect.ListMultimap;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThat;
+
+public class ExampleGraphGeneratorTest {
+
+  @Test
+  public void sameSeedCreatesSameGraph() {
+    // arrange
+    ExampleGraphGenerator generator1 = new ExampleGraphGenerator(50).seed(1);
+    ExampleGraphGenerator generator2 = new ExampleGraphGenerator(50).seed(1);
+    ExampleGraphGenerator generator3 = new ExampleGraphGenerator(50).seed(2);
+
+    // act
+    String graph1 = generator1.generate().toString();
+    String graph2 = generator2.generate().toString();
+    String graph3 = generator3.generate().toString();
+
+    // assert
+    assertEquals(graph1, graph2);
+    assertNotEquals(graph1, graph3);
+  }
+
+  @Test
+  public void nodesAndEdges() {
+    // arrange
+    ExampleGraphGenerator generator = new ExampleGraphGenerator(100).edgeDensity(3.0).depth(4);
+
+    // act
+    ListMultimap<DependencyNode, DependencyNode> edges = generator.generate();
+
+    // assert
+    Set<String> artifacts = new HashSet<>();
+    for (Entry<DependencyNode, DependencyNode> edge : edges.entries()) {
+      artifacts.add(edge.getKey().getArtifact().getArtifactId());
+      artifacts.add(edge.getValue().getArtifact().getArtifactId());
+      assertEquals(NodeResolution.INCLUDED, edge.getValue().getResolution());
+    }
+
+    assertEquals(100, artifacts.size());
+    assertEquals(300, edges.size());
+  }
+
+  @Test
+  public void depthLargerThanNodes() {
+    // arrange
+    ExampleGraphGenerator generator = new ExampleGraphGenerator(3).depth(10);
+
+    // act
+    ListMultimap<DependencyNode, DependencyNode> edges = generator.generate();
+
+    // assert
+    assertEquals(6, edges.size());
+  }
+
+  @Test
+  public void singleNode() {
+    // arrange
+    ExampleGraphGenerator generator = new ExampleGraphGenerator(1);
+
+    // act
+    ListMultimap<DependencyNode, DependencyNode> edges = generator.generate();
+
+    // assert
+    assertEquals(0, edges.size());
+  }
+
+  @Test
+  public void conflicts() {
+    // arrange
+    ExampleGraphGenerator generator = new ExampleGraphGenerator(10).edgeDensity(2.0).conflictRate(1.0);
+
+    // act
+    ListMultimap<DependencyNode, DependencyNode> edges = generator.generate();
+
+    // assert
+    int conflicts = 0;
+    for (DependencyNode node : edges.values()) {
+      if (node.getResolution() == NodeResolution.OMITTED_FOR_CONFLICT) {
+        conflicts++;
+        assertEquals("0.9.0", node.getArtifact().getVersion());
+        assertEquals("1.0.0", node.getEffectiveVersion());
+      }
+    }
+
+    // 9 edges connect the nodes. All other edges are conflicts
+    assertEquals(11, conflicts);
+  }
+
+  @Test
+  public void duplicates() {
+    // arrange
+    ExampleGraphGenerator generator = new ExampleGraphGenerator(10).edgeDensity(2.0).duplicateRate(1.0);
+
+    // act
+    ListMultimap<DependencyNode, DependencyNode> edges = generator.generate();
+
+    // assert
+    int duplicates = 0;
+    for (DependencyNode node : edges.values()) {
+      if (node.getResolution() == NodeResolution.OMITTED_FOR_DUPLICATE) {
+        duplicates++;
+      }
+    }
+
+    assertEquals(11, duplicates);
+  }
+
+  @Test
+  public void scopes() {
+    // arrange
+    ExampleGraphGenerator generator = new ExampleGraphGenerator(50).scopes(asList("test:1", " provided ", "runtime:0"));
+
+    // act
+    ListMultimap<DependencyNode, DependencyNode> edges = generator.generate();
+
+    // assert
+    Set<String> scopes = new HashSet<>();
+    for (DependencyNode node : edges.values()) {
+      scopes.add(node.getArtifact().getScope());
+    }
+    assertThat(scopes, containsInAnyOrder("test", "provided"));
+    assertThat(edges.keySet().iterator().next().getScopes(), contains("compile"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noScopes() {
+    new ExampleGraphGenerator(10).scopes(asList("compile:0"));
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Compares the {@link GraphFileWriter} with {@link String#getBytes(java.nio.charset.Charset)} and with a buffered
+ * {@link OutputStreamWriter}. Each variant writes the same generated graph several times, once as a whole and once in
+ * the small pieces in which the formatters append it. The average wall time and the average allocated bytes per write
+ * are recorded in {@code target/graph-file-writer-performance.csv}. The size of the graph and the number of writes can
+ * be configured with the system properties {@code depgraph.perf.edges} and {@code depgraph.perf.writes}. The defaults
+ * are small enough for the regular build.
+ */
+public class GraphFileWriterPerformanceTest {
+
+  private static final Path RESULT_FILE = Paths.get("target", "graph-file-writer-performance.csv");
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  // Shared by all writes, like the buffers of a mojo execution
+  private static final GraphFileWriter.BufferPool BUFFER_POOL = new GraphFileWriter.BufferPool();
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder(Paths.get("target").toFile());
+
+  @Test
+  public void writeGraph() throws Exception {
+    // arrange
+    List<String> pieces = createGraph(Integer.getInteger("depgraph.perf.edges", 20_000));
+    StringBuilder graphBuilder = new StringBuilder();
+    for (String piece : pieces) {
+      graphBuilder.append(piece);
+    }
+    String graph = graphBuilder.toString();
+    int writes = Integer.getInteger("depgraph.perf.writes", 10);
+
+    // act/assert
+    for (GraphWrite write : GraphWrite.values()) {
+      Path file = this.tmp.newFile(write.name()).toPath();
+      // Warm up
+      for (int i = 0; i < writes; i++) {
+        write.write(graph, pieces, file);
+      }
+
+      long allocatedBytes = allocatedBytes();
+      long start = System.nanoTime();
+      for (int i = 0; i < writes; i++) {
+        write.write(graph, pieces, file);
+      }
+      long nanos = System.nanoTime() - start;
+      allocatedBytes = allocatedBytes >= 0 ? allocatedBytes() - allocatedBytes : -1;
+
+      assertArrayEquals(write.name(), graph.getBytes(UTF_8), Files.readAllBytes(file));
+      recordResult(write, graph.length(), writes, nanos / writes, allocatedBytes >= 0 ? allocatedBytes / writes : -1);
+    }
+  }
+
+  /**
+   * Creates a DOT graph in the pieces in which the formatter would append it. Some of the node names contain non-ASCII
+   * characters.
+   */
+  private static List<String> createGraph(int edges) {
+    List<String> pieces = new ArrayList<>();
+    pieces.add("digraph \"performance\" {");
+    for (int i = 0; i < edges; i++) {
+      String from = "\"com.example:module-" + i % 100 + ":jar:compile\"";
+      String to = "\"com.example:artifact-" + i + (i % 10 == 0 ? "-ü€" : "") + ":jar:1.0.0:compile\"";
+      pieces.add("\n  ");
+      pieces.add(from);
+      pieces.add(" -> ");
+      pieces.add(to);
+      pieces.add("[label=\"compile\"]");
+    }
+    pieces.add("\n}");
+
+    return pieces;
+  }
+
+  private static void recordResult(GraphWrite write, int graphLength, int writes, long nanosPerWrite, long allocatedBytesPerWrite) throws IOException {
+    String line = String.format("%s,%s,%d,%d,%.3f,%d%n",
+        System.getProperty("java.version"), write.name(), graphLength, writes, nanosPerWrite / 1_000_000.0, allocatedBytesPerWrite);
+
+    if (!Files.exists(RESULT_FILE)) {
+      Files.write(RESULT_FILE, "javaVersion,variant,graphLength,writes,millisPerWrite,allocatedBytesPerWrite\n".getBytes(UTF_8));
+    }
+    Files.write(RESULT_FILE, line.getBytes(UTF_8), StandardOpenOption.APPEND);
+  }
+
+  private static long allocatedBytes() {
+    if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()) {
+      return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    return -1;
+  }
+
+  private enum GraphWrite {
+    GET_BYTES {
+      @Override
+      void write(String graph, List<String> pieces, Path file) throws IOException {
+        Files.write(file, graph.getBytes(StandardCharsets.UTF_8));
+      }
+    },
+
+    GRAPH_FILE_WRITER {
+      @Override
+      void write(String graph, List<String> pieces, Path file) throws IOException {
+        GraphFileWriter.write(graph, file, BUFFER_POOL);
+      }
+    },
+
+    GRAPH_FILE_WRITER_PIECES {
+      @Override
+      void write(String graph, List<String> pieces, Path file) throws IOException {
+        try (Writer writer = GraphFileWriter.open(file, BUFFER_POOL)) {
+          for (String piece : pieces) {
+            writer.append(piece);
+          }
+        }
+      }
+    },
+
+    OUTPUT_STREAM_WRITER_PIECES {
+      @Override
+      void write(String graph, List<String> pieces, Path file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 64 * 1024)) {
+          for (String piece : pieces) {
+            writer.append(piece);
+          }
+        }
+      }
+    };
+
+    abstract void write(String graph, List<String> pieces, Path file) throws IOException;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.google.common.base.Strings;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class GraphFileWriterTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder(Paths.get("target").toFile());
+
+  private final GraphFileWriter.BufferPool bufferPool = new GraphFileWriter.BufferPool();
+
+  @Test
+  public void ascii() throws IOException {
+    assertWritten("digraph \"test\" {\n  \"a\" -> \"b\"\n}");
+  }
+
+  @Test
+  public void nonAscii() throws IOException {
+    assertWritten("Grüße 日本 😀 end");
+  }
+
+  @Test
+  public void unpairedSurrogate() throws IOException {
+    assertWritten("a\ud83db\ude00c\ud83d");
+  }
+
+  @Test
+  public void empty() throws IOException {
+    assertWritten("");
+  }
+
+  @Test
+  public void largerThanBuffer() throws IOException {
+    // Surrogate pairs with an odd offset will span buffer boundaries
+    assertWritten("x" + Strings.repeat("\"node\" -> \"ä€😀\"\n", 50_000));
+  }
+
+  @Test
+  public void surrogatePairInSeparateWrites() throws IOException {
+    // arrange
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    // act
+    try (GraphFileWriter writer = new GraphFileWriter(this.bufferPool, Channels.newChannel(output))) {
+      writer.append("a\ud83d").append("\ude00b").append('\ud83d');
+    }
+
+    // assert
+    assertArrayEquals("a\ud83d\ude00b?".getBytes(UTF_8), output.toByteArray());
+  }
+
+  @Test
+  public void multipleChannels() throws IOException {
+    // arrange
+    String graph = Strings.repeat("\"a\" -> \"ü\"\n", 10_000);
+    ByteArrayOutputStream output1 = new ByteArrayOutputStream();
+    ByteArrayOutputStream output2 = new ByteArrayOutputStream();
+    GraphFileWriter writer = new GraphFileWriter(this.bufferPool, Channels.newChannel(output1), Channels.newChannel(output2));
+
+    // act
+    try (GraphFileWriter w = writer) {
+      w.append(graph);
+    }
+
+    // assert
+    byte[] expected = graph.getBytes(UTF_8);
+    assertArrayEquals(expected, output1.toByteArray());
+    assertArrayEquals(expected, output2.toByteArray());
+    assertEquals(expected.length, writer.getBytesWritten());
+  }
+
+  @Test
+  public void openWritersOfSamePool() throws IOException {
+    // arrange
+    ByteArrayOutputStream output1 = new ByteArrayOutputStream();
+    ByteArrayOutputStream output2 = new ByteArrayOutputStream();
+    new GraphFileWriter(this.bufferPool, Channels.newChannel(new ByteArrayOutputStream())).close();
+
+    // act
+    try (GraphFileWriter writer1 = new GraphFileWriter(this.bufferPool, Channels.newChannel(output1));
+        GraphFileWriter writer2 = new GraphFileWriter(this.bufferPool, Channels.newChannel(output2))) {
+      writer1.append("a -> b");
+      writer2.append("c -> d");
+    }
+
+    // assert
+    assertArrayEquals("a -> b".getBytes(UTF_8), output1.toByteArray());
+    assertArrayEquals("c -> d".getBytes(UTF_8), output2.toByteArray());
+  }
+
+  @Test(expected = IOException.class)
+  public void writeAfterClose() throws IOException {
+    // arrange
+    GraphFileWriter writer = new GraphFileWriter(this.bufferPool, Channels.newChannel(new ByteArrayOutputStream()));
+    writer.close();
+
+    // act
+    writer.append("a");
+  }
+
+  private void assertWritten(String graph) throws IOException {
+    // arrange
+    Path file = this.tmp.newFile().toPath();
+    Files.write(file, "previous content that is longer".getBytes(UTF_8));
+
+    // act
+    long bytesWritten = GraphFileWriter.write(graph, file, this.bufferPool);
+
+    // assert
+    byte[] expected = graph.getBytes(UTF_8);
+    assertArrayEquals(expected, Files.readAllBytes(file));
+    assertEquals(expected.length, bytesWritten);
+  }
+}
@@ -29,7 +29,11 @@ import io.takari.maven.testing.executor.MavenVersions;
 import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
 
 import static io.takari.maven.testing.TestResources.assertFileContents;
+import static io.takari.maven.testing.TestResources.assertFilesNotPresent;
 import static io.takari.maven.testing.TestResources.assertFilesPresent;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(MavenJUnitTestRunner.class)
 @MavenVersions({"3.3.9", "3.5.0"})
@@ -73,6 +77,30 @@ public class GraphIntegrationTest {
     assertFileContents(basedir, "expectations/graph_module-3.dot", "sub-parent/module-3/target/dependency-graph.dot");
   }
 
+  @Test
+  public void reactorGraphsInDot() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .execute("clean", "package", "depgraph:reactor-graphs");
+
+    result.assertErrorFreeLog();
+    result.assertLogText("Created dependency graphs for 5 projects.");
+    assertFilesPresent(
+        basedir,
+        "module-1/target/dependency-graph.dot",
+        "module-2/target/dependency-graph.dot",
+        "sub-parent/module-3/target/dependency-graph.dot",
+        "target/dependency-graph.dot",
+        "sub-parent/target/dependency-graph.dot");
+
+    assertFileContents(basedir, "expectations/graph_parent.dot", "target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/graph_module-1.dot", "module-1/target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/graph_module-2.dot", "module-2/target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/graph_sub-parent.dot", "sub-parent/target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/graph_module-3.dot", "sub-parent/module-3/target/dependency-graph.dot");
+  }
+
   @Test
   public void byGroupIdInDot() throws Exception {
     File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
@@ -96,6 +124,20 @@ public class GraphIntegrationTest {
     assertFileContents(basedir, "expectations/by-groupid_module-3.dot", "sub-parent/module-3/target/dependency-graph.dot");
   }
 
+  @Test
+  public void dependentsInDot() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DdependentsOf=*:guava")
+        .execute("clean", "package", "depgraph:dependents");
+
+    result.assertErrorFreeLog();
+    result.assertLogText("BUILD SUCCESS");
+    assertFilesPresent(basedir, "target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/dependents_parent.dot", "target/dependency-graph.dot");
+  }
+
   @Test
   public void exampleInDot() throws Exception {
     File basedir = this.resources.getBasedir("no-dependencies");
@@ -108,6 +150,20 @@ public class GraphIntegrationTest {
     assertFileContents(basedir, "expectations/example.dot", "target/dependency-graph.dot");
   }
 
+  @Test
+  public void generatedExampleInDot() throws Exception {
+    File basedir = this.resources.getBasedir("no-dependencies");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DexampleNodes=200")
+        .withCliOption("-Ddepgraph.metrics")
+        .execute("clean", "package", "depgraph:example");
+
+    result.assertErrorFreeLog();
+    result.assertLogText("Nodes: 200, Edges: ");
+    assertFilesPresent(basedir, "target/dependency-graph.dot");
+  }
+
   @Test
   public void customGraphStyle() throws Exception {
     File basedir = this.resources.getBasedir("single-dependency");
@@ -136,6 +192,135 @@ public class GraphIntegrationTest {
     assertFileContents(basedir, "expectations/aggregate-without-dependencies.gml", "target/dependency-graph.gml");
   }
 
+  @Test
+  public void aggregateFromFragments() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult resolvedResult = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DoutputOrder=sorted")
+        .withCliOption("-DoutputFileName=resolved")
+        .execute("clean", "package", "depgraph:aggregate");
+    MavenExecutionResult mergedResult = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DwriteFragment=true")
+        .withCliOption("-DuseFragments=true")
+        .withCliOption("-DoutputFileName=merged")
+        .execute("package", "depgraph:graph", "depgraph:aggregate");
+
+    resolvedResult.assertErrorFreeLog();
+    mergedResult.assertErrorFreeLog();
+    mergedResult.assertLogText("Using graph fragments of 4 of 4 modules.");
+    assertFilesPresent(basedir, "module-1/target/dependency-graph.fragment", "target/merged.dot");
+    assertFileContents(basedir, "target/resolved.dot", "target/merged.dot");
+  }
+
+  @Test
+  public void aggregateWithStaleFragments() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult fragmentResult = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DwriteFragment=true")
+        .execute("clean", "package", "depgraph:graph");
+    // sub-parent and module-3 depend on module-2, only the fragment of module-1 is still up to date
+    File module2Pom = new File(basedir, "module-2/pom.xml");
+    assertTrue(module2Pom.setLastModified(System.currentTimeMillis() + 60_000));
+    MavenExecutionResult mergedResult = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DuseFragments=true")
+        .execute("package", "depgraph:aggregate");
+
+    fragmentResult.assertErrorFreeLog();
+    mergedResult.assertErrorFreeLog();
+    mergedResult.assertLogText("Using graph fragments of 1 of 4 modules.");
+  }
+
+  @Test
+  public void aggregateWithSpilledEdges() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult inMemoryResult = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DoutputOrder=sorted")
+        .withCliOption("-DoutputFileName=in-memory")
+        .execute("clean", "package", "depgraph:aggregate");
+    MavenExecutionResult spilledResult = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DmaxEdgesInMemory=2")
+        .withCliOption("-DoutputFileName=spilled")
+        .execute("package", "depgraph:aggregate");
+
+    inMemoryResult.assertErrorFreeLog();
+    spilledResult.assertErrorFreeLog();
+    assertFileContents(basedir, "target/in-memory.dot", "target/spilled.dot");
+    assertThat(new File(basedir, "target/depgraph-edges").list(), emptyArray());
+  }
+
+  @Test
+  public void aggregateClusteredByModule() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DclusterBy=module")
+        .execute("clean", "package", "depgraph:aggregate");
+
+    result.assertErrorFreeLog();
+    assertFilesPresent(basedir, "target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/aggregate_clustered-by-module.dot", "target/dependency-graph.dot");
+  }
+
+  @Test
+  public void conflictReport() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DreportFormat=csv")
+        .execute("clean", "package", "depgraph:conflicts");
+
+    result.assertErrorFreeLog();
+    assertFilesPresent(basedir, "target/dependency-conflicts.csv");
+    assertFileContents(basedir, "expectations/conflicts.csv", "target/dependency-conflicts.csv");
+  }
+
+  @Test
+  public void aggregateWithDominators() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DhighlightDominators")
+        .execute("clean", "package", "depgraph:aggregate");
+
+    result.assertErrorFreeLog();
+    assertFilesPresent(basedir, "target/dependency-graph.dot");
+    assertFileContents(basedir, "expectations/aggregate_dominators.dot", "target/dependency-graph.dot");
+  }
+
+  @Test
+  public void dominatorReport() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .execute("clean", "package", "depgraph:dominators");
+
+    result.assertErrorFreeLog();
+    assertFilesPresent(
+        basedir,
+        "module-1/target/dependency-dominators.json",
+        "module-2/target/dependency-dominators.json",
+        "sub-parent/module-3/target/dependency-dominators.json");
+    assertFileContents(basedir, "expectations/dominators_module-3.json", "sub-parent/module-3/target/dependency-dominators.json");
+  }
+
+  @Test
+  public void dominatorReportWithConflicts() throws Exception {
+    File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-DshowConflicts")
+        .execute("clean", "package", "depgraph:dominators");
+
+    result.assertLogText("The dominator report cannot be combined with 'showConflicts' or 'showDuplicates'.");
+    assertFilesNotPresent(basedir, "module-1/target/dependency-dominators.json");
+  }
+
   @Test
   public void targetIncludes() throws Exception {
     File basedir = this.resources.getBasedir("depgraph-maven-plugin-test");
@@ -203,6 +388,22 @@ public class GraphIntegrationTest {
     assertFilesPresent(basedir, "target/my-graph.dot");
   }
 
+  @Test
+  public void metrics() throws Exception {
+    File basedir = this.resources.getBasedir("single-dependency");
+
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        .withCliOption("-Ddepgraph.metrics")
+        .withCliOption("-Ddepgraph.metricsJson=true")
+        .execute("clean", "package", "depgraph:graph");
+
+    result.assertErrorFreeLog();
+    result.assertLogText("Dependency resolution");
+    result.assertLogText("Nodes: 2, Edges: 1");
+    assertFilesPresent(basedir, "target/dependency-graph.dot", "target/dependency-graph-metrics.json");
+  }
+
   @Test
   public void useArtifactIdInFileName() throws Exception {
     File basedir = this.resources.getBasedir("single-dependency");
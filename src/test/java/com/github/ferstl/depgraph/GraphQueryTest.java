@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GraphQueryTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void parse() {
+    // act
+    GraphQuery query = GraphQuery.parse("module=com.example%3Amodule-1&depth=2&targetIncludes=com.google.*:*,+junit:*&format=svg");
+
+    // assert
+    assertEquals("com.example:module-1", query.getModule());
+    assertEquals(2, query.getDepth());
+    assertEquals(asList("com.google.*:*", "junit:*"), query.getTargetIncludes());
+    assertTrue(query.isSvg());
+    assertSame(GraphFormat.DOT, query.getGraphFormat());
+  }
+
+  @Test
+  public void defaults() {
+    // act
+    GraphQuery query = GraphQuery.parse(null);
+
+    // assert
+    assertNull(query.getModule());
+    assertEquals(0, query.getDepth());
+    assertTrue(query.getTargetIncludes().isEmpty());
+    assertFalse(query.isSvg());
+    assertSame(GraphFormat.DOT, query.getGraphFormat());
+    assertTrue(query.createGlobalFilter().include(createArtifact("any", "test")));
+  }
+
+  @Test
+  public void globalFilter() {
+    // arrange
+    GraphQuery query = GraphQuery.parse("scope=compile&includes=com.example:*&excludes=com.example:excluded&format=json");
+
+    // act
+    ArtifactFilter filter = query.createGlobalFilter();
+
+    // assert
+    assertSame(GraphFormat.JSON, query.getGraphFormat());
+    assertTrue(filter.include(createArtifact("included", "compile")));
+    assertFalse(filter.include(createArtifact("included", "test")));
+    assertFalse(filter.include(createArtifact("excluded", "compile")));
+  }
+
+  @Test
+  public void unknownParameter() {
+    // arrange
+    this.expectedException.expect(GraphQueryException.class);
+    this.expectedException.expectMessage("'modul'");
+
+    // act
+    GraphQuery.parse("modul=module-1");
+  }
+
+  @Test
+  public void invalidDepth() {
+    // arrange
+    GraphQuery query = GraphQuery.parse("depth=-1");
+    this.expectedException.expect(GraphQueryException.class);
+    this.expectedException.expectMessage("'-1'");
+
+    // act
+    query.getDepth();
+  }
+
+  private static Artifact createArtifact(String artifactId, String scope) {
+    return new DefaultArtifact("com.example", artifactId, "1.0.0", scope, "jar", "", null);
+  }
+}
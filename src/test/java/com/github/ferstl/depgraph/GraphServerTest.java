@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.google.common.io.ByteStreams;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class GraphServerTest {
+
+  private Log log;
+  private GraphServer server;
+  private String lastQuery;
+
+  @Before
+  public void before() throws IOException {
+    this.log = mock(Log.class);
+    this.server = new GraphServer(0, new GraphServer.RequestHandler() {
+
+      @Override
+      public GraphServer.Response handle(String query) throws Exception {
+        GraphServerTest.this.lastQuery = query;
+        if ("invalid".equals(query)) {
+          throw new GraphQueryException("Invalid query");
+        } else if ("failure".equals(query)) {
+          throw new IOException("boom");
+        } else if ("illegal".equals(query)) {
+          throw new IllegalArgumentException("bug");
+        }
+
+        return GraphServer.Response.ok("text/vnd.graphviz", "digraph \"test\" {}");
+      }
+    }, this.log);
+    this.server.start();
+  }
+
+  @After
+  public void after() {
+    this.server.stop();
+  }
+
+  @Test
+  public void ok() throws IOException {
+    // act
+    HttpURLConnection connection = get("?module=a%3Ab&depth=1");
+
+    // assert
+    assertEquals(200, connection.getResponseCode());
+    assertEquals("text/vnd.graphviz; charset=utf-8", connection.getContentType());
+    assertEquals("digraph \"test\" {}", read(connection.getInputStream()));
+    assertEquals("module=a%3Ab&depth=1", this.lastQuery);
+  }
+
+  @Test
+  public void badRequest() throws IOException {
+    // act
+    HttpURLConnection connection = get("?invalid");
+
+    // assert
+    assertEquals(400, connection.getResponseCode());
+    assertEquals("Invalid query\n", read(connection.getErrorStream()));
+  }
+
+  @Test
+  public void internalError() throws IOException {
+    // act
+    HttpURLConnection connection = get("?failure");
+
+    // assert
+    assertEquals(500, connection.getResponseCode());
+    assertEquals("Unable to create graph: boom\n", read(connection.getErrorStream()));
+    verify(this.log).error(anyString(), any(IOException.class));
+  }
+
+  @Test
+  public void illegalArgumentIsInternalError() throws IOException {
+    // act
+    HttpURLConnection connection = get("?illegal");
+
+    // assert
+    assertEquals(500, connection.getResponseCode());
+    assertEquals("Unable to create graph: bug\n", read(connection.getErrorStream()));
+  }
+
+  @Test
+  public void methodNotAllowed() throws IOException {
+    // arrange
+    HttpURLConnection connection = get("");
+    connection.setRequestMethod("DELETE");
+
+    // act/assert
+    assertEquals(405, connection.getResponseCode());
+  }
+
+  private HttpURLConnection get(String query) throws IOException {
+    return (HttpURLConnection) new URL("http://localhost:" + this.server.getPort() + "/" + query).openConnection();
+  }
+
+  private static String read(InputStream stream) throws IOException {
+    try (InputStream s = stream) {
+      return new String(ByteStreams.toByteArray(s), UTF_8);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.lang3.SystemUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * JUnit tests for {@link Graphviz}. A shell script simulates the dot executable by copying the graph into the image
+ * file.
+ */
+public class GraphvizTest {
+
+  @Rule
+  public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Log log;
+  private Path imageFile;
+
+  @Before
+  public void before() {
+    assumeTrue(SystemUtils.IS_OS_UNIX);
+    this.log = mock(Log.class);
+    this.imageFile = this.tempFolder.getRoot().toPath().resolve("graph.png");
+  }
+
+  @Test
+  public void renderFile() throws Exception {
+    // arrange
+    Path graphFile = this.tempFolder.newFile("graph.dot").toPath();
+    Files.write(graphFile, "digraph G {}".getBytes(StandardCharsets.UTF_8));
+    Graphviz graphviz = new Graphviz(createDotScript("cat \"$5\" > \"$4\"; echo done"), 0, this.log);
+
+    // act
+    graphviz.render(graphFile, singletonMap("png", this.imageFile));
+
+    // assert
+    assertEquals(asList("digraph G {}"), Files.readAllLines(this.imageFile, StandardCharsets.UTF_8));
+    verify(this.log).info("  dot> done");
+  }
+
+  @Test
+  public void stream() throws Exception {
+    // arrange
+    Graphviz graphviz = new Graphviz(createDotScript("cat > \"$4\""), 0, this.log);
+
+    // act
+    Graphviz.Execution execution = graphviz.start(singletonMap("png", this.imageFile));
+    execution.getInput().write("digraph G {}".getBytes(StandardCharsets.UTF_8));
+    execution.await();
+
+    // assert
+    assertEquals(asList("digraph G {}"), Files.readAllLines(this.imageFile, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void multipleFormats() throws Exception {
+    // arrange
+    Path graphFile = this.tempFolder.newFile("graph.dot").toPath();
+    Path svgFile = this.tempFolder.getRoot().toPath().resolve("graph.svg");
+    Map<String, Path> imageFiles = new LinkedHashMap<>();
+    imageFiles.put("png", this.imageFile);
+    imageFiles.put("svg", svgFile);
+    Graphviz graphviz = new Graphviz(createDotScript("echo \"$@\""), 0, this.log);
+
+    // act
+    graphviz.render(graphFile, imageFiles);
+
+    // assert
+    verify(this.log).info("  dot> -T png -o " + this.imageFile.toAbsolutePath() + " -T svg -o " + svgFile.toAbsolutePath() + " " + graphFile.toAbsolutePath());
+  }
+
+  @Test
+  public void abnormalTermination() throws Exception {
+    // arrange
+    Graphviz graphviz = new Graphviz(createDotScript("exit 3"), 0, this.log);
+
+    // act
+    try {
+      graphviz.start(singletonMap("png", this.imageFile)).await();
+      fail("Expect IOException");
+    } catch (IOException e) {
+      // assert
+      assertEquals("Graphviz terminated abnormally. Exit code: 3", e.getMessage());
+    }
+  }
+
+  @Test
+  public void timeout() throws Exception {
+    // arrange
+    Graphviz graphviz = new Graphviz(createDotScript("exec sleep 30"), 1, this.log);
+
+    // act
+    long start = System.nanoTime();
+    try {
+      graphviz.start(singletonMap("png", this.imageFile)).await();
+      fail("Expect IOException");
+    } catch (IOException e) {
+      // assert
+      assertEquals("Graphviz did not terminate within 1 seconds and was killed.", e.getMessage());
+    }
+
+    assertEquals(1, (System.nanoTime() - start) / 1_000_000_000L, 1);
+  }
+
+  private String createDotScript(String command) throws IOException {
+    Path script = this.tempFolder.newFile("dot.sh").toPath();
+    Files.write(script, ("#!/bin/sh\n" + command + "\n").getBytes(StandardCharsets.UTF_8));
+    script.toFile().setExecutable(true);
+
+    return script.toAbsolutePath().toString();
+  }
+}
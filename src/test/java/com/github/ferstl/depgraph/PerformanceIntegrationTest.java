@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import io.takari.maven.testing.executor.MavenExecutionResult;
+import io.takari.maven.testing.executor.MavenRuntime;
+import io.takari.maven.testing.executor.MavenRuntime.MavenRuntimeBuilder;
+import io.takari.maven.testing.executor.MavenVersions;
+import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
+
+import static io.takari.maven.testing.TestResources.assertFilesPresent;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the main goals on a generated reactor (see {@link ReactorGenerator}) and records the wall time and the peak heap
+ * usage of each goal in {@code target/depgraph-performance.csv}. The size of the reactor can be configured with the
+ * system properties {@code depgraph.perf.modules}, {@code depgraph.perf.artifacts}, {@code depgraph.perf.fanOut},
+ * {@code depgraph.perf.depth}, {@code depgraph.perf.conflictRate} and {@code depgraph.perf.duplicateRate}. The
+ * defaults are small enough for the regular build. {@code depgraph.perf.maxMillis} optionally defines the maximum wall
+ * time per goal.
+ */
+@RunWith(MavenJUnitTestRunner.class)
+@MavenVersions({"3.5.0"})
+public class PerformanceIntegrationTest {
+
+  private static final Path RESULT_FILE = Paths.get("target", "depgraph-performance.csv");
+
+  @Rule
+  public final TemporaryFolder tempFolder = new TemporaryFolder(Paths.get("target").toFile());
+
+  private final MavenRuntime mavenRuntime;
+
+  public PerformanceIntegrationTest(MavenRuntimeBuilder builder) throws Exception {
+    this.mavenRuntime = builder.build();
+  }
+
+  @Before
+  public void before() {
+    // Workaround for https://github.com/takari/takari-plugin-testing-project/issues/14
+    FileSystems.getDefault();
+  }
+
+  @Test
+  public void largeReactor() throws Exception {
+    // arrange
+    ReactorGenerator generator = new ReactorGenerator()
+        .modules(Integer.getInteger("depgraph.perf.modules", 20))
+        .artifacts(Integer.getInteger("depgraph.perf.artifacts", 100))
+        .fanOut(Integer.getInteger("depgraph.perf.fanOut", 3))
+        .depth(Integer.getInteger("depgraph.perf.depth", 4))
+        .conflictRate(Double.parseDouble(System.getProperty("depgraph.perf.conflictRate", "0.1")))
+        .duplicateRate(Double.parseDouble(System.getProperty("depgraph.perf.duplicateRate", "0.2")));
+    File basedir = this.tempFolder.newFolder("large-reactor").getAbsoluteFile();
+    generator.generate(basedir.toPath());
+
+    // act/assert
+    runGoal(generator, basedir, "depgraph:graph", "-DshowDuplicates=true", "-DshowConflicts=true");
+    assertFilesPresent(basedir, "target/dependency-graph.dot", "module-0/target/dependency-graph.dot");
+
+    runGoal(generator, basedir, "depgraph:aggregate", "-DoutputFileName=aggregate");
+    assertFilesPresent(basedir, "target/aggregate.dot");
+
+    runGoal(generator, basedir, "depgraph:by-groupid", "-DoutputFileName=by-groupid");
+    assertFilesPresent(basedir, "module-0/target/by-groupid.dot");
+  }
+
+  private void runGoal(ReactorGenerator generator, File basedir, String goal, String... options) throws Exception {
+    System.gc();
+    resetPeakHeapUsage();
+
+    // The package phase is required to resolve the reactor modules. It is fast since the modules have no sources.
+    long start = System.nanoTime();
+    MavenExecutionResult result = this.mavenRuntime
+        .forProject(basedir)
+        // Allows the file-based repository of the generated reactor in offline builds
+        .withCliOption("-Daether.offline.protocols=file")
+        .withCliOptions(options)
+        .execute("package", goal);
+    long wallTimeMillis = (System.nanoTime() - start) / 1_000_000;
+    long peakHeapBytes = getPeakHeapUsage();
+
+    result.assertErrorFreeLog();
+    result.assertLogText("BUILD SUCCESS");
+    recordResult(generator, goal, wallTimeMillis, peakHeapBytes);
+
+    String maxMillis = System.getProperty("depgraph.perf.maxMillis");
+    if (maxMillis != null) {
+      assertTrue(goal + " took " + wallTimeMillis + "ms", wallTimeMillis <= Long.parseLong(maxMillis));
+    }
+  }
+
+  private void recordResult(ReactorGenerator generator, String goal, long wallTimeMillis, long peakHeapBytes) throws Exception {
+    String line = String.format("%s,%s,%d,%d,%d,%d%n",
+        this.mavenRuntime.getMavenVersion(), goal, generator.getModules(), generator.getArtifacts(), wallTimeMillis, peakHeapBytes);
+
+    if (!Files.exists(RESULT_FILE)) {
+      Files.write(RESULT_FILE, "mavenVersion,goal,modules,artifacts,wallTimeMillis,peakHeapBytes\n".getBytes(StandardCharsets.UTF_8));
+    }
+    Files.write(RESULT_FILE, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+  }
+
+  private static void resetPeakHeapUsage() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long getPeakHeapUsage() {
+    // Maven runs embedded in this JVM. The sum of the pool peaks is an upper bound of the actual peak.
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+
+    return peak;
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates a synthetic multi-module reactor for performance tests. The external dependencies of the reactor are
+ * written to a file-based Maven repository within the generated project, so no network access is required.
+ * <ul>
+ * <li>The external artifacts are organized in {@code depth} layers. Each artifact depends on {@code fanOut} artifacts
+ * of the next layer. Each module depends on {@code fanOut} artifacts of the first layer and possibly on a previous
+ * module.</li>
+ * <li>Each external artifact exists in two versions. {@code conflictRate} is the probability that a dependency
+ * declares the second version, which leads to version conflicts.</li>
+ * <li>{@code duplicateRate} is the probability that a dependency points to the first artifact of a layer instead of a
+ * random one. This artifact is then reached over many paths, which leads to duplicates.</li>
+ * </ul>
+ * The generated reactor only depends on the seed and the configured sizes.
+ */
+final class ReactorGenerator {
+
+  static final String GROUP_ID = "com.github.ferstl.depgraph.perf";
+  private static final String REACTOR_VERSION = "1.0.0-SNAPSHOT";
+  private static final String[] VERSIONS = {"1.0", "1.1"};
+
+  private int modules = 10;
+  private int artifacts = 50;
+  private int fanOut = 3;
+  private int depth = 4;
+  private double conflictRate = 0.1;
+  private double duplicateRate = 0.2;
+  private long seed = 42;
+
+  ReactorGenerator modules(int modules) {
+    this.modules = modules;
+    return this;
+  }
+
+  ReactorGenerator artifacts(int artifacts) {
+    this.artifacts = artifacts;
+    return this;
+  }
+
+  ReactorGenerator fanOut(int fanOut) {
+    this.fanOut = fanOut;
+    return this;
+  }
+
+  ReactorGenerator depth(int depth) {
+    this.depth = depth;
+    return this;
+  }
+
+  ReactorGenerator conflictRate(double conflictRate) {
+    this.conflictRate = conflictRate;
+    return this;
+  }
+
+  ReactorGenerator duplicateRate(double duplicateRate) {
+    this.duplicateRate = duplicateRate;
+    return this;
+  }
+
+  ReactorGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  int getModules() {
+    return this.modules;
+  }
+
+  int getArtifacts() {
+    return this.artifacts;
+  }
+
+  /**
+   * Generates the reactor into the given directory. The repository is written to the {@code repository} sub
+   * directory.
+   *
+   * @param basedir Base directory of the reactor.
+   * @throws IOException In case a file cannot be written.
+   */
+  void generate(Path basedir) throws IOException {
+    if (this.depth < 1 || this.artifacts < this.depth) {
+      throw new IllegalArgumentException("At least one artifact per layer is required.");
+    }
+
+    Random random = new Random(this.seed);
+    Path repository = basedir.resolve("repository");
+
+    for (int i = 0; i < this.artifacts; i++) {
+      // Both versions have the same dependencies
+      String dependencies = createDependencies(nextLayerDependencies(getLayer(i) + 1, random), random);
+      for (String version : VERSIONS) {
+        writeArtifact(repository, i, version, dependencies);
+      }
+    }
+
+    List<String> moduleNames = new ArrayList<>();
+    for (int i = 0; i < this.modules; i++) {
+      String moduleName = "module-" + i;
+      moduleNames.add(moduleName);
+
+      StringBuilder dependencies = new StringBuilder(createDependencies(nextLayerDependencies(0, random), random));
+      if (i > 0 && random.nextBoolean()) {
+        appendDependency(dependencies, GROUP_ID, "module-" + random.nextInt(i), REACTOR_VERSION);
+      }
+      writeFile(basedir.resolve(moduleName).resolve("pom.xml"), createModulePom(moduleName, dependencies));
+    }
+
+    writeFile(basedir.resolve("pom.xml"), createParentPom(moduleNames, repository));
+  }
+
+  private List<Integer> nextLayerDependencies(int layer, Random random) {
+    List<Integer> dependencies = new ArrayList<>();
+    if (layer >= this.depth) {
+      return dependencies;
+    }
+
+    int first = getFirstArtifact(layer);
+    int size = getFirstArtifact(layer + 1) - first;
+    for (int i = 0; i < this.fanOut; i++) {
+      int artifact = random.nextDouble() < this.duplicateRate ? first : first + random.nextInt(size);
+      if (!dependencies.contains(artifact)) {
+        dependencies.add(artifact);
+      }
+    }
+
+    return dependencies;
+  }
+
+  private int getLayer(int artifact) {
+    return (int) ((long) artifact * this.depth / this.artifacts);
+  }
+
+  private int getFirstArtifact(int layer) {
+    // Inverse of getLayer()
+    return (int) (((long) layer * this.artifacts + this.depth - 1) / this.depth);
+  }
+
+  private String createDependencies(List<Integer> artifacts, Random random) {
+    StringBuilder dependencies = new StringBuilder();
+    for (int artifact : artifacts) {
+      String version = random.nextDouble() < this.conflictRate ? VERSIONS[1] : VERSIONS[0];
+      appendDependency(dependencies, getGroupId(artifact), getArtifactId(artifact), version);
+    }
+
+    return dependencies.toString();
+  }
+
+  private static void appendDependency(StringBuilder dependencies, String groupId, String artifactId, String version) {
+    dependencies
+        .append("    <dependency>\n")
+        .append("      <groupId>").append(groupId).append("</groupId>\n")
+        .append("      <artifactId>").append(artifactId).append("</artifactId>\n")
+        .append("      <version>").append(version).append("</version>\n")
+        .append("    </dependency>\n");
+  }
+
+  private void writeArtifact(Path repository, int artifact, String version, String dependencies) throws IOException {
+    String groupId = getGroupId(artifact);
+    String artifactId = getArtifactId(artifact);
+    Path directory = repository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+
+    String pom = "<project>\n"
+        + "  <modelVersion>4.0.0</modelVersion>\n"
+        + "  <groupId>" + groupId + "</groupId>\n"
+        + "  <artifactId>" + artifactId + "</artifactId>\n"
+        + "  <version>" + version + "</version>\n"
+        + "  <dependencies>\n" + dependencies + "  </dependencies>\n"
+        + "</project>\n";
+    writeFile(directory.resolve(artifactId + "-" + version + ".pom"), pom);
+    writeEmptyJar(directory.resolve(artifactId + "-" + version + ".jar"));
+  }
+
+  private static String createModulePom(String moduleName, CharSequence dependencies) {
+    return "<project>\n"
+        + "  <modelVersion>4.0.0</modelVersion>\n"
+        + "  <parent>\n"
+        + "    <groupId>" + GROUP_ID + "</groupId>\n"
+        + "    <artifactId>parent</artifactId>\n"
+        + "    <version>" + REACTOR_VERSION + "</version>\n"
+        + "  </parent>\n"
+        + "  <artifactId>" + moduleName + "</artifactId>\n"
+        + "  <dependencies>\n" + dependencies + "  </dependencies>\n"
+        + "</project>\n";
+  }
+
+  private static String createParentPom(List<String> moduleNames, Path repository) {
+    StringBuilder modules = new StringBuilder();
+    for (String moduleName : moduleNames) {
+      modules.append("    <module>").append(moduleName).append("</module>\n");
+    }
+
+    return "<project>\n"
+        + "  <modelVersion>4.0.0</modelVersion>\n"
+        + "  <groupId>" + GROUP_ID + "</groupId>\n"
+        + "  <artifactId>parent</artifactId>\n"
+        + "  <version>" + REACTOR_VERSION + "</version>\n"
+        + "  <packaging>pom</packaging>\n"
+        + "  <modules>\n" + modules + "  </modules>\n"
+        + "  <repositories>\n"
+        + "    <repository>\n"
+        + "      <id>depgraph-perf</id>\n"
+        + "      <url>" + repository.toUri() + "</url>\n"
+        + "      <releases><checksumPolicy>ignore</checksumPolicy></releases>\n"
+        + "    </repository>\n"
+        + "  </repositories>\n"
+        + "  <build>\n"
+        + "    <pluginManagement>\n"
+        + "      <plugins>\n"
+        + "        <plugin>\n"
+        + "          <groupId>com.github.ferstl</groupId>\n"
+        + "          <artifactId>depgraph-maven-plugin</artifactId>\n"
+        + "          <version>${it-plugin.version}</version>\n"
+        + "        </plugin>\n"
+        + "      </plugins>\n"
+        + "    </pluginManagement>\n"
+        + "  </build>\n"
+        + "</project>\n";
+  }
+
+  private static String getGroupId(int artifact) {
+    // Ten artifacts per group, so that the group ID graphs are not trivial
+    return GROUP_ID + ".group" + (artifact / 10);
+  }
+
+  private static String getArtifactId(int artifact) {
+    return "artifact-" + artifact;
+  }
+
+  private static void writeFile(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void writeEmptyJar(Path file) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+    try (OutputStream os = Files.newOutputStream(file); JarOutputStream jar = new JarOutputStream(os, manifest)) {
+      jar.flush();
+    }
+  }
+}
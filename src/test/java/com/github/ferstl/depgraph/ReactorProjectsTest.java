@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReactorProjectsTest {
+
+  private static final String RELOADED = "reloaded";
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  private MavenProject parent;
+  private MavenProject module1;
+  private MavenProject module2;
+  private ReactorProjects reactorProjects;
+
+  @Before
+  public void before() throws Exception {
+    this.parent = createProject("parent", this.tmp.newFolder("parent"), "module-1", "module-2");
+    this.module1 = createProject("module-1", this.tmp.newFolder("parent", "module-1"));
+    this.module2 = createProject("module-2", this.tmp.newFolder("parent", "module-2"));
+    this.module1.setParent(this.parent);
+    this.module2.setParent(this.parent);
+    this.parent.setCollectedProjects(asList(this.module1, this.module2));
+
+    ProjectBuilder projectBuilder = mock(ProjectBuilder.class);
+    when(projectBuilder.build(ArgumentMatchers.<File>anyList(), eq(false), any(ProjectBuildingRequest.class))).thenAnswer(new ReloadingAnswer());
+
+    this.reactorProjects = new ReactorProjects(this.parent, projectBuilder, mock(ProjectBuildingRequest.class));
+  }
+
+  @Test
+  public void findProject() {
+    assertSame(this.parent, this.reactorProjects.getRoot());
+    assertSame(this.module1, this.reactorProjects.findProject("module-1"));
+    assertSame(this.module2, this.reactorProjects.findProject("com.example:module-2"));
+    assertNull(this.reactorProjects.findProject("module-3"));
+  }
+
+  @Test
+  public void modifiedPomFiles() throws Exception {
+    // arrange
+    Path pomFile = touch(this.module1);
+
+    // act
+    List<Path> modifiedPomFiles = new ArrayList<>(this.reactorProjects.getModifiedPomFiles());
+    this.reactorProjects.reload(modifiedPomFiles);
+
+    // assert
+    assertThat(modifiedPomFiles, contains(pomFile));
+    assertThat(this.reactorProjects.getModifiedPomFiles(), empty());
+  }
+
+  @Test
+  public void reloadModule() throws Exception {
+    // arrange
+    Path pomFile = touch(this.module2);
+
+    // act
+    List<MavenProject> reloadedProjects = this.reactorProjects.reload(Collections.singleton(pomFile));
+
+    // assert
+    assertEquals(singletonList(this.module2), reloadedProjects);
+    assertEquals(RELOADED, this.module2.getDescription());
+    assertNull(this.module1.getDescription());
+    assertNull(this.parent.getDescription());
+    assertEquals(asList(this.parent, this.module1, this.module2), this.reactorProjects.getProjects());
+  }
+
+  @Test
+  public void reloadInheritingProjects() throws Exception {
+    // arrange
+    Path pomFile = touch(this.parent);
+
+    // act
+    List<MavenProject> reloadedProjects = this.reactorProjects.reload(Collections.singleton(pomFile));
+
+    // assert
+    assertEquals(asList(this.parent, this.module1, this.module2), reloadedProjects);
+    assertEquals(RELOADED, this.parent.getDescription());
+    assertEquals(RELOADED, this.module1.getDescription());
+    assertEquals(RELOADED, this.module2.getDescription());
+  }
+
+  @Test
+  public void reloadUnknownPomFile() throws Exception {
+    // act
+    List<MavenProject> reloadedProjects = this.reactorProjects.reload(Collections.singleton(this.tmp.newFile().toPath()));
+
+    // assert
+    assertThat(reloadedProjects, empty());
+    assertNull(this.module1.getDescription());
+  }
+
+  private static MavenProject createProject(String artifactId, File basedir, String... modules) throws IOException {
+    File pomFile = new File(basedir, "pom.xml");
+    pomFile.createNewFile();
+    pomFile.setLastModified(1_000_000);
+
+    return createProject(artifactId, pomFile, asList(modules));
+  }
+
+  private static MavenProject createProject(String artifactId, File pomFile, List<String> modules) {
+    MavenProject project = new MavenProject();
+    project.setGroupId("com.example");
+    project.setArtifactId(artifactId);
+    project.getModel().setModules(modules);
+    project.setFile(pomFile);
+
+    return project;
+  }
+
+  private static Path touch(MavenProject project) {
+    File pomFile = project.getFile();
+    pomFile.setLastModified(2_000_000);
+    return pomFile.toPath().toAbsolutePath().normalize();
+  }
+
+  /**
+   * Creates a copy with a different description for each project whose POM file is reloaded.
+   */
+  private class ReloadingAnswer implements Answer<List<ProjectBuildingResult>> {
+
+    @Override
+    public List<ProjectBuildingResult> answer(InvocationOnMock invocation) throws Throwable {
+      List<File> pomFiles = invocation.getArgument(0);
+      List<ProjectBuildingResult> results = new ArrayList<>();
+      for (MavenProject project : ReactorProjectsTest.this.reactorProjects.getProjects()) {
+        if (pomFiles.contains(project.getFile())) {
+          MavenProject reloadedProject = createProject(project.getArtifactId(), project.getFile(), project.getModules());
+          reloadedProject.setDescription(RELOADED);
+          ProjectBuildingResult result = mock(ProjectBuildingResult.class);
+          when(result.getPomFile()).thenReturn(project.getFile());
+          when(result.getProject()).thenReturn(reloadedProject);
+          results.add(result);
+        }
+      }
+
+      return results;
+    }
+  }
+}
@@ -16,6 +16,7 @@
 package com.github.ferstl.depgraph.dependency;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
@@ -25,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentMatchers;
 import com.github.ferstl.depgraph.ToStringNodeIdRenderer;
+import com.github.ferstl.depgraph.graph.ConcurrentGraphBuilder;
 import com.github.ferstl.depgraph.graph.GraphBuilder;
 
 import static com.github.ferstl.depgraph.graph.GraphBuilderMatcher.emptyGraph;
@@ -88,7 +90,7 @@ public class AggregatingGraphFactoryTest {
     createMavenProject("child1", parent);
     createMavenProject("child2", parent);
 
-    graphFactory.createGraph(parent);
+    graphFactory.createGraph(parent, new StringBuilder());
 
     assertThat(this.graphBuilder, hasNodesAndEdges(
         new String[]{
@@ -117,7 +119,7 @@ public class AggregatingGraphFactoryTest {
     MavenProject child1 = createMavenProject("child1", parent);
     MavenProject child2 = createMavenProject("child2", parent);
 
-    graphFactory.createGraph(parent);
+    graphFactory.createGraph(parent, new StringBuilder());
 
     verify(this.dependencyGraphBuilder, never()).buildDependencyGraph(parent, this.globalFilter);
     verify(this.dependencyGraphBuilder).buildDependencyGraph(child1, this.globalFilter);
@@ -141,7 +143,7 @@ public class AggregatingGraphFactoryTest {
    * </pre>
    */
   @Test
-  public void nestedProjects() {
+  public void nestedProjects() throws Exception {
     AggregatingGraphFactory graphFactory = new AggregatingGraphFactory(this.adapter, this.globalFilter, this.graphBuilder, true);
 
     MavenProject parent = createMavenProject("parent");
@@ -151,7 +153,7 @@ public class AggregatingGraphFactoryTest {
     createMavenProject("child2-1", subParent);
     createMavenProject("child2-2", subParent);
 
-    graphFactory.createGraph(parent);
+    graphFactory.createGraph(parent, new StringBuilder());
 
     assertThat(this.graphBuilder, hasNodesAndEdges(
         new String[]{
@@ -185,7 +187,7 @@ public class AggregatingGraphFactoryTest {
     MavenProject parent = createMavenProject("parent", parentParent);
     createMavenProject("child", parent);
 
-    graphFactory.createGraph(parent);
+    graphFactory.createGraph(parent, new StringBuilder());
 
     assertThat(this.graphBuilder, hasNodesAndEdges(
         new String[]{
@@ -208,7 +210,7 @@ public class AggregatingGraphFactoryTest {
    * </pre>
    */
   @Test
-  public void filteredParent() {
+  public void filteredParent() throws Exception {
     AggregatingGraphFactory graphFactory = new AggregatingGraphFactory(this.adapter, this.globalFilter, this.graphBuilder, true);
 
     MavenProject parent = createMavenProject("parent");
@@ -220,7 +222,7 @@ public class AggregatingGraphFactoryTest {
 
     when(this.globalFilter.include(subParent.getArtifact())).thenReturn(false);
 
-    graphFactory.createGraph(parent);
+    graphFactory.createGraph(parent, new StringBuilder());
 
     assertThat(this.graphBuilder, hasNodesAndEdges(
         new String[]{
@@ -251,7 +253,7 @@ public class AggregatingGraphFactoryTest {
 
     when(this.globalFilter.include(child1.getArtifact())).thenReturn(false);
 
-    graphFactory.createGraph(parent);
+    graphFactory.createGraph(parent, new StringBuilder());
 
     // graph builder must not be invoked for child1
     verify(this.dependencyGraphBuilder, never()).buildDependencyGraph(child1, this.globalFilter);
@@ -266,6 +268,82 @@ public class AggregatingGraphFactoryTest {
             "\"groupId:parent:jar:version:compile\" -> \"groupId:child2:jar:version:compile\"[style=dotted]"}));
   }
 
+  /**
+   * .
+   * <pre>
+   * parent
+   * - child1
+   * - child2
+   * - child3
+   * built in parallel
+   * </pre>
+   */
+  @Test
+  public void parallel() throws Exception {
+    this.graphBuilder = ConcurrentGraphBuilder.create(ToStringNodeIdRenderer.INSTANCE, DependencyNodeMerger.INSTANCE);
+    AggregatingGraphFactory graphFactory = new AggregatingGraphFactory(this.adapter, this.globalFilter, this.graphBuilder, true, 2);
+
+    MavenProject parent = createMavenProject("parent");
+    MavenProject child1 = createMavenProject("child1", parent);
+    MavenProject child2 = createMavenProject("child2", parent);
+    MavenProject child3 = createMavenProject("child3", parent);
+
+    graphFactory.createGraph(parent, new StringBuilder());
+
+    verify(this.dependencyGraphBuilder).buildDependencyGraph(child1, this.globalFilter);
+    verify(this.dependencyGraphBuilder).buildDependencyGraph(child2, this.globalFilter);
+    verify(this.dependencyGraphBuilder).buildDependencyGraph(child3, this.globalFilter);
+
+    assertThat(this.graphBuilder, hasNodesAndEdges(
+        new String[]{
+            "\"groupId:child1:jar:version:compile\"",
+            "\"groupId:child2:jar:version:compile\"",
+            "\"groupId:child3:jar:version:compile\"",
+            "\"groupId:parent:jar:version:compile\""},
+        new String[]{
+            "\"groupId:parent:jar:version:compile\" -> \"groupId:child1:jar:version:compile\"[style=dotted]",
+            "\"groupId:parent:jar:version:compile\" -> \"groupId:child2:jar:version:compile\"[style=dotted]",
+            "\"groupId:parent:jar:version:compile\" -> \"groupId:child3:jar:version:compile\"[style=dotted]"}));
+  }
+
+  /**
+   * .
+   * <pre>
+   * parent
+   * - child1 (fragment)
+   * - child2
+   * </pre>
+   */
+  @Test
+  public void fragments() throws Exception {
+    AggregatingGraphFactory graphFactory = new AggregatingGraphFactory(this.adapter, this.globalFilter, this.graphBuilder, false);
+
+    MavenProject parent = createMavenProject("parent");
+    MavenProject child1 = createMavenProject("child1", parent);
+    MavenProject child2 = createMavenProject("child2", parent);
+
+    DependencyNode child1Node = new DependencyNode(child1.getArtifact());
+    DependencyNode guavaNode = new DependencyNode(new DefaultArtifact("groupId", "guava", "version", "compile", "jar", "", null));
+    GraphFragment fragment = GraphFragment.create(GraphFragment.createGraphBuilder().addEdge(child1Node, guavaNode), "");
+    graphFactory.setFragments(Collections.singletonMap(child1, fragment));
+
+    graphFactory.createGraph(parent, new StringBuilder());
+
+    verify(this.dependencyGraphBuilder, never()).buildDependencyGraph(child1, this.globalFilter);
+    verify(this.dependencyGraphBuilder).buildDependencyGraph(child2, this.globalFilter);
+
+    assertThat(this.graphBuilder, hasNodesAndEdges(
+        new String[]{
+            "\"groupId:child1:jar:version:compile\"",
+            "\"groupId:guava:jar:version:compile\""},
+        new String[]{
+            "\"groupId:child1:jar:version:compile\" -> \"groupId:guava:jar:version:compile\""}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void parallelWithoutConcurrentGraphBuilder() {
+    new AggregatingGraphFactory(this.adapter, this.globalFilter, this.graphBuilder, true, 2);
+  }
 
   private MavenProject createMavenProject(String artifactId) {
     MavenProject project = new MavenProject();
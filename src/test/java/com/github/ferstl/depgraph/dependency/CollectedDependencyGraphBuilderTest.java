@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.artifact.filter.StrictPatternExcludesArtifactFilter;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * JUnit tests for {@link CollectedDependencyGraphBuilder}.
+ */
+public class CollectedDependencyGraphBuilderTest {
+
+  private DependencyGraphBuilder dependencyGraphBuilder;
+  private CollectedDependencyGraphBuilder collectedDependencyGraphBuilder;
+  private MavenProject project;
+  private Artifact guava;
+  private Artifact junit;
+  private Artifact hamcrest;
+
+  @Before
+  public void before() {
+    this.dependencyGraphBuilder = mock(DependencyGraphBuilder.class);
+    this.collectedDependencyGraphBuilder = new CollectedDependencyGraphBuilder(this.dependencyGraphBuilder);
+
+    this.project = new MavenProject();
+    Artifact projectArtifact = createArtifact("module-1", "compile");
+    this.project.setArtifact(projectArtifact);
+    this.project.setDependencies(Arrays.asList(new Dependency(), new Dependency()));
+
+    // module-1 -> guava, module-1 -> junit -> hamcrest
+    this.guava = createArtifact("guava", "compile", projectArtifact);
+    this.junit = createArtifact("junit", "test", projectArtifact);
+    this.hamcrest = createArtifact("hamcrest", "test", projectArtifact, this.junit);
+  }
+
+  @Test
+  public void collectedDependencies() throws Exception {
+    // arrange
+    this.project.setArtifacts(new LinkedHashSet<>(Arrays.asList(this.guava, this.junit, this.hamcrest)));
+
+    // act
+    DependencyNode root = this.collectedDependencyGraphBuilder.buildDependencyGraph(this.project, null);
+
+    // assert
+    verify(this.dependencyGraphBuilder, never()).buildDependencyGraph(this.project, null);
+    assertSame(this.project.getArtifact(), root.getArtifact());
+    assertEquals(2, root.getChildren().size());
+    assertSame(this.guava, root.getChildren().get(0).getArtifact());
+    assertSame(this.junit, root.getChildren().get(1).getArtifact());
+    assertSame(this.hamcrest, root.getChildren().get(1).getChildren().get(0).getArtifact());
+  }
+
+  @Test
+  public void filteredDependencies() throws Exception {
+    // arrange
+    this.project.setArtifacts(new LinkedHashSet<>(Arrays.asList(this.guava, this.junit, this.hamcrest)));
+    ArtifactFilter filter = new StrictPatternExcludesArtifactFilter(Collections.singletonList("*:junit"));
+
+    // act
+    DependencyNode root = this.collectedDependencyGraphBuilder.buildDependencyGraph(this.project, filter);
+
+    // assert
+    assertEquals(1, root.getChildren().size());
+    assertSame(this.guava, root.getChildren().get(0).getArtifact());
+  }
+
+  @Test
+  public void notCollected() throws Exception {
+    // arrange
+    DependencyNode resolvedRoot = mock(DependencyNode.class);
+    when(this.dependencyGraphBuilder.buildDependencyGraph(this.project, null)).thenReturn(resolvedRoot);
+
+    // act
+    DependencyNode root = this.collectedDependencyGraphBuilder.buildDependencyGraph(this.project, null);
+
+    // assert
+    assertSame(resolvedRoot, root);
+  }
+
+  @Test
+  public void incompleteTrail() throws Exception {
+    // arrange
+    this.project.setArtifacts(new LinkedHashSet<>(Arrays.asList(this.guava, this.hamcrest)));
+    DependencyNode resolvedRoot = mock(DependencyNode.class);
+    when(this.dependencyGraphBuilder.buildDependencyGraph(this.project, null)).thenReturn(resolvedRoot);
+
+    // act
+    DependencyNode root = this.collectedDependencyGraphBuilder.buildDependencyGraph(this.project, null);
+
+    // assert
+    assertSame(resolvedRoot, root);
+  }
+
+  private static Artifact createArtifact(String artifactId, String scope, Artifact... trail) {
+    Artifact artifact = new DefaultArtifact("groupId", artifactId, "1.0.0", scope, "jar", "", null);
+
+    List<String> dependencyTrail = new ArrayList<>();
+    for (Artifact trailElement : trail) {
+      dependencyTrail.add(trailElement.getId());
+    }
+    dependencyTrail.add(artifact.getId());
+    artifact.setDependencyTrail(dependencyTrail);
+
+    return artifact;
+  }
+}
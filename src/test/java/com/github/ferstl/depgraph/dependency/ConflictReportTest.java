@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.shared.dependency.tree.DependencyNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConflictReportTest {
+
+  private ArtifactFilter globalFilter;
+  private ConflictReport report;
+
+  @Before
+  public void before() {
+    this.globalFilter = mock(ArtifactFilter.class);
+    when(this.globalFilter.include(ArgumentMatchers.<Artifact>any())).thenReturn(true);
+
+    this.report = new ConflictReport();
+  }
+
+  @Test
+  public void csv() {
+    // arrange
+    DependencyNode root = new DependencyNode(createArtifact("module", "1.0"));
+    DependencyNode a = new DependencyNode(createArtifact("a", "1.0"));
+    DependencyNode b = new DependencyNode(createArtifact("b", "1.0"));
+    root.addChild(a);
+    root.addChild(b);
+    a.addChild(new DependencyNode(createArtifact("lib", "10.0")));
+    b.addChild(new DependencyNode(createArtifact("lib", "9.0"), DependencyNode.OMITTED_FOR_CONFLICT, createArtifact("lib", "10.0")));
+    b.addChild(new DependencyNode(createArtifact("a", "1.0"), DependencyNode.OMITTED_FOR_DUPLICATE, createArtifact("a", "1.0")));
+
+    // act
+    this.report.addDependencyTree(root, this.globalFilter);
+    String csv = this.report.format(ConflictReport.Format.CSV);
+
+    // assert
+    assertEquals("groupId,artifactId,effectiveVersions,requestedVersion,path\n"
+        + "groupId,lib,10.0,9.0,groupId:module:1.0 > groupId:b:1.0\n"
+        + "groupId,lib,10.0,10.0,groupId:module:1.0 > groupId:a:1.0\n", csv);
+  }
+
+  @Test
+  public void json() {
+    // arrange
+    DependencyNode root1 = new DependencyNode(createArtifact("module-1", "1.0"));
+    root1.addChild(new DependencyNode(createArtifact("lib", "2.0")));
+    DependencyNode root2 = new DependencyNode(createArtifact("module-2", "1.0"));
+    DependencyNode a = new DependencyNode(createArtifact("a", "1.0"));
+    root2.addChild(a);
+    root2.addChild(new DependencyNode(createArtifact("lib", "1.0")));
+    a.addChild(new DependencyNode(createArtifact("lib", "2.0"), DependencyNode.OMITTED_FOR_CONFLICT, createArtifact("lib", "1.0")));
+
+    // act
+    this.report.addDependencyTree(root1, this.globalFilter);
+    this.report.addDependencyTree(root2, this.globalFilter);
+    String json = this.report.format(ConflictReport.Format.JSON);
+
+    // assert
+    assertEquals("[ {\n"
+        + "  \"groupId\" : \"groupId\",\n"
+        + "  \"artifactId\" : \"lib\",\n"
+        + "  \"effectiveVersions\" : [ \"1.0\", \"2.0\" ],\n"
+        + "  \"requestedVersions\" : [ {\n"
+        + "    \"version\" : \"1.0\",\n"
+        + "    \"paths\" : [ [ \"groupId:module-2:1.0\" ] ]\n"
+        + "  }, {\n"
+        + "    \"version\" : \"2.0\",\n"
+        + "    \"paths\" : [ [ \"groupId:module-1:1.0\" ], [ \"groupId:module-2:1.0\", \"groupId:a:1.0\" ] ]\n"
+        + "  } ]\n"
+        + "} ]", json.replace("\r\n", "\n"));
+  }
+
+  @Test
+  public void noConflicts() {
+    // arrange
+    DependencyNode root = new DependencyNode(createArtifact("module", "1.0"));
+    root.addChild(new DependencyNode(createArtifact("a", "1.0")));
+
+    // act
+    this.report.addDependencyTree(root, this.globalFilter);
+
+    // assert
+    assertEquals("[ ]", this.report.format(ConflictReport.Format.JSON));
+  }
+
+  private static Artifact createArtifact(String artifactId, String version) {
+    return new DefaultArtifact("groupId", artifactId, version, "compile", "jar", "", null);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.dependency.graph.DependencyGraphBuilder;
+import org.apache.maven.shared.dependency.graph.DependencyNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JUnit tests for {@link DependencyGraphCache}.
+ */
+public class DependencyGraphCacheTest {
+
+  private DependencyGraphBuilder dependencyGraphBuilder;
+  private DependencyGraphCache cache;
+
+  private MavenProject module1;
+  private MavenProject module2;
+  private MavenProject module3;
+
+  @Before
+  public void before() throws Exception {
+    this.dependencyGraphBuilder = mock(DependencyGraphBuilder.class);
+    this.cache = new DependencyGraphCache(this.dependencyGraphBuilder);
+
+    // module-2 -> module-1 -> guava, module-3 -> junit
+    this.module1 = createProject("module-1", createNode("guava"));
+    this.module2 = createProject("module-2", createNode("module-1", createNode("guava")));
+    this.module3 = createProject("module-3", createNode("junit"));
+  }
+
+  @Test
+  public void getDependencyGraph() {
+    // act
+    DependencyNode root1 = this.cache.getDependencyGraph(this.module1);
+    DependencyNode root2 = this.cache.getDependencyGraph(this.module1);
+
+    // assert
+    assertSame(root1, root2);
+  }
+
+  @Test
+  public void invalidate() {
+    // arrange
+    DependencyNode root1 = this.cache.getDependencyGraph(this.module1);
+    DependencyNode root2 = this.cache.getDependencyGraph(this.module2);
+    DependencyNode root3 = this.cache.getDependencyGraph(this.module3);
+
+    // act
+    this.cache.invalidate(this.module1);
+
+    // assert
+    assertNotSame(root1, this.cache.getDependencyGraph(this.module1));
+    assertNotSame(root2, this.cache.getDependencyGraph(this.module2));
+    assertSame(root3, this.cache.getDependencyGraph(this.module3));
+  }
+
+  private MavenProject createProject(String artifactId, DependencyNode... children) throws Exception {
+    MavenProject project = new MavenProject();
+    project.setGroupId("groupId");
+    project.setArtifactId(artifactId);
+    project.setVersion("1.0.0");
+
+    // Return a new root on each resolution
+    DependencyNode root1 = createNode(artifactId, children);
+    DependencyNode root2 = createNode(artifactId, children);
+    when(this.dependencyGraphBuilder.buildDependencyGraph(ArgumentMatchers.eq(project), ArgumentMatchers.<ArtifactFilter>any())).thenReturn(root1, root2);
+
+    return project;
+  }
+
+  private static DependencyNode createNode(String artifactId, DependencyNode... children) {
+    Artifact artifact = new DefaultArtifact("groupId", artifactId, "1.0.0", "compile", "jar", "", null);
+    DependencyNode node = mock(DependencyNode.class);
+    when(node.getArtifact()).thenReturn(artifact);
+    when(node.getChildren()).thenReturn(children.length > 0 ? Arrays.asList(children) : Collections.<DependencyNode>emptyList());
+
+    return node;
+  }
+}
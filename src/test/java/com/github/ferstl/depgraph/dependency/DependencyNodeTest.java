@@ -20,10 +20,12 @@ import org.apache.maven.artifact.DefaultArtifact;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import com.google.common.collect.ImmutableSet;
 
 import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * JUnit tests for {@link DependencyNode}.
@@ -83,6 +85,35 @@ public class DependencyNodeTest {
 
     DependencyNode adapter = new DependencyNode(artifact);
     assertEquals("compile", adapter.getArtifact().getScope());
+    assertEquals(ImmutableSet.of("compile"), adapter.getScopes());
+    // The original artifact must not be modified
+    assertNull(artifact.getScope());
+  }
+
+  @Test
+  public void mergeScopes() {
+    Artifact testArtifact = createArtifact();
+    testArtifact.setScope("test");
+    DependencyNode adapter = new DependencyNode(createArtifact());
+
+    adapter.merge(new DependencyNode(testArtifact));
+    adapter.merge(adapter);
+
+    assertEquals(ImmutableSet.of("compile", "test"), adapter.getScopes());
+  }
+
+  @Test
+  public void mergePrunedDependencies() {
+    DependencyNode pruned = new DependencyNode(createArtifact());
+    pruned.setPrunedDependencies(3);
+    DependencyNode otherPruned = new DependencyNode(createArtifact());
+    otherPruned.setPrunedDependencies(2);
+
+    pruned.merge(otherPruned);
+    assertEquals(2, pruned.getPrunedDependencies());
+
+    pruned.merge(new DependencyNode(createArtifact()));
+    assertEquals(0, pruned.getPrunedDependencies());
   }
 
   @Test
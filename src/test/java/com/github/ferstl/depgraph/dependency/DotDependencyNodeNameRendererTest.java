@@ -134,4 +134,18 @@ public class DotDependencyNodeNameRendererTest {
     // assert
     assertEquals("[label=<artifactId<br/>version>]", result);
   }
+
+  @Test
+  public void renderPrunedDependencies() {
+    // arrange
+    DependencyNode node = createDependencyNode("groupId", "artifactId", "version");
+    node.setPrunedDependencies(2);
+    DotDependencyNodeNameRenderer renderer = new DotDependencyNodeNameRenderer(false, true, false, this.styleConfiguration);
+
+    // act
+    String result = renderer.render(node);
+
+    // assert
+    assertEquals("[label=<artifactId<br/>+2 transitive>]", result);
+  }
 }
@@ -138,4 +138,21 @@ public class GmlDependencyNodeNameRendererTest {
 
     assertEquals(expected, result);
   }
+
+  @Test
+  public void renderPrunedDependencies() {
+    // arrange
+    DependencyNode node = createDependencyNode("groupId", "artifactId", "version");
+    node.setPrunedDependencies(2);
+    GmlDependencyNodeNameRenderer renderer = new GmlDependencyNodeNameRenderer(false, true, false);
+
+    // act
+    String result = renderer.render(node);
+
+    // assert
+    String expected = "label \"artifactId\n"
+        + "+2 transitive\"";
+
+    assertEquals(expected, result);
+  }
 }
@@ -28,6 +28,7 @@ import com.github.ferstl.depgraph.graph.GraphBuilder;
 
 import static com.github.ferstl.depgraph.graph.GraphBuilderMatcher.hasNodesAndEdges;
 import static java.util.EnumSet.allOf;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -202,6 +203,72 @@ public class GraphBuildingVisitorTest {
         }));
   }
 
+  /**
+   * .
+   * <pre>
+   * parent
+   * - child1
+   *   - child2 (pruned)
+   *     - child3 (pruned)
+   * </pre>
+   */
+  @Test
+  public void maxDepth() {
+    org.apache.maven.shared.dependency.graph.DependencyNode child3 = createGraphNode("child3");
+    org.apache.maven.shared.dependency.graph.DependencyNode child2 = createGraphNode("child2", child3);
+    org.apache.maven.shared.dependency.graph.DependencyNode child1 = createGraphNode("child1", child2);
+    org.apache.maven.shared.dependency.graph.DependencyNode parent = createGraphNode("parent", child1);
+
+    this.visitor.setMaxDepth(1);
+
+    assertTrue(this.visitor.visit(parent));
+
+    // Don't process any children of child1
+    assertFalse(this.visitor.visit(child1));
+    assertTrue(this.visitor.endVisit(child1));
+    assertTrue(this.visitor.endVisit(parent));
+
+    assertThat(this.graphBuilder, hasNodesAndEdges(
+        new String[]{
+            "\"groupId:parent:jar:version:compile\"[label=\"groupId:parent:jar:version:compile\"]",
+            "\"groupId:child1:jar:version:compile\"[label=\"groupId:child1:jar:version:compile\"]"},
+        new String[]{
+            "\"groupId:parent:jar:version:compile\" -> \"groupId:child1:jar:version:compile\""}));
+  }
+
+  /**
+   * .
+   * <pre>
+   * parent
+   * - child1
+   *   - child2 (pruned)
+   *     - child3 (pruned)
+   * </pre>
+   */
+  @Test
+  public void maxDepthWithPrunedDependencies() {
+    org.apache.maven.shared.dependency.graph.DependencyNode child3 = createGraphNode("child3");
+    org.apache.maven.shared.dependency.graph.DependencyNode child2 = createGraphNode("child2", child3);
+    org.apache.maven.shared.dependency.graph.DependencyNode child1 = createGraphNode("child1", child2);
+    org.apache.maven.shared.dependency.graph.DependencyNode parent = createGraphNode("parent", child1);
+
+    this.visitor.setMaxDepth(1);
+    this.visitor.setShowPrunedDependencies(true);
+
+    assertTrue(this.visitor.visit(parent));
+    assertFalse(this.visitor.visit(child1));
+    assertTrue(this.visitor.endVisit(child1));
+    assertTrue(this.visitor.endVisit(parent));
+
+    assertThat(this.graphBuilder, hasNodesAndEdges(
+        new String[]{
+            "\"groupId:parent:jar:version:compile\"[label=\"groupId:parent:jar:version:compile\"]",
+            "\"groupId:child1:jar:version:compile\"[label=\"groupId:child1:jar:version:compile\"]"},
+        new String[]{
+            "\"groupId:parent:jar:version:compile\" -> \"groupId:child1:jar:version:compile\""}));
+    assertEquals(0, this.graphBuilder.getNodes().get(0).getNodeObject().getPrunedDependencies());
+    assertEquals(2, this.graphBuilder.getNodes().get(1).getNodeObject().getPrunedDependencies());
+  }
 
   @Test
   public void defaultArtifactFilter() {
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit tests for {@link GraphFragment}.
+ */
+public class GraphFragmentTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder(Paths.get("target").toFile());
+
+  private DependencyNode module1;
+  private DependencyNode module2;
+  private DependencyNode guava;
+  private DependencyNode junit;
+  private DependencyNode hamcrest;
+
+  @Before
+  public void before() {
+    this.module1 = createNode("module-1", "compile");
+    this.module2 = createNode("module-2", "compile");
+    this.guava = createNode("guava", "compile");
+    this.junit = createNode("junit", "test");
+    this.hamcrest = createNode("hamcrest", "test");
+  }
+
+  @Test
+  public void writeAndRead() throws IOException {
+    // arrange
+    GraphBuilder<DependencyNode> fragmentGraphBuilder = GraphFragment.createGraphBuilder()
+        .addEdge(this.module1, this.junit)
+        .addEdge(this.junit, this.hamcrest)
+        .addEdge(this.module1, this.guava);
+    Path file = this.tmp.getRoot().toPath().resolve("module-1.fragment");
+
+    // act
+    GraphFragment.create(fragmentGraphBuilder, "filters").write(file);
+    GraphFragment fragment = GraphFragment.read(file);
+
+    // assert
+    assertEquals("filters", fragment.getConfiguration());
+    assertEquals(3, fragment.getEdgeCount());
+
+    GraphBuilder<DependencyNode> graphBuilder = createSortedGraphBuilder();
+    GraphFragment.merge(Collections.singletonList(fragment), graphBuilder);
+    assertEquals(createSortedGraphBuilder()
+        .addEdge(this.module1, this.junit)
+        .addEdge(this.junit, this.hamcrest)
+        .addEdge(this.module1, this.guava)
+        .toString(), graphBuilder.toString());
+  }
+
+  @Test
+  public void merge() {
+    // arrange
+    GraphFragment fragment1 = GraphFragment.create(GraphFragment.createGraphBuilder()
+        .addEdge(this.module1, this.guava)
+        .addEdge(this.module1, this.junit)
+        .addEdge(this.junit, this.hamcrest), "");
+    GraphFragment fragment2 = GraphFragment.create(GraphFragment.createGraphBuilder()
+        .addEdge(this.module2, this.module1)
+        .addEdge(this.module1, this.guava)
+        .addEdge(this.module2, this.junit)
+        .addEdge(this.junit, this.hamcrest), "");
+    GraphBuilder<DependencyNode> graphBuilder = createSortedGraphBuilder();
+
+    // act
+    GraphFragment.merge(Arrays.asList(fragment1, fragment2), graphBuilder);
+
+    // assert
+    assertEquals(5, graphBuilder.getEdges().size());
+    assertEquals(createSortedGraphBuilder()
+        .addEdge(this.module1, this.guava)
+        .addEdge(this.module1, this.junit)
+        .addEdge(this.junit, this.hamcrest)
+        .addEdge(this.module2, this.module1)
+        .addEdge(this.module2, this.junit)
+        .toString(), graphBuilder.toString());
+  }
+
+  @Test
+  public void mergeScopes() {
+    // arrange
+    DependencyNode guavaTest = createNode("guava", "test");
+    GraphFragment fragment1 = GraphFragment.create(GraphFragment.createGraphBuilder().addEdge(this.module1, this.guava), "");
+    GraphFragment fragment2 = GraphFragment.create(GraphFragment.createGraphBuilder().addEdge(this.module2, guavaTest), "");
+    GraphBuilder<DependencyNode> graphBuilder = createSortedGraphBuilder();
+
+    // act
+    GraphFragment.merge(Arrays.asList(fragment1, fragment2), graphBuilder);
+
+    // assert
+    assertEquals(Collections.singleton("compile"), graphBuilder.getEffectiveNode(this.module1).getScopes());
+    assertEquals(2, graphBuilder.getEffectiveNode(this.guava).getScopes().size());
+  }
+
+  @Test(expected = IOException.class)
+  public void readInvalidFile() throws IOException {
+    // arrange
+    Path file = this.tmp.getRoot().toPath().resolve("invalid.fragment");
+    Files.write(file, "digraph {}".getBytes(StandardCharsets.UTF_8));
+
+    // act
+    GraphFragment.read(file);
+  }
+
+  private static GraphBuilder<DependencyNode> createSortedGraphBuilder() {
+    return GraphBuilder.create(VERSIONLESS_ID).sortOutput();
+  }
+
+  private static DependencyNode createNode(String artifactId, String scope) {
+    return new DependencyNode(new DefaultArtifact("groupId", artifactId, "1.0.0", scope, "jar", "", null));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import org.junit.Before;
+import org.junit.Test;
+import com.github.ferstl.depgraph.graph.Edge;
+import com.github.ferstl.depgraph.graph.EdgeRenderer;
+import com.github.ferstl.depgraph.graph.GraphBuilder;
+import com.github.ferstl.depgraph.graph.TestFormatter;
+
+import static com.github.ferstl.depgraph.dependency.DependencyNodeUtil.createDependencyNode;
+import static com.github.ferstl.depgraph.dependency.DependencyNodeUtil.createDependencyNodeWithConflict;
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.GROUP_ID;
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.GROUP_ID_WITH_SCOPE;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class GroupIdIndexTest {
+
+  private TestFormatter formatter;
+
+  @Before
+  public void before() {
+    this.formatter = new TestFormatter();
+  }
+
+  @Test
+  public void collapseGroupIds() {
+    // arrange
+    GraphBuilder<DependencyNode> graphBuilder = createGraphBuilder(GROUP_ID_WITH_SCOPE);
+    GroupIdIndex index = new GroupIdIndex(false);
+    DependencyNode root = createDependencyNode("a", "root", "1.0.0");
+
+    // act
+    index.addEdge(graphBuilder, root, createDependencyNode("b", "x", "1.0.0"));
+    index.addEdge(graphBuilder, root, createDependencyNode("b", "y", "1.0.0"));
+    index.addEdge(graphBuilder, root, createDependencyNode("a", "z", "1.0.0"));
+    index.addEdge(graphBuilder, createDependencyNode("b", "x", "1.0.0"), createDependencyNode("c", "x", "1.0.0"));
+    index.addEdge(graphBuilder, root, createDependencyNode("b", "y", "1.0.0", "test"));
+    graphBuilder.toString();
+
+    // assert
+    assertEquals(4, this.formatter.nodes.size());
+    assertThat(this.formatter.edges, contains(
+        new Edge("a:compile", "b:compile", ""),
+        new Edge("b:compile", "c:compile", ""),
+        new Edge("a:compile", "b:test", "")));
+  }
+
+  @Test
+  public void collapseGroupIdsWithMergedScopes() {
+    // arrange
+    GraphBuilder<DependencyNode> graphBuilder = createGraphBuilder(GROUP_ID);
+    GroupIdIndex index = new GroupIdIndex(true);
+    DependencyNode root = createDependencyNode("a", "root", "1.0.0");
+
+    // act
+    index.addEdge(graphBuilder, root, createDependencyNode("b", "x", "1.0.0", "test"));
+    index.addEdge(graphBuilder, root, createDependencyNode("b", "y", "1.0.0", "compile"));
+    graphBuilder.toString();
+
+    // assert
+    assertThat(this.formatter.edges, contains(new Edge("a", "b", "")));
+    assertThat(graphBuilder.getEffectiveNode(createDependencyNode("b", "z", "1.0.0")).getScopes(), contains("compile", "test"));
+  }
+
+  @Test
+  public void collapseGroupIdsByResolution() {
+    // arrange
+    GraphBuilder<DependencyNode> graphBuilder = createGraphBuilder(GROUP_ID_WITH_SCOPE);
+    graphBuilder.useEdgeRenderer(new EdgeRenderer<DependencyNode>() {
+
+      @Override
+      public String render(DependencyNode from, DependencyNode to) {
+        return to.getResolution().name();
+      }
+    });
+    GroupIdIndex index = new GroupIdIndex(false);
+    DependencyNode root = createDependencyNode("a", "root", "1.0.0");
+
+    // act
+    index.addEdge(graphBuilder, root, createDependencyNodeWithConflict("b", "x", "1.0.0"));
+    index.addEdge(graphBuilder, root, createDependencyNode("b", "x", "1.0.0"));
+    index.addEdge(graphBuilder, root, createDependencyNodeWithConflict("b", "y", "1.0.0"));
+    graphBuilder.toString();
+
+    // assert
+    assertThat(this.formatter.edges, contains(
+        new Edge("a:compile", "b:compile", "OMITTED_FOR_CONFLICT"),
+        new Edge("a:compile", "b:compile", "INCLUDED")));
+  }
+
+  private GraphBuilder<DependencyNode> createGraphBuilder(NodeIdRenderers nodeIdRenderer) {
+    GraphBuilder<DependencyNode> graphBuilder = GraphBuilder.create(nodeIdRenderer);
+    graphBuilder.graphFormatter(this.formatter);
+    return graphBuilder;
+  }
+}
@@ -34,6 +34,7 @@ import static java.util.EnumSet.allOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -95,6 +96,20 @@ public class MavenGraphAdapterTest {
     this.graphAdapter.buildDependencyGraph(this.mavenProject, this.globalFilter, this.graphBuilder);
   }
 
+  @Test
+  public void dependencyGraphFromCache() throws Exception {
+    // arrange
+    MavenGraphAdapter cachingAdapter = new MavenGraphAdapter(new DependencyGraphCache(this.dependencyGraphBuilder), this.targetFilter);
+
+    // act
+    cachingAdapter.buildDependencyGraph(this.mavenProject, this.globalFilter, this.graphBuilder);
+    cachingAdapter.buildDependencyGraph(this.mavenProject, this.globalFilter, this.graphBuilder);
+
+    // assert
+    verify(this.dependencyGraphBuilder, times(1)).buildDependencyGraph(ArgumentMatchers.eq(this.mavenProject), ArgumentMatchers.<ArtifactFilter>any());
+    verify(this.dependencyTreeBuilder, never()).buildDependencyTree(ArgumentMatchers.<MavenProject>any(), ArgumentMatchers.<ArtifactRepository>any(), ArgumentMatchers.<ArtifactFilter>any());
+  }
+
   @Test
   public void dependencyTree() throws Exception {
     this.treeAdapter.buildDependencyGraph(this.mavenProject, this.globalFilter, this.graphBuilder);
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.apache.maven.project.MavenProject;
+import org.junit.Test;
+import com.github.ferstl.depgraph.graph.Edge;
+import com.github.ferstl.depgraph.graph.Node;
+
+import static com.github.ferstl.depgraph.dependency.DependencyNodeUtil.createDependencyNode;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ModuleClustererTest {
+
+  @Test
+  public void closestModule() {
+    // arrange
+    ModuleClusterer clusterer = new ModuleClusterer(Arrays.asList(createProject("module-1"), createProject("module-2")));
+
+    Node<?> module1 = new Node<>("module-1", "", createDependencyNode("groupId", "module-1", "1.0.0"));
+    Node<?> module2 = new Node<>("module-2", "", createDependencyNode("groupId", "module-2", "1.0.0"));
+    Node<?> a = new Node<>("a", "", createDependencyNode("groupId", "a", "1.0.0"));
+    Node<?> b = new Node<>("b", "", createDependencyNode("groupId", "b", "1.0.0"));
+    Node<?> c = new Node<>("c", "", createDependencyNode("groupId", "c", "1.0.0"));
+    Node<?> d = new Node<>("d", "", createDependencyNode("groupId", "d", "1.0.0"));
+
+    // act
+    Map<String, String> clusters = clusterer.cluster(
+        Arrays.<Node<?>>asList(module1, module2, a, b, c, d),
+        Arrays.asList(
+            new Edge("a", "b", ""),
+            new Edge("module-2", "module-1", ""),
+            new Edge("module-2", "a", ""),
+            new Edge("module-1", "b", ""),
+            new Edge("module-1", "c", "")));
+
+    // assert
+    assertEquals(5, clusters.size());
+    assertThat(clusters, hasEntry("module-1", "module-1"));
+    assertThat(clusters, hasEntry("module-2", "module-2"));
+    assertThat(clusters, hasEntry("a", "module-2"));
+    assertThat(clusters, hasEntry("b", "module-1"));
+    assertThat(clusters, hasEntry("c", "module-1"));
+  }
+
+  private static MavenProject createProject(String artifactId) {
+    MavenProject project = mock(MavenProject.class);
+    when(project.getGroupId()).thenReturn("groupId");
+    when(project.getArtifactId()).thenReturn(artifactId);
+    return project;
+  }
+}
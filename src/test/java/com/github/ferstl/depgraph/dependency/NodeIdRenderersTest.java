@@ -4,6 +4,7 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.junit.Test;
 
+import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.COORDINATES;
 import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.GROUP_ID;
 import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID;
 import static com.github.ferstl.depgraph.dependency.NodeIdRenderers.VERSIONLESS_ID_WITH_SCOPE;
@@ -38,6 +39,24 @@ public class NodeIdRenderersTest {
     assertEquals("groupId:artifactId:type:classifier:compile", result);
   }
 
+  @Test
+  public void coordinates() {
+    // act
+    String result = COORDINATES.render(createDependencyNode());
+
+    // assert
+    assertEquals("groupId:artifactId:1.0.0:classifier", result);
+  }
+
+  @Test
+  public void coordinatesWithoutClassifier() {
+    // act
+    String result = COORDINATES.render(DependencyNodeUtil.createDependencyNode("groupId", "artifactId", "1.0.0"));
+
+    // assert
+    assertEquals("groupId:artifactId:1.0.0", result);
+  }
+
 
   private static DependencyNode createDependencyNode() {
     Artifact artifact = new DefaultArtifact(
@@ -36,4 +36,18 @@ public class PumlDependencyNodeNameRendererTest {
         nodeInfo);
 
   }
+
+  @Test
+  public void testRenderPrunedDependencies() throws Exception {
+
+    final DependencyNode dependencyNode = DependencyNodeUtil.createDependencyNode("org.springframework",
+        "spring-context", "4.3.9.RELEASE");
+    dependencyNode.setPrunedDependencies(2);
+
+    String nodeInfo = this.renderer.render(dependencyNode);
+
+    assertEquals("{\"component\":\"rectangle\",\"label\":\"org.springframework:spring-context:4.3.9.RELEASE (+2 transitive)\",\"stereotype\":\"compile\"}",
+        nodeInfo);
+
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.dependency;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.ferstl.depgraph.metrics.Metrics;
+import com.github.ferstl.depgraph.metrics.Metrics.CacheType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class VersionTableTest {
+
+  private VersionTable versionTable;
+
+  @Before
+  public void before() {
+    this.versionTable = new VersionTable();
+  }
+
+  @Test
+  public void internedIds() {
+    // act
+    int id1 = this.versionTable.getId("1.0");
+    int id2 = this.versionTable.getId("2.0");
+    int id3 = this.versionTable.getId(new String("1.0"));
+
+    // assert
+    assertEquals(id1, id3);
+    assertThat(id1, lessThan(id2));
+  }
+
+  @Test
+  public void compare() {
+    // arrange
+    int snapshot = this.versionTable.getId("1.0-SNAPSHOT");
+    int release = this.versionTable.getId("1.0");
+    int later = this.versionTable.getId("1.10");
+    int equivalent = this.versionTable.getId("1.0.0");
+
+    // act + assert
+    assertThat(this.versionTable.compare(snapshot, release), lessThan(0));
+    assertThat(this.versionTable.compare(release, snapshot), greaterThan(0));
+    assertThat(this.versionTable.compare(later, release), greaterThan(0));
+    assertEquals(0, this.versionTable.compare(release, equivalent));
+  }
+
+  @Test
+  public void cachedComparisons() {
+    // arrange
+    Metrics metrics = new Metrics();
+    int id1 = this.versionTable.getId("1.0");
+    int id2 = this.versionTable.getId("2.0");
+
+    // act
+    try (Metrics.Binding binding = Metrics.bind(metrics, "module")) {
+      this.versionTable.compare(id1, id2);
+      this.versionTable.compare(id2, id1);
+      this.versionTable.compare(id1, id2);
+    }
+
+    // assert
+    assertEquals(3, metrics.getCacheLookups(CacheType.VERSION_COMPARISON));
+    assertEquals(2, metrics.getCacheHits(CacheType.VERSION_COMPARISON));
+  }
+
+  @Test
+  public void comparator() {
+    // arrange
+    List<String> versions = Arrays.asList("1.10", "1.0.0", "1.9", "1.0", "1.0-SNAPSHOT");
+
+    // act
+    Collections.sort(versions, this.versionTable.comparator());
+
+    // assert
+    assertThat(versions, contains("1.0-SNAPSHOT", "1.0", "1.0.0", "1.9", "1.10"));
+  }
+}
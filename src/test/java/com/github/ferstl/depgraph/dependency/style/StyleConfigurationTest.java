@@ -30,6 +30,8 @@ import com.google.common.io.Files;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 
 public class StyleConfigurationTest {
@@ -77,6 +79,32 @@ public class StyleConfigurationTest {
     assertEquals("[shape=\"box\",color=\"blue\",label=<groupId<br/>artifactId<br/>1.0.0<br/>provided>]", config.nodeAttributes("groupId", "artifactId", "1.0.0", "jar", "provided", "provided").toString());
   }
 
+  @Test
+  public void loadCached() {
+    StyleConfiguration config1 = StyleConfiguration.loadCached(this.testStyle, this.testOverride);
+    StyleConfiguration config2 = StyleConfiguration.loadCached(this.testStyle, this.testOverride);
+    StyleConfiguration config3 = StyleConfiguration.loadCached(this.testStyle);
+
+    assertSame(config1, config2);
+    assertNotSame(config1, config3);
+    assertEquals("[rankdir=\"LR\"]", config1.graphAttributes().toString());
+  }
+
+  @Test
+  public void loadCachedWithChangedResource() throws IOException {
+    File configFile = this.tmp.newFile("config.json");
+    FileSystemStyleResource configResource = new FileSystemStyleResource(configFile.toPath());
+
+    Files.write("{\"graph\": {\"rankdir\": \"LR\"}}", configFile, UTF_8);
+    StyleConfiguration config1 = StyleConfiguration.loadCached(this.testStyle, configResource);
+    Files.write("{\"graph\": {\"rankdir\": \"TB\"}}", configFile, UTF_8);
+    StyleConfiguration config2 = StyleConfiguration.loadCached(this.testStyle, configResource);
+
+    assertNotSame(config1, config2);
+    assertEquals("[rankdir=\"LR\"]", config1.graphAttributes().toString());
+    assertEquals("[rankdir=\"TB\"]", config2.graphAttributes().toString());
+  }
+
   @Test
   public void defaultNodeAttributesForEmptyConfiguration() {
     DotAttributeBuilder attributes = this.emptyConfig.defaultNodeAttributes();
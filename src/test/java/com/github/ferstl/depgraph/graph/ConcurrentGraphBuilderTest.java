@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import com.github.ferstl.depgraph.ToStringNodeIdRenderer;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * JUnit tests for {@link ConcurrentGraphBuilder}.
+ */
+public class ConcurrentGraphBuilderTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private TestFormatter formatter;
+
+  @Before
+  public void before() {
+    this.formatter = new TestFormatter();
+  }
+
+  @Test
+  public void concurrentBuilder() throws Exception {
+    // arrange
+    final ConcurrentGraphBuilder<String> concurrentBuilder = ConcurrentGraphBuilder.create(ToStringNodeIdRenderer.INSTANCE, NoOpNodeMerger.INSTANCE);
+    concurrentBuilder.graphFormatter(this.formatter);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final String prefix = "node" + i;
+      threads.add(new Thread() {
+
+        @Override
+        public void run() {
+          for (int j = 0; j < 100; j++) {
+            concurrentBuilder.addEdge(prefix + "-" + j, "common");
+          }
+        }
+      });
+    }
+
+    // act
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    concurrentBuilder.toString();
+
+    // assert
+    assertEquals(401, this.formatter.nodes.size());
+    assertEquals(400, this.formatter.edges.size());
+    assertEquals("common", this.formatter.nodes.iterator().next().getNodeId());
+    assertEquals(new Edge("node0-0", "common", ""), this.formatter.edges.iterator().next());
+  }
+
+  @Test
+  public void concurrentBuilderMergesNodes() {
+    // arrange
+    ConcurrentGraphBuilder<StringBuilder> concurrentBuilder = ConcurrentGraphBuilder.create(FirstCharNodeIdRenderer.INSTANCE, StringBuilderMerger.INSTANCE);
+    StringBuilder a1 = new StringBuilder("a1");
+    concurrentBuilder.addEdge(a1, new StringBuilder("b"));
+    concurrentBuilder.addEdge(new StringBuilder("a2"), new StringBuilder("c"));
+
+    // act
+    StringBuilder effectiveNode = concurrentBuilder.getEffectiveNode(new StringBuilder("a3"));
+
+    // assert
+    assertSame(a1, effectiveNode);
+    assertEquals("a1a2", effectiveNode.toString());
+  }
+
+  @Test
+  public void reduceToDependents() {
+    // arrange
+    ConcurrentGraphBuilder<String> concurrentBuilder = ConcurrentGraphBuilder.create(ToStringNodeIdRenderer.INSTANCE, NoOpNodeMerger.INSTANCE);
+    concurrentBuilder.graphFormatter(this.formatter);
+    concurrentBuilder.addEdge("a", "b");
+    concurrentBuilder.addEdge("c", "d");
+
+    // act
+    concurrentBuilder.reduceToDependents(new GraphBuilderTest.EqualsNodeFilter("b"));
+    concurrentBuilder.toString();
+
+    // assert
+    assertEquals(2, this.formatter.nodes.size());
+    assertEquals(singletonList(new Edge("a", "b", "")), new ArrayList<>(this.formatter.edges));
+    assertFalse(concurrentBuilder.isEmpty());
+  }
+
+  @Test
+  public void concurrentBuilderWithoutMerger() {
+    // arrange
+    this.expectedException.expect(NullPointerException.class);
+
+    // act
+    ConcurrentGraphBuilder.create(ToStringNodeIdRenderer.INSTANCE, null);
+  }
+
+  enum NoOpNodeMerger implements NodeMerger<String> {
+    INSTANCE;
+
+    @Override
+    public void merge(String existingNode, String node) {
+      // Strings are immutable and equal nodes have the same ID
+    }
+  }
+
+  enum FirstCharNodeIdRenderer implements NodeRenderer<StringBuilder> {
+    INSTANCE;
+
+    @Override
+    public String render(StringBuilder node) {
+      return node.substring(0, 1);
+    }
+  }
+
+  enum StringBuilderMerger implements NodeMerger<StringBuilder> {
+    INSTANCE;
+
+    @Override
+    public void merge(StringBuilder existingNode, StringBuilder node) {
+      synchronized (existingNode) {
+        existingNode.append(node);
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DominatorTreeTest {
+
+  @Test
+  public void diamond() {
+    // arrange
+    Collection<Node<?>> nodes = nodes("p", "a", "b", "c", "d");
+    Collection<Edge> edges = edges("p", "a", "p", "b", "a", "c", "b", "c", "c", "d");
+
+    // act
+    DominatorTree tree = DominatorTree.create(nodes, edges);
+
+    // assert
+    assertNull(tree.getImmediateDominator("p"));
+    assertEquals("p", tree.getImmediateDominator("a"));
+    assertEquals("p", tree.getImmediateDominator("c"));
+    assertEquals("c", tree.getImmediateDominator("d"));
+    assertThat(tree.getDominators("d"), contains("c", "p"));
+    assertThat(tree.getDominators("p"), empty());
+    assertTrue(tree.isDominator("c"));
+    assertFalse(tree.isDominator("a"));
+    assertFalse(tree.isDominator("p"));
+    assertThat(tree.getDominatorNodes(), contains("c"));
+  }
+
+  @Test
+  public void multipleRoots() {
+    // arrange
+    Collection<Node<?>> nodes = nodes("m1", "m2", "x", "y", "z");
+    Collection<Edge> edges = edges("m1", "x", "m2", "x", "m1", "y", "y", "z");
+
+    // act
+    DominatorTree tree = DominatorTree.create(nodes, edges);
+
+    // assert
+    assertNull(tree.getImmediateDominator("x"));
+    assertEquals("m1", tree.getImmediateDominator("y"));
+    assertThat(tree.getDominators("z"), contains("y", "m1"));
+    assertThat(tree.getDominatorNodes(), contains("y"));
+  }
+
+  /**
+   * The example graph of Lengauer and Tarjan's paper. Its root has an incoming edge, so it is attached to the virtual
+   * root as unreachable node.
+   */
+  @Test
+  public void lengauerTarjanExample() {
+    // arrange
+    Collection<Node<?>> nodes = nodes("R", "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L");
+    Collection<Edge> edges = edges(
+        "R", "A", "R", "B", "R", "C",
+        "A", "D",
+        "B", "A", "B", "D", "B", "E",
+        "C", "F", "C", "G",
+        "D", "L",
+        "E", "H",
+        "F", "I",
+        "G", "I", "G", "J",
+        "H", "E", "H", "K",
+        "I", "K",
+        "J", "I",
+        "K", "I", "K", "R",
+        "L", "H");
+
+    // act
+    DominatorTree tree = DominatorTree.create(nodes, edges);
+
+    // assert
+    String[] expected = {null, "R", "R", "R", "R", "R", "C", "C", "R", "R", "G", "R", "D"};
+    List<String> actual = new ArrayList<>();
+    for (String nodeId : tree.getNodeIds()) {
+      actual.add(tree.getImmediateDominator(nodeId));
+    }
+    assertEquals(asList(expected), actual);
+  }
+
+  @Test
+  public void ignoreSelfReferencesAndUnknownNodes() {
+    // arrange
+    Collection<Node<?>> nodes = nodes("p", "a", "b");
+    Collection<Edge> edges = edges("p", "a", "a", "a", "a", "b", "unknown", "b");
+
+    // act
+    DominatorTree tree = DominatorTree.create(nodes, edges);
+
+    // assert
+    assertEquals("a", tree.getImmediateDominator("b"));
+    assertNull(tree.getImmediateDominator("unknown"));
+    assertThat(tree.getDominators("unknown"), empty());
+  }
+
+  @Test
+  public void deepGraph() {
+    // arrange
+    int depth = 100000;
+    List<Node<?>> nodes = new ArrayList<>();
+    List<Edge> edges = new ArrayList<>();
+    for (int i = 0; i < depth; i++) {
+      nodes.add(new Node<>("n" + i, "", new Object()));
+      if (i > 0) {
+        edges.add(new Edge("n" + (i - 1), "n" + i, ""));
+      }
+    }
+
+    // act
+    DominatorTree tree = DominatorTree.create(nodes, edges);
+
+    // assert
+    assertEquals("n" + (depth - 2), tree.getImmediateDominator("n" + (depth - 1)));
+    assertEquals(depth - 1, tree.getDominators("n" + (depth - 1)).size());
+  }
+
+  private static Collection<Node<?>> nodes(String... nodeIds) {
+    List<Node<?>> nodes = new ArrayList<>();
+    for (String nodeId : nodeIds) {
+      nodes.add(new Node<>(nodeId, "", new Object()));
+    }
+    return nodes;
+  }
+
+  private static Collection<Edge> edges(String... fromTo) {
+    List<Edge> edges = new ArrayList<>();
+    for (int i = 0; i < fromTo.length; i += 2) {
+      edges.add(new Edge(fromTo[i], fromTo[i + 1], ""));
+    }
+    return edges;
+  }
+}
@@ -15,15 +15,20 @@
  */
 package com.github.ferstl.depgraph.graph;
 
+import java.nio.file.Paths;
 import org.hamcrest.Matchers;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import com.github.ferstl.depgraph.ToStringNodeIdRenderer;
 
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.emptyArray;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
@@ -34,6 +39,12 @@ import static org.junit.Assert.assertTrue;
  */
 public class GraphBuilderTest {
 
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder(Paths.get("target").toFile());
+
   private GraphBuilder<String> graphBuilder;
   private String fromNode;
   private String toNode;
@@ -214,6 +225,147 @@ public class GraphBuilderTest {
     assertFalse(this.graphBuilder.isEmpty());
   }
 
+  @Test
+  public void reduceToDependents() {
+    // arrange
+    this.graphBuilder
+        .addEdge("a", "b")
+        .addEdge("b", "target")
+        .addEdge("c", "target")
+        .addEdge("d", "c")
+        .addEdge("a", "e")
+        .addEdge("target", "f");
+
+    // act
+    this.graphBuilder.reduceToDependents(new EqualsNodeFilter("target"));
+    this.graphBuilder.toString();
+
+    // assert
+    assertThat(this.formatter.nodes, Matchers.<Node<?>>containsInAnyOrder(
+        new Node<>("a", "", ""),
+        new Node<>("b", "", ""),
+        new Node<>("c", "", ""),
+        new Node<>("d", "", ""),
+        new Node<>("target", "", "")));
+    assertThat(this.formatter.edges, containsInAnyOrder(
+        new Edge("a", "b", ""),
+        new Edge("b", "target", ""),
+        new Edge("c", "target", ""),
+        new Edge("d", "c", "")));
+  }
+
+  @Test
+  public void reduceToDependentsWithoutMatch() {
+    // arrange
+    this.graphBuilder.addEdge(this.fromNode, this.toNode);
+
+    // act
+    this.graphBuilder.reduceToDependents(new EqualsNodeFilter("somethingCompletelyDifferent"));
+
+    // assert
+    assertTrue(this.graphBuilder.isEmpty());
+  }
+
+  @Test
+  public void sortOutput() {
+    // arrange
+    this.graphBuilder
+        .sortOutput()
+        .useEdgeRenderer(TestEdgeRenderer.INSTANCE)
+        .addEdge("c", "a")
+        .addEdge("b", "c")
+        .addEdge("a", "c")
+        .addEdge("a", "b");
+
+    // act
+    this.graphBuilder.toString();
+
+    // assert
+    assertThat(this.formatter.nodes, Matchers.<Node<?>>contains(
+        new Node<>("a", "", ""),
+        new Node<>("b", "", ""),
+        new Node<>("c", "", "")));
+    assertThat(this.formatter.edges, contains(
+        new Edge("a", "b", "a->b"),
+        new Edge("a", "c", "a->c"),
+        new Edge("b", "c", "b->c"),
+        new Edge("c", "a", "c->a")));
+  }
+
+  @Test
+  public void spillEdges() {
+    // arrange
+    this.graphBuilder
+        .spillEdges(2, this.tmp.getRoot().toPath())
+        .useEdgeRenderer(TestEdgeRenderer.INSTANCE)
+        .addEdge("c", "a")
+        .addEdge("b", "c")
+        .addEdge("a", "c")
+        .addEdge("a", "b");
+
+    // act
+    this.graphBuilder.toString();
+
+    // assert
+    assertThat(this.formatter.nodes, Matchers.<Node<?>>contains(
+        new Node<>("a", "", ""),
+        new Node<>("b", "", ""),
+        new Node<>("c", "", "")));
+    assertThat(this.formatter.edges, contains(
+        new Edge("a", "b", "a->b"),
+        new Edge("a", "c", "a->c"),
+        new Edge("b", "c", "b->c"),
+        new Edge("c", "a", "c->a")));
+  }
+
+  @Test
+  public void deleteSpilledEdges() {
+    // arrange
+    this.graphBuilder
+        .spillEdges(1, this.tmp.getRoot().toPath())
+        .addEdge("a", "b")
+        .addEdge("b", "c");
+
+    // act
+    this.graphBuilder.deleteSpilledEdges();
+
+    // assert
+    assertThat(this.graphBuilder.getEdges(), empty());
+    assertThat(this.tmp.getRoot().list(), emptyArray());
+  }
+
+  @Test
+  public void spillEdgesAfterAddingEdges() {
+    // arrange
+    this.graphBuilder.addEdge("a", "b");
+
+    // assert
+    this.expectedException.expect(IllegalStateException.class);
+
+    // act
+    this.graphBuilder.spillEdges(2, this.tmp.getRoot().toPath());
+  }
+
+  @Test
+  public void insertionOrder() {
+    // arrange
+    this.graphBuilder
+        .addEdge("c", "a")
+        .addEdge("b", "c");
+
+    // act
+    this.graphBuilder.toString();
+
+    // assert
+    assertThat(this.formatter.nodes, Matchers.<Node<?>>contains(
+        new Node<>("c", "", ""),
+        new Node<>("a", "", ""),
+        new Node<>("b", "", "")));
+    assertThat(this.formatter.edges, contains(
+        new Edge("c", "a", ""),
+        new Edge("b", "c", "")));
+  }
+
   enum TestNodeRenderer implements NodeRenderer<String> {
     INSTANCE;
 
@@ -232,4 +384,19 @@ public class GraphBuilderTest {
       return from.substring(0, 1) + "->" + to.substring(0, 1);
     }
   }
+
+
+  static class EqualsNodeFilter implements NodeFilter<String> {
+
+    private final String value;
+
+    EqualsNodeFilter(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean include(String node) {
+      return this.value.equals(node);
+    }
+  }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.graph;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingEdgeSetTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder(Paths.get("target").toFile());
+
+  private Path directory;
+
+  @Before
+  public void before() {
+    this.directory = this.tmp.getRoot().toPath().resolve("edges");
+  }
+
+  @Test
+  public void insertionOrderInMemory() {
+    // arrange
+    SpillingEdgeSet edges = new SpillingEdgeSet(10, this.directory);
+
+    // act
+    edges.add(new Edge("c", "a", ""));
+    edges.add(new Edge("a", "b", ""));
+    edges.add(new Edge("c", "a", ""));
+
+    // assert
+    assertFalse(edges.isSpilled());
+    assertEquals(2, edges.size());
+    assertThat(edges, contains(new Edge("c", "a", ""), new Edge("a", "b", "")));
+  }
+
+  @Test
+  public void spill() {
+    // arrange
+    SpillingEdgeSet edges = new SpillingEdgeSet(2, this.directory);
+
+    // act
+    edges.add(new Edge("c", "a", "x"));
+    edges.add(new Edge("a", "c", null));
+    edges.add(new Edge("b", "c", ""));
+    edges.add(new Edge("c", "a", "x"));
+    edges.add(new Edge("a", "b", ""));
+
+    // assert
+    assertTrue(edges.isSpilled());
+    assertEquals(4, edges.size());
+    assertThat(edges, contains(
+        new Edge("a", "b", ""),
+        new Edge("a", "c", null),
+        new Edge("b", "c", ""),
+        new Edge("c", "a", "x")));
+  }
+
+  @Test
+  public void retainAll() {
+    // arrange
+    SpillingEdgeSet edges = new SpillingEdgeSet(2, this.directory);
+    edges.add(new Edge("a", "b", ""));
+    edges.add(new Edge("b", "c", ""));
+    edges.add(new Edge("c", "d", ""));
+
+    // act
+    boolean changed = edges.retainAll(Arrays.asList(new Edge("c", "d", ""), new Edge("a", "b", "")));
+
+    // assert
+    assertTrue(changed);
+    assertEquals(2, edges.size());
+    assertThat(edges, contains(new Edge("a", "b", ""), new Edge("c", "d", "")));
+  }
+
+  @Test
+  public void sizeCountedDuringIteration() throws Exception {
+    // arrange
+    SpillingEdgeSet edges = new SpillingEdgeSet(2, this.directory);
+    edges.add(new Edge("a", "b", ""));
+    edges.add(new Edge("c", "d", ""));
+    edges.add(new Edge("a", "b", ""));
+    edges.add(new Edge("e", "f", ""));
+
+    // act
+    int iteratedEdges = 0;
+    for (Iterator<Edge> iterator = edges.iterator(); iterator.hasNext(); iterator.next()) {
+      iteratedEdges++;
+    }
+
+    // assert
+    // The runs cannot be merged again without their files
+    for (File run : this.directory.toFile().listFiles()) {
+      Files.delete(run.toPath());
+    }
+    assertEquals(3, iteratedEdges);
+    assertEquals(3, edges.size());
+    assertFalse(edges.isEmpty());
+  }
+
+  @Test
+  public void clearDeletesRuns() {
+    // arrange
+    SpillingEdgeSet edges = new SpillingEdgeSet(1, this.directory);
+    edges.add(new Edge("a", "b", ""));
+    edges.add(new Edge("b", "c", ""));
+
+    // act
+    edges.clear();
+
+    // assert
+    assertTrue(edges.isEmpty());
+    assertFalse(edges.isSpilled());
+    assertEquals(0, this.directory.toFile().listFiles().length);
+  }
+
+  @Test
+  public void clearClosesPartiallyIteratedRuns() throws Exception {
+    // arrange
+    SpillingEdgeSet edges = new SpillingEdgeSet(2, this.directory);
+    edges.add(new Edge("a", "b", ""));
+    edges.add(new Edge("c", "d", ""));
+    edges.add(new Edge("b", "c", ""));
+    edges.add(new Edge("d", "e", ""));
+    // Both runs still have edges to read
+    Iterator<Edge> iterator = edges.iterator();
+    iterator.next();
+    int openFiles = countOpenFiles();
+
+    // act
+    edges.clear();
+
+    // assert
+    assertEquals(0, this.directory.toFile().listFiles().length);
+    if (openFiles >= 0) {
+      assertEquals(openFiles - 2, countOpenFiles());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidLimit() {
+    new SpillingEdgeSet(0, this.directory);
+  }
+
+  /**
+   * Counts the open files of this process or returns {@code -1} if the platform does not tell.
+   */
+  private static int countOpenFiles() {
+    File[] fileDescriptors = new File("/proc/self/fd").listFiles();
+    return fileDescriptors != null ? fileDescriptors.length : -1;
+  }
+}
@@ -24,10 +24,9 @@ public class TestFormatter implements GraphFormatter {
   public Collection<Edge> edges;
 
   @Override
-  public String format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges) {
+  public void format(String graphName, Collection<Node<?>> nodes, Collection<Edge> edges, Appendable output) {
     this.graphName = graphName;
     this.nodes = nodes;
     this.edges = edges;
-    return "";
   }
 }
@@ -15,10 +15,14 @@
  */
 package com.github.ferstl.depgraph.graph.dot;
 
+import java.util.Collection;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import com.github.ferstl.depgraph.graph.Edge;
 import com.github.ferstl.depgraph.graph.Node;
+import com.github.ferstl.depgraph.graph.NodeClusterer;
+import com.google.common.collect.ImmutableMap;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
@@ -36,7 +40,7 @@ public class DotGraphFormatterTest {
   }
 
   @Test
-  public void format() {
+  public void format() throws Exception {
     // arrange
     Node<?> node1 = new Node<>("id1", "name1", new Object());
     Node<?> node2 = new Node<>("id2", "", new Object());
@@ -46,7 +50,9 @@ public class DotGraphFormatterTest {
     Edge edge2 = new Edge("id1", "id2", "");
 
     // act
-    String result = this.formatter.format("graphName", asList(node1, node2, node3), asList(edge1, edge2));
+    StringBuilder output = new StringBuilder();
+    this.formatter.format("graphName", asList(node1, node2, node3), asList(edge1, edge2), output);
+    String result = output.toString();
 
     // assert
     String expected = "digraph \"graphName\" {\n"
@@ -65,4 +71,79 @@ public class DotGraphFormatterTest {
 
     assertEquals(expected, result);
   }
+
+  @Test
+  public void formatWithClusters() throws Exception {
+    // arrange
+    NodeClusterer clusterer = new NodeClusterer() {
+
+      @Override
+      public Map<String, String> cluster(Collection<Node<?>> nodes, Collection<Edge> edges) {
+        return ImmutableMap.of("id1", "a", "id3", "a", "id4", "b");
+      }
+    };
+    DotGraphFormatter clusteringFormatter = new DotGraphFormatter(new DotAttributeBuilder(), new DotAttributeBuilder(), new DotAttributeBuilder(), clusterer);
+
+    Node<?> node1 = new Node<>("id1", "name1", new Object());
+    Node<?> node2 = new Node<>("id2", "", new Object());
+    Node<?> node3 = new Node<>("id3", "name3", new Object());
+    Node<?> node4 = new Node<>("id4", "", new Object());
+
+    // act
+    StringBuilder output = new StringBuilder();
+    clusteringFormatter.format("graphName", asList(node1, node2, node3, node4), asList(new Edge("id1", "id2", "")), output);
+    String result = output.toString();
+
+    // assert
+    String expected = "digraph \"graphName\" {\n"
+        + "\n"
+        + "  // Node Definitions:\n"
+        + "  subgraph \"cluster_a\" {\n"
+        + "    label=\"a\"\n"
+        + "    \"id1\"name1\n"
+        + "    \"id3\"name3\n"
+        + "  }\n"
+        + "  subgraph \"cluster_b\" {\n"
+        + "    label=\"b\"\n"
+        + "    \"id4\"\n"
+        + "  }\n"
+        + "  \"id2\"\n"
+        + "\n"
+        + "  // Edge Definitions:\n"
+        + "  \"id1\" -> \"id2\"\n"
+        + "}";
+
+    assertEquals(expected, result);
+  }
+
+  @Test
+  public void formatWithDominators() throws Exception {
+    // arrange
+    DotAttributeBuilder dominatorAttributeBuilder = new DotAttributeBuilder().color("red");
+    DotGraphFormatter highlightingFormatter = new DotGraphFormatter(new DotAttributeBuilder(), new DotAttributeBuilder(), new DotAttributeBuilder(), null, dominatorAttributeBuilder);
+
+    Node<?> node1 = new Node<>("id1", "name1", new Object());
+    Node<?> node2 = new Node<>("id2", "name2", new Object());
+    Node<?> node3 = new Node<>("id3", "", new Object());
+
+    // act
+    StringBuilder output = new StringBuilder();
+    highlightingFormatter.format("graphName", asList(node1, node2, node3), asList(new Edge("id1", "id2", ""), new Edge("id2", "id3", "")), output);
+    String result = output.toString();
+
+    // assert
+    String expected = "digraph \"graphName\" {\n"
+        + "\n"
+        + "  // Node Definitions:\n"
+        + "  \"id1\"name1\n"
+        + "  \"id2\"name2[color=\"red\"]\n"
+        + "  \"id3\"\n"
+        + "\n"
+        + "  // Edge Definitions:\n"
+        + "  \"id1\" -> \"id2\"\n"
+        + "  \"id2\" -> \"id3\"\n"
+        + "}";
+
+    assertEquals(expected, result);
+  }
 }
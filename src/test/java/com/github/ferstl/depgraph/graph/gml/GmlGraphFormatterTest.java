@@ -33,7 +33,7 @@ public class GmlGraphFormatterTest {
   }
 
   @Test
-  public void format() {
+  public void format() throws Exception {
     // arrange
     Node<?> node1 = new Node<>("id1", "label \"name1\"", new Object());
     Node<?> node2 = new Node<>("id2", "", new Object());
@@ -43,7 +43,9 @@ public class GmlGraphFormatterTest {
     Edge edge2 = new Edge("id1", "id2", "");
 
     // act
-    String result = this.formatter.format("graphName", asList(node1, node2, node3), asList(edge1, edge2));
+    StringBuilder output = new StringBuilder();
+    this.formatter.format("graphName", asList(node1, node2, node3), asList(edge1, edge2), output);
+    String result = output.toString();
 
     // assert
     String expected = "graph [\n"
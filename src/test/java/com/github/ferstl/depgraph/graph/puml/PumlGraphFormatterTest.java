@@ -72,7 +72,9 @@ public class PumlGraphFormatterTest {
 
   @Test
   public void testFormatDependenciesGraphAsPumlDiagram() throws Exception {
-    final String puml = this.formatter.format("graphName", this.nodes, this.edges);
+    StringBuilder output = new StringBuilder();
+    this.formatter.format("graphName", this.nodes, this.edges, output);
+    final String puml = output.toString();
     assertEquals("@startuml\n" +
         "skinparam rectangle {\n" +
         "  BackgroundColor<<test>> lightGreen\n" +
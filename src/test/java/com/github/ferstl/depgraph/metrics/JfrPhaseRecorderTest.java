@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.metrics;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.github.ferstl.depgraph.metrics.Metrics.Phase;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class JfrPhaseRecorderTest {
+
+  @Rule
+  public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Before
+  public void before() {
+    assumeTrue(FlightRecorder.isAvailable());
+  }
+
+  @Test
+  public void phaseEvent() throws Exception {
+    // arrange
+    Path recordingFile = this.tempFolder.getRoot().toPath().resolve("recording.jfr");
+
+    // act
+    try (Recording recording = new Recording()) {
+      recording.enable(JfrPhaseRecorder.EVENT_NAME);
+      recording.start();
+
+      // Events are recorded even when no metrics are bound
+      try (Metrics.Binding binding = Metrics.bind(null, "groupId:artifactId");
+          Metrics.Timer timer = Metrics.start(Phase.FORMATTING)) {
+        timer.graphSize(3, 2);
+        // Added time is not recorded as event
+        Metrics.addTime(Phase.STYLING, 1000);
+      }
+
+      recording.stop();
+      recording.dump(recordingFile);
+    }
+
+    // assert
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+    assertEquals(1, events.size());
+    RecordedEvent event = events.get(0);
+    assertEquals("Formatting", event.getString("phase"));
+    assertEquals("groupId:artifactId", event.getString("module"));
+    assertEquals(3, event.getLong("nodes"));
+    assertEquals(2, event.getLong("edges"));
+    assertEquals(-1, event.getLong("bytesWritten"));
+  }
+}
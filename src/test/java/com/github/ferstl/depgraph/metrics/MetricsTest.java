@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2014 - 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.ferstl.depgraph.metrics;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.ferstl.depgraph.metrics.Metrics.CacheType;
+import com.github.ferstl.depgraph.metrics.Metrics.Counter;
+import com.github.ferstl.depgraph.metrics.Metrics.Phase;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class MetricsTest {
+
+  private Metrics metrics;
+
+  @Before
+  public void before() {
+    this.metrics = new Metrics();
+  }
+
+  @Test
+  public void nestedPhases() throws Exception {
+    // act
+    try (Metrics.Binding binding = Metrics.bind(this.metrics, "module")) {
+      try (Metrics.Timer outer = Metrics.start(Phase.VISITING)) {
+        try (Metrics.Timer inner = Metrics.start(Phase.STYLING)) {
+          Thread.sleep(50);
+        }
+      }
+    }
+
+    // assert
+    assertThat(this.metrics.getTime(Phase.STYLING), greaterThanOrEqualTo(50_000_000L));
+    assertThat(this.metrics.getTime(Phase.VISITING), greaterThan(0L));
+    assertThat(this.metrics.getTime(Phase.VISITING), lessThan(50_000_000L));
+  }
+
+  @Test
+  public void addedTime() throws Exception {
+    // act
+    try (Metrics.Binding binding = Metrics.bind(this.metrics, "module")) {
+      try (Metrics.Timer outer = Metrics.start(Phase.VISITING)) {
+        Thread.sleep(50);
+        Metrics.addTime(Phase.STYLING, 20_000_000L);
+      }
+    }
+
+    // assert
+    assertEquals(20_000_000L, this.metrics.getTime(Phase.STYLING));
+    assertThat(this.metrics.getTime(Phase.VISITING), greaterThanOrEqualTo(50_000_000L));
+  }
+
+  @Test
+  public void countersAndCaches() {
+    // act
+    try (Metrics.Binding binding = Metrics.bind(this.metrics, "module")) {
+      Metrics.count(Counter.NODES, 3);
+      Metrics.count(Counter.NODES, 2);
+      Metrics.cacheAccess(CacheType.NODE_STYLE, false);
+      Metrics.cacheAccess(CacheType.NODE_STYLE, true);
+      Metrics.cacheAccess(CacheType.NODE_STYLE, true);
+      Metrics.cacheAccess(CacheType.NODE_STYLE, true);
+    }
+
+    // assert
+    assertEquals(5, this.metrics.getCount(Counter.NODES));
+    assertEquals(4, this.metrics.getCacheLookups(CacheType.NODE_STYLE));
+    assertEquals(3, this.metrics.getCacheHits(CacheType.NODE_STYLE));
+
+    List<String> table = this.metrics.toTable();
+    assertThat(table.get(0), startsWith("Phase"));
+    assertThat(table, hasItem("Nodes: 5, Edges: 0"));
+    assertThat(table, hasItem("Node style cache: 75.0% hit ratio (3 of 4 lookups)"));
+    assertThat(table, hasItem("Edge style cache: n/a hit ratio (0 of 0 lookups)"));
+    assertThat(this.metrics.toJson(), containsString("\"lookups\" : 4"));
+  }
+
+  @Test
+  public void unbound() {
+    // arrange
+    try (Metrics.Binding binding = Metrics.bind(this.metrics, "module")) {
+      try (Metrics.Binding nestedBinding = Metrics.bind(null, "module")) {
+        // act
+        Metrics.count(Counter.EDGES, 1);
+        Metrics.cacheAccess(CacheType.EDGE_STYLE, true);
+        Metrics.start(Phase.FORMATTING).close();
+      }
+    }
+
+    // assert
+    assertEquals(0, this.metrics.getCount(Counter.EDGES));
+    assertEquals(0, this.metrics.getCacheLookups(CacheType.EDGE_STYLE));
+    assertEquals(0, this.metrics.getTime(Phase.FORMATTING));
+  }
+}